@@ -0,0 +1,72 @@
+package gobang.algorithm.ai;
+
+import gobang.bean.BitBoard;
+import gobang.bean.ColorEnum;
+import gobang.bean.DirectionEnum;
+import gobang.benchmark.BoardCorpusEnum;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 棋型检测基准测试：局面中所有候选棋位、四个方向、双方的检测数组，
+ * 对比 {@link PatternEnum#check(int[])} 逐个匹配与 {@link PatternTable} 查表。
+ * {@link PatternEnum} 不对外公开，所以放在同一个包下
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PatternBenchmark {
+
+    @Param
+    private BoardCorpusEnum corpus;
+
+    private int[][] subjects;
+
+    private int[] codes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BitBoard board = corpus.bitBoard();
+        CandidateGenerator candidates = new CandidateGenerator(board);
+        List<int[]> subjectList = new ArrayList<>();
+        List<Integer> codeList = new ArrayList<>();
+        int[] window = new int[PatternTable.WINDOW_LENGTH];
+        for (int i = 0; i < candidates.size(); i++) {
+            int origin = candidates.get(i);
+            for (DirectionEnum direction : DirectionEnum.values()) {
+                for (ColorEnum color : new ColorEnum[]{ColorEnum.BLACK, ColorEnum.WHITE}) {
+                    int code = PatternTable.encode(board, origin, board.deltaOf(direction), color);
+                    PatternTable.decode(code, window);
+                    subjectList.add(PatternTable.toSubject(window));
+                    codeList.add(code);
+                }
+            }
+        }
+        subjects = subjectList.toArray(new int[0][]);
+        codes = codeList.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Benchmark
+    public void check(Blackhole blackhole) {
+        for (int[] subject : subjects) {
+            blackhole.consume(PatternEnum.check(subject));
+        }
+    }
+
+    @Benchmark
+    public void lookup(Blackhole blackhole) {
+        for (int code : codes) {
+            blackhole.consume(PatternTable.lookup(code));
+        }
+    }
+}
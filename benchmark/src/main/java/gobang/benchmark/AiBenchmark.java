@@ -0,0 +1,44 @@
+package gobang.benchmark;
+
+import gobang.algorithm.ai.AiAlgorithms;
+import gobang.bean.ColorEnum;
+import gobang.bean.Position;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AiAlgorithms#checkChessPosition(int[][], ColorEnum, ColorEnum)} 基准测试
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AiBenchmark {
+
+    @Param
+    private BoardCorpusEnum corpus;
+
+    private int[][] boardInfo;
+
+    private ColorEnum ownColor;
+
+    private ColorEnum opponentColor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boardInfo = corpus.boardInfo();
+        ownColor = corpus.sideToMove();
+        opponentColor = corpus.lastColor();
+    }
+
+    @Benchmark
+    public Position checkChessPosition() {
+        return AiAlgorithms.checkChessPosition(boardInfo, ownColor, opponentColor);
+    }
+}
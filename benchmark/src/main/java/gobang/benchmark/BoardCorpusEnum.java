@@ -0,0 +1,112 @@
+package gobang.benchmark;
+
+import gobang.bean.BitBoard;
+import gobang.bean.ColorEnum;
+import gobang.bean.Position;
+
+/**
+ * 基准测试用的固定局面：取自同一盘自对弈棋谱的开局、中局、残局
+ * 黑棋先行，双方交替落子，棋谱中没有连五
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public enum BoardCorpusEnum {
+
+    /**
+     * 开局：6 手
+     */
+    OPENING(6),
+
+    /**
+     * 中局：30 手
+     */
+    MIDGAME(30),
+
+    /**
+     * 残局：90 手
+     */
+    ENDGAME(90),
+    ;
+
+    public static final int BOARD_SIZE = 15;
+
+    private static final String RECORD = "7,7 9,7 7,9 7,6 9,9 6,6 6,9 8,9 8,6 5,9 10,4 9,5 9,4 8,4 5,7 11,7 "
+            + "10,6 12,7 10,7 10,5 4,6 6,8 4,7 6,7 4,9 4,8 5,8 7,10 3,6 2,5 1,6 2,6 3,7 2,7 2,8 5,5 3,5 3,4 2,4 "
+            + "1,3 1,9 0,10 3,8 3,9 5,6 6,5 6,4 7,5 8,5 4,3 5,4 3,3 2,3 2,2 4,4 5,2 6,1 3,2 4,2 3,1 3,0 9,3 "
+            + "10,2 4,0 0,4 5,12 6,11 7,4 5,10 7,12 4,11 7,8 7,11 5,11 6,12 8,10 6,10 6,13 9,10 7,3 7,2 8,3 "
+            + "2,9 1,10 3,12 2,13 6,3 4,5 6,2 6,0 7,1 5,3 8,1 9,0 5,1 4,1";
+
+    private final int moveNum;
+
+    BoardCorpusEnum(int moveNum) {
+        this.moveNum = moveNum;
+    }
+
+    /**
+     * 棋谱前 moveNum 手
+     *
+     * @return 新数组，每次调用都重新生成
+     */
+    public Position[] moves() {
+        String[] records = RECORD.split(" ");
+        if (moveNum > records.length) {
+            throw new IllegalStateException("Record too short: " + records.length);
+        }
+        Position[] moves = new Position[moveNum];
+        for (int i = 0; i < moveNum; i++) {
+            String[] xy = records[i].split(",");
+            moves[i] = Position.valueOf(Integer.parseInt(xy[0]), Integer.parseInt(xy[1]));
+        }
+        return moves;
+    }
+
+    /**
+     * @return 新棋盘，每次调用都重新生成
+     */
+    public int[][] boardInfo() {
+        int[][] boardInfo = new int[BOARD_SIZE][BOARD_SIZE];
+        Position[] moves = moves();
+        for (int i = 0; i < moves.length; i++) {
+            boardInfo[moves[i].getX()][moves[i].getY()] = colorOf(i).ordinal();
+        }
+        return boardInfo;
+    }
+
+    /**
+     * @return 新位棋盘，每次调用都重新生成
+     */
+    public BitBoard bitBoard() {
+        return BitBoard.valueOf(boardInfo());
+    }
+
+    /**
+     * 最后一手
+     */
+    public Position lastMove() {
+        Position[] moves = moves();
+        return moves[moves.length - 1];
+    }
+
+    /**
+     * 最后一手的棋色
+     */
+    public ColorEnum lastColor() {
+        return colorOf(moveNum - 1);
+    }
+
+    /**
+     * 下一手的棋色
+     */
+    public ColorEnum sideToMove() {
+        return colorOf(moveNum);
+    }
+
+    public int getMoveNum() {
+        return moveNum;
+    }
+
+    private static ColorEnum colorOf(int moveIndex) {
+        return moveIndex % 2 == 0 ? ColorEnum.BLACK : ColorEnum.WHITE;
+    }
+}
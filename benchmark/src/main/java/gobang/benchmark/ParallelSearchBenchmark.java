@@ -0,0 +1,71 @@
+package gobang.benchmark;
+
+import gobang.algorithm.ai.AlphaBetaSearch;
+import gobang.algorithm.ai.ParallelSearch;
+import gobang.algorithm.ai.SearchResult;
+import gobang.algorithm.ai.TranspositionTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ParallelSearch} 多核扩展性基准测试：不同线程数下搜索到固定深度的时间（time-to-depth）
+ * 每次调用都用新的置换表，不受上一次调用结果的影响；线程数超过 CPU 核数时测到的只是调度开销，
+ * 需要在核数不少于线程数的机器上运行，如只跑单线程和双线程：-p threadNum=1,2
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+@State(Scope.Thread)
+public class ParallelSearchBenchmark {
+
+    @Param
+    private BoardCorpusEnum corpus;
+
+    @Param({"1", "2", "4", "8", "16"})
+    private int threadNum;
+
+    @Param({"7"})
+    private int depth;
+
+    /**
+     * 置换表槽位数，所有线程共用
+     */
+    @Param({"1048576"})
+    private int tableCapacity;
+
+    private ExecutorService pool;
+
+    private ParallelSearch search;
+
+    @Setup(Level.Trial)
+    public void setUpPool() {
+        pool = threadNum > 1 ? Executors.newFixedThreadPool(threadNum - 1) : null;
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpSearch() {
+        search = new ParallelSearch(corpus.bitBoard(), threadNum, AlphaBetaSearch.DEFAULT_WIDTH,
+                new TranspositionTable(tableCapacity), pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (Objects.nonNull(pool)) {
+            pool.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public SearchResult timeToDepth() {
+        return search.search(corpus.sideToMove(), depth, 0, 0);
+    }
+}
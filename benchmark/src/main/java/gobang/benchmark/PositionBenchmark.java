@@ -0,0 +1,47 @@
+package gobang.benchmark;
+
+import gobang.bean.Position;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Position#valueOf(int, int)} 基准测试：按棋谱顺序取出局面中所有棋子的坐标
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PositionBenchmark {
+
+    @Param
+    private BoardCorpusEnum corpus;
+
+    private int[] xs;
+
+    private int[] ys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Position[] moves = corpus.moves();
+        xs = new int[moves.length];
+        ys = new int[moves.length];
+        for (int i = 0; i < moves.length; i++) {
+            xs[i] = moves[i].getX();
+            ys[i] = moves[i].getY();
+        }
+    }
+
+    @Benchmark
+    public void valueOf(Blackhole blackhole) {
+        for (int i = 0; i < xs.length; i++) {
+            blackhole.consume(Position.valueOf(xs[i], ys[i]));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package gobang.benchmark;
+
+import gobang.algorithm.RenjuAlgorithms;
+import gobang.bean.BitBoard;
+import gobang.bean.ColorEnum;
+import gobang.bean.Position;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RenjuAlgorithms#checkWinRenju} 基准测试：检查最后一手是否连五
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RenjuBenchmark {
+
+    @Param
+    private BoardCorpusEnum corpus;
+
+    private int[][] boardInfo;
+
+    private BitBoard board;
+
+    private ColorEnum color;
+
+    private Position lastMove;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boardInfo = corpus.boardInfo();
+        board = corpus.bitBoard();
+        color = corpus.lastColor();
+        lastMove = corpus.lastMove();
+    }
+
+    @Benchmark
+    public List<List<Position>> checkWinRenju() {
+        return RenjuAlgorithms.checkWinRenju(boardInfo, color, lastMove);
+    }
+
+    @Benchmark
+    public List<List<Position>> checkWinRenjuBitBoard() {
+        return RenjuAlgorithms.checkWinRenju(board, color, lastMove);
+    }
+}
@@ -2,6 +2,7 @@ package gobang;
 
 import gobang.algorithm.RenjuAlgorithms;
 import gobang.algorithm.ai.AiAlgorithms;
+import gobang.algorithm.ai.CalculationTracer;
 import gobang.bean.ColorEnum;
 import gobang.bean.Position;
 
@@ -48,6 +49,7 @@ public class TestStarter {
 	private static ColorEnum currentColor;
 
 	public static void main(String[] args) throws InterruptedException {
+		AiAlgorithms.setTracer(CalculationTracer.CONSOLE);
 		for (int i = 0; i < GAME_TURN; i++) {
 			gaming();
 			// 换起手方
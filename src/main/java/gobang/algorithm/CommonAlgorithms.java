@@ -1,5 +1,6 @@
 package gobang.algorithm;
 
+import gobang.bean.BitBoard;
 import gobang.bean.ColorEnum;
 import gobang.bean.DirectionEnum;
 import gobang.bean.Position;
@@ -50,6 +51,41 @@ public class CommonAlgorithms {
 		return returnValue;
 	}
 
+	/**
+	 * 找出位棋盘中同色棋子坐标
+	 */
+	public static List<Position> checkChessPositionFrom(BitBoard board, ColorEnum pieceColor) {
+		List<Position> returnValue = new ArrayList<>(10);
+		for (int index = 0; index < board.getIndexNum(); index++) {
+			if (board.isColor(index, pieceColor)) {
+				returnValue.add(board.positionOf(index));
+			}
+		}
+		return returnValue;
+	}
+
+	/**
+	 * 找出位棋盘中检所有空坐标
+	 */
+	public static List<Position> checkEmptyChessPositionFrom(BitBoard board) {
+		List<Position> returnValue = new ArrayList<>(10);
+		for (int index = 0; index < board.getIndexNum(); index++) {
+			if (board.isLegal(index) && board.isEmpty(index)) {
+				returnValue.add(board.positionOf(index));
+			}
+		}
+		return returnValue;
+	}
+
+	/**
+	 * true：该坐标点在位棋盘内且无棋子
+	 */
+	public static boolean isLegalEmptyPosition(BitBoard board, Position position) {
+		return Objects.nonNull(position)
+				&& board.isLegal(position.getX(), position.getY())
+				&& board.isEmpty(board.indexOf(position));
+	}
+
 	/**
 	 * 从原点出发，计算偏移 n 个棋位后的坐标
 	 *
@@ -0,0 +1,279 @@
+package gobang.algorithm;
+
+import gobang.bean.BitBoard;
+import gobang.bean.ColorEnum;
+import gobang.bean.DirectionEnum;
+
+import java.util.Objects;
+
+import static gobang.algorithm.RenjuAlgorithms.WIN_RENJU_NUM;
+
+/**
+ * 连珠规则黑棋禁手检测：三三、四四、长连，成五优先于禁手
+ * 每个方向只看落子点两侧第一个空棋位：含落子点的五连、活四必定从落子点连续延伸到该空棋位，
+ * 所以每个方向最多两个成五点、两个成活四点；活三的成活四点本身不能是禁手，需递归判断。
+ * 结果按局面缓存，搜索中反复检测同一局面的同一棋位只计算一次。
+ * 检测时会在棋盘上临时落子，返回前全部撤销，同一个检测器不能多个线程同时使用
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class ForbiddenMoveDetector {
+
+	/**
+	 * 默认缓存槽位数
+	 */
+	public static final int DEFAULT_CACHE_CAPACITY = 1 << 14;
+
+	private static final DirectionEnum[] DIRECTIONS = DirectionEnum.values();
+
+	private static final ForbiddenMoveEnum[] RESULTS = ForbiddenMoveEnum.values();
+
+	private static final int FOUR_NUM = WIN_RENJU_NUM - 1;
+
+	/**
+	 * 快速筛选时取出的单边棋位数，长连需要看到 5 格外
+	 */
+	private static final int LINE_RADIUS = WIN_RENJU_NUM;
+
+	/**
+	 * 落子点两边各 4 格（不含落子点）
+	 */
+	private static final long NEAR_MASK = ((1L << (FOUR_NUM * 2 + 1)) - 1) << 1 & ~(1L << LINE_RADIUS);
+
+	/**
+	 * 落子点两边各 5 格（不含落子点）
+	 */
+	private static final long FAR_MASK = ((1L << (LINE_RADIUS * 2 + 1)) - 1) & ~(1L << LINE_RADIUS);
+
+	private final BitBoard board;
+
+	private final int[] deltas = new int[DIRECTIONS.length];
+
+	/**
+	 * 缓存：局面键与棋位混合后的键，0 表示空槽
+	 */
+	private final long[] cacheKeys;
+
+	/**
+	 * 缓存：{@link ForbiddenMoveEnum} 序号
+	 */
+	private final byte[] cacheResults;
+
+	private final int cacheMask;
+
+	/**
+	 * @param board         棋盘，检测器只读取当前局面，检测过程中临时落下的棋子都会撤销
+	 * @param cacheCapacity 缓存槽位数，向上取 2 的幂
+	 */
+	public ForbiddenMoveDetector(BitBoard board, int cacheCapacity) {
+		if (cacheCapacity <= 0) {
+			throw new IllegalArgumentException("Illegal cache capacity: " + cacheCapacity);
+		}
+		this.board = Objects.requireNonNull(board);
+		for (int d = 0; d < DIRECTIONS.length; d++) {
+			deltas[d] = board.deltaOf(DIRECTIONS[d]);
+		}
+		int capacity = Integer.highestOneBit(cacheCapacity);
+		if (capacity < cacheCapacity) {
+			capacity <<= 1;
+		}
+		this.cacheKeys = new long[capacity];
+		this.cacheResults = new byte[capacity];
+		this.cacheMask = capacity - 1;
+	}
+
+	public ForbiddenMoveDetector(BitBoard board) {
+		this(board, DEFAULT_CACHE_CAPACITY);
+	}
+
+	/**
+	 * 黑棋在空棋位 index 落子是否是禁手
+	 */
+	public boolean isForbidden(int index) {
+		return check(index) != ForbiddenMoveEnum.NONE;
+	}
+
+	/**
+	 * 判断黑棋在空棋位 index 落子的禁手类型
+	 *
+	 * @param index 空棋位下标
+	 * @return nonNull
+	 */
+	public ForbiddenMoveEnum check(int index) {
+		if (!board.isLegal(index) || !board.isEmpty(index)) {
+			throw new IllegalArgumentException("Not an empty position: " + index);
+		}
+		if (!mayBeForbidden(index)) {
+			return ForbiddenMoveEnum.NONE;
+		}
+		long key = keyOf(index);
+		int slot = (int) (key ^ (key >>> 32)) & cacheMask;
+		if (cacheKeys[slot] == key) {
+			return RESULTS[cacheResults[slot]];
+		}
+
+		board.put(index, ColorEnum.BLACK);
+		ForbiddenMoveEnum result;
+		try {
+			result = classify(index);
+		} finally {
+			board.remove(index);
+		}
+		cacheKeys[slot] = key;
+		cacheResults[slot] = (byte) result.ordinal();
+		return result;
+	}
+
+	/**
+	 * 清空缓存
+	 */
+	public void clear() {
+		for (int i = 0; i < cacheKeys.length; i++) {
+			cacheKeys[i] = 0;
+		}
+	}
+
+	/**
+	 * 快速筛选：活三、四都需要同一方向两边 4 格内至少 2 个黑子，一条线上的四四至少 4 个，长连需要两边 5 格内至少 5 个，
+	 * 都不满足时不可能是禁手，不必落子计算
+	 */
+	private boolean mayBeForbidden(int index) {
+		int crowdedDirectionNum = 0;
+		for (DirectionEnum direction : DIRECTIONS) {
+			long line = board.lineOf(index, direction, ColorEnum.BLACK, LINE_RADIUS);
+			int nearNum = Long.bitCount(line & NEAR_MASK);
+			if (nearNum >= FOUR_NUM || Long.bitCount(line & FAR_MASK) >= WIN_RENJU_NUM) {
+				return true;
+			}
+			if (nearNum >= 2 && ++crowdedDirectionNum >= 2) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 黑棋已落在 origin，判断禁手类型
+	 */
+	private ForbiddenMoveEnum classify(int origin) {
+		boolean overline = false;
+		for (DirectionEnum direction : DIRECTIONS) {
+			int length = board.countLine(origin, direction, ColorEnum.BLACK);
+			if (length == WIN_RENJU_NUM) {
+				return ForbiddenMoveEnum.NONE;
+			}
+			if (length > WIN_RENJU_NUM) {
+				overline = true;
+			}
+		}
+		if (overline) {
+			return ForbiddenMoveEnum.OVERLINE;
+		}
+
+		int fourNum = 0;
+		int fourDirections = 0;
+		for (int d = 0; d < DIRECTIONS.length; d++) {
+			int num = fourNumOf(origin, d);
+			if (num > 0) {
+				fourNum += num;
+				fourDirections |= 1 << d;
+			}
+		}
+		if (fourNum >= 2) {
+			return ForbiddenMoveEnum.DOUBLE_FOUR;
+		}
+
+		int threeNum = 0;
+		for (int d = 0; d < DIRECTIONS.length; d++) {
+			if ((fourDirections & (1 << d)) == 0 && isThree(origin, d)) {
+				threeNum++;
+				if (threeNum >= 2) {
+					return ForbiddenMoveEnum.DOUBLE_THREE;
+				}
+			}
+		}
+		return ForbiddenMoveEnum.NONE;
+	}
+
+	/**
+	 * 某方向上含 origin 的四的个数：两侧第一个空棋位补上后恰好成五即为一个成五点；
+	 * 两个成五点之间恰好是 4 子连珠（活四）时只算一个四
+	 */
+	private int fourNumOf(int origin, int d) {
+		int delta = deltas[d];
+		int low = firstEmpty(origin, -delta);
+		int high = firstEmpty(origin, delta);
+		boolean lowFive = low >= 0 && makesExactFive(low, d);
+		boolean highFive = high >= 0 && makesExactFive(high, d);
+		if (lowFive && highFive) {
+			return high - low == WIN_RENJU_NUM * delta ? 1 : 2;
+		}
+		return lowFive || highFive ? 1 : 0;
+	}
+
+	/**
+	 * 某方向上含 origin 是否为活三：两侧第一个空棋位补上后形成活四，且该空棋位本身不是禁手
+	 */
+	private boolean isThree(int origin, int d) {
+		int delta = deltas[d];
+		for (int side = -1; side <= 1; side += 2) {
+			int index = firstEmpty(origin, side * delta);
+			if (index < 0 || !makesStraightFour(index, d)) {
+				continue;
+			}
+			if (check(index) == ForbiddenMoveEnum.NONE) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 从 origin 往一个方向越过连续黑子后的第一个棋位，不是空棋位时返回 -1
+	 */
+	private int firstEmpty(int origin, int delta) {
+		int index = origin + delta;
+		while (board.isLegal(index) && board.isColor(index, ColorEnum.BLACK)) {
+			index += delta;
+		}
+		return board.isLegal(index) && board.isEmpty(index) ? index : -1;
+	}
+
+	/**
+	 * 黑棋补上空棋位 index 后该方向是否恰好五连
+	 */
+	private boolean makesExactFive(int index, int d) {
+		board.put(index, ColorEnum.BLACK);
+		int length = board.countLine(index, DIRECTIONS[d], ColorEnum.BLACK);
+		board.remove(index);
+		return length == WIN_RENJU_NUM;
+	}
+
+	/**
+	 * 黑棋补上空棋位 index 后该方向是否形成活四：恰好 4 连，两端都是空棋位，且两端补上都恰好五连（不是长连）
+	 */
+	private boolean makesStraightFour(int index, int d) {
+		int delta = deltas[d];
+		board.put(index, ColorEnum.BLACK);
+		try {
+			if (board.countLine(index, DIRECTIONS[d], ColorEnum.BLACK) != FOUR_NUM) {
+				return false;
+			}
+			int low = firstEmpty(index, -delta);
+			int high = firstEmpty(index, delta);
+			return low >= 0 && high >= 0 && !isBlack(low - delta) && !isBlack(high + delta);
+		} finally {
+			board.remove(index);
+		}
+	}
+
+	private boolean isBlack(int index) {
+		return board.isLegal(index) && board.isColor(index, ColorEnum.BLACK);
+	}
+
+	private long keyOf(int index) {
+		long key = board.getZobristKey() ^ BitBoard.zobristOf(index, ColorEnum.BLACK) * 0x9E3779B97F4A7C15L;
+		return key == 0 ? 1 : key;
+	}
+}
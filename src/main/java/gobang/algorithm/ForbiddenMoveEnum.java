@@ -0,0 +1,31 @@
+package gobang.algorithm;
+
+/**
+ * 黑棋禁手类型
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public enum ForbiddenMoveEnum {
+
+	/**
+	 * 不是禁手（包括同时成五的情况，成五优先）
+	 */
+	NONE,
+
+	/**
+	 * 三三禁手：一手同时形成两个或以上活三
+	 */
+	DOUBLE_THREE,
+
+	/**
+	 * 四四禁手：一手同时形成两个或以上四（冲四或活四）
+	 */
+	DOUBLE_FOUR,
+
+	/**
+	 * 长连禁手：一手形成六子或以上连珠
+	 */
+	OVERLINE,
+	;
+}
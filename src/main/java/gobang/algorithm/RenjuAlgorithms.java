@@ -1,5 +1,6 @@
 package gobang.algorithm;
 
+import gobang.bean.BitBoard;
 import gobang.bean.ColorEnum;
 import gobang.bean.DirectionEnum;
 import gobang.bean.Position;
@@ -22,6 +23,8 @@ public class RenjuAlgorithms {
 	 */
 	public static final int WIN_RENJU_NUM = 5;
 
+	private static final DirectionEnum[] DIRECTIONS = DirectionEnum.values();
+
 	/**
 	 * 从原点出发，从横、纵、两斜向找出能赢棋的所有连珠
 	 *
@@ -39,6 +42,56 @@ public class RenjuAlgorithms {
 				new ArrayList<>(renjuMap.values());
 	}
 
+	/**
+	 * 从原点出发，在位棋盘上从横、纵、两斜向找出能赢棋的所有连珠
+	 *
+	 * @param board          位棋盘
+	 * @param piecesColor    棋子颜色
+	 * @param originPosition 原点坐标
+	 * @return <所有方向上的连珠<一条线上的连珠列表>>
+	 */
+	public static List<List<Position>> checkWinRenju(
+			BitBoard board, ColorEnum piecesColor, Position originPosition) {
+		int origin = board.indexOf(originPosition);
+		List<List<Position>> returnValue = new ArrayList<>(1);
+		for (DirectionEnum direction : DIRECTIONS) {
+			if (board.countLine(origin, direction, piecesColor) < WIN_RENJU_NUM) {
+				continue;
+			}
+			List<Position> renjuList = new ArrayList<>(10);
+			renjuList.add(originPosition);
+			for (boolean toInitialPoint : new boolean[]{true, false}) {
+				for (int offsetNum = 1; ; offsetNum++) {
+					int index = board.afterOffSet(direction, toInitialPoint, origin, offsetNum);
+					if (index < 0 || board.colorAt(index) != piecesColor) {
+						break;
+					}
+					renjuList.add(board.positionOf(index));
+				}
+			}
+			renjuList.sort(Position::compareTo);
+			returnValue.add(renjuList);
+		}
+		return returnValue.isEmpty() ? Collections.emptyList() : returnValue;
+	}
+
+	/**
+	 * 判断刚落下的棋子是否连成赢棋连珠
+	 *
+	 * @param board       位棋盘
+	 * @param piecesColor 棋子颜色
+	 * @param origin      刚落子的棋位下标
+	 * @return true：赢棋
+	 */
+	public static boolean isWinMove(BitBoard board, ColorEnum piecesColor, int origin) {
+		for (DirectionEnum direction : DIRECTIONS) {
+			if (board.countLine(origin, direction, piecesColor) >= WIN_RENJU_NUM) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * 从原点出发，从横、纵、两斜向找出所有连珠
 	 *
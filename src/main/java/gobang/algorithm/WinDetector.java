@@ -0,0 +1,195 @@
+package gobang.algorithm;
+
+import gobang.bean.BitBoard;
+import gobang.bean.ColorEnum;
+import gobang.bean.DirectionEnum;
+import gobang.bean.Position;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import static gobang.algorithm.RenjuAlgorithms.WIN_RENJU_NUM;
+
+/**
+ * 增量连珠检测
+ * 为每个棋位、每个方向、每种棋色记录紧挨着该棋位前面、后面的同色连续棋子数，
+ * 落子只更新四个方向上连珠两端外侧的各一个棋位，判断输赢只需读取落子点的记录，不创建任何对象。
+ * 提子必须按落子的相反顺序进行（悔棋、搜索回溯），否则记录会出错
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class WinDetector {
+
+	private static final DirectionEnum[] DIRECTIONS = DirectionEnum.values();
+
+	private static final int DIRECTION_NUM = DIRECTIONS.length;
+
+	private final BitBoard board;
+
+	private final int indexNum;
+
+	/**
+	 * 各方向往远离原点一侧走一格的下标差
+	 */
+	private final int[] deltas = new int[DIRECTION_NUM];
+
+	/**
+	 * [棋色][下标 * 4 + 方向] 紧挨着该棋位、往原点一侧的同色连续棋子数
+	 */
+	private final int[][] before;
+
+	/**
+	 * [棋色][下标 * 4 + 方向] 紧挨着该棋位、远离原点一侧的同色连续棋子数
+	 */
+	private final int[][] after;
+
+	/**
+	 * @param board 棋盘，落子/提子后需调用 {@link #place(int, ColorEnum)}/{@link #remove(int, ColorEnum)} 同步
+	 */
+	public WinDetector(BitBoard board) {
+		this.board = Objects.requireNonNull(board);
+		this.indexNum = board.getIndexNum();
+		this.before = new int[2][indexNum * DIRECTION_NUM];
+		this.after = new int[2][indexNum * DIRECTION_NUM];
+		for (int d = 0; d < DIRECTION_NUM; d++) {
+			deltas[d] = board.deltaOf(DIRECTIONS[d]);
+		}
+		for (int index = 0; index < indexNum; index++) {
+			if (!board.isLegal(index)) {
+				continue;
+			}
+			for (int d = 0; d < DIRECTION_NUM; d++) {
+				for (ColorEnum color : new ColorEnum[]{ColorEnum.BLACK, ColorEnum.WHITE}) {
+					before[colorIndex(color)][index * DIRECTION_NUM + d] = count(index, -deltas[d], color);
+					after[colorIndex(color)][index * DIRECTION_NUM + d] = count(index, deltas[d], color);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 棋盘在 index 落子后调用
+	 */
+	public void place(int index, ColorEnum color) {
+		int[] colorBefore = before[colorIndex(color)];
+		int[] colorAfter = after[colorIndex(color)];
+		for (int d = 0; d < DIRECTION_NUM; d++) {
+			int slot = index * DIRECTION_NUM + d;
+			int beforeNum = colorBefore[slot];
+			int afterNum = colorAfter[slot];
+			int length = beforeNum + afterNum + 1;
+			int tail = index + (afterNum + 1) * deltas[d];
+			if (isInside(tail)) {
+				colorBefore[tail * DIRECTION_NUM + d] = length;
+			}
+			int head = index - (beforeNum + 1) * deltas[d];
+			if (isInside(head)) {
+				colorAfter[head * DIRECTION_NUM + d] = length;
+			}
+		}
+	}
+
+	/**
+	 * 棋盘在 index 提子后调用，index 必须是最后一次落子的棋位
+	 */
+	public void remove(int index, ColorEnum color) {
+		int[] colorBefore = before[colorIndex(color)];
+		int[] colorAfter = after[colorIndex(color)];
+		for (int d = 0; d < DIRECTION_NUM; d++) {
+			int slot = index * DIRECTION_NUM + d;
+			int beforeNum = colorBefore[slot];
+			int afterNum = colorAfter[slot];
+			int tail = index + (afterNum + 1) * deltas[d];
+			if (isInside(tail)) {
+				colorBefore[tail * DIRECTION_NUM + d] = afterNum;
+			}
+			int head = index - (beforeNum + 1) * deltas[d];
+			if (isInside(head)) {
+				colorAfter[head * DIRECTION_NUM + d] = beforeNum;
+			}
+		}
+	}
+
+	/**
+	 * 在 index 落下 color 的棋子后（或假设落下后）该方向上的连珠数
+	 */
+	public int lineLength(int index, DirectionEnum direction, ColorEnum color) {
+		int slot = index * DIRECTION_NUM + direction.ordinal();
+		return before[colorIndex(color)][slot] + after[colorIndex(color)][slot] + 1;
+	}
+
+	/**
+	 * 在 index 落下 color 的棋子后是否连成赢棋连珠，对刚落下的棋子和空棋位都适用
+	 */
+	public boolean isWin(int index, ColorEnum color) {
+		return winDirections(index, color) != 0;
+	}
+
+	/**
+	 * 连成赢棋连珠的方向
+	 *
+	 * @return 第 i 位为 1 表示 {@link DirectionEnum#values()}[i] 方向连成赢棋连珠，0：没有赢
+	 */
+	public int winDirections(int index, ColorEnum color) {
+		int[] colorBefore = before[colorIndex(color)];
+		int[] colorAfter = after[colorIndex(color)];
+		int directions = 0;
+		for (int d = 0; d < DIRECTION_NUM; d++) {
+			int slot = index * DIRECTION_NUM + d;
+			if (colorBefore[slot] + colorAfter[slot] + 1 >= WIN_RENJU_NUM) {
+				directions |= 1 << d;
+			}
+		}
+		return directions;
+	}
+
+	/**
+	 * 刚落下的棋子连成的所有赢棋连珠，只在需要展示时调用，格式与 {@link RenjuAlgorithms#checkWinRenju} 一致
+	 *
+	 * @return <所有方向上的连珠<一条线上的连珠列表>>
+	 */
+	public List<List<Position>> winLines(int index, ColorEnum color) {
+		int directions = winDirections(index, color);
+		if (directions == 0) {
+			return Collections.emptyList();
+		}
+		List<List<Position>> returnValue = new ArrayList<>(Integer.bitCount(directions));
+		for (int d = 0; d < DIRECTION_NUM; d++) {
+			if ((directions & (1 << d)) == 0) {
+				continue;
+			}
+			int slot = index * DIRECTION_NUM + d;
+			int first = index - before[colorIndex(color)][slot] * deltas[d];
+			int length = lineLength(index, DIRECTIONS[d], color);
+			List<Position> renjuList = new ArrayList<>(length);
+			for (int i = 0; i < length; i++) {
+				renjuList.add(board.positionOf(first + i * deltas[d]));
+			}
+			renjuList.sort(Position::compareTo);
+			returnValue.add(renjuList);
+		}
+		return returnValue;
+	}
+
+	private boolean isInside(int index) {
+		return board.isLegal(index);
+	}
+
+	/**
+	 * 从 origin 往一个方向数同色连续棋子数，不含 origin
+	 */
+	private int count(int origin, int delta, ColorEnum color) {
+		int num = 0;
+		for (int index = origin + delta; isInside(index) && board.isColor(index, color); index += delta) {
+			num++;
+		}
+		return num;
+	}
+
+	private static int colorIndex(ColorEnum color) {
+		return color == ColorEnum.BLACK ? 0 : 1;
+	}
+}
@@ -1,14 +1,15 @@
 package gobang.algorithm.ai;
 
+import gobang.bean.BitBoard;
 import gobang.bean.ColorEnum;
 import gobang.bean.DirectionEnum;
 import gobang.bean.Position;
+import gobang.metrics.EngineCallEnum;
+import gobang.metrics.EngineMetrics;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
-import static gobang.algorithm.CommonAlgorithms.afterOffSet;
-import static gobang.algorithm.CommonAlgorithms.checkEmptyChessPositionFrom;
-import static gobang.algorithm.ai.PieceType.*;
 
 /**
  * 逻辑AI
@@ -19,9 +20,42 @@ import static gobang.algorithm.ai.PieceType.*;
  */
 public class AiAlgorithms {
 
+    /**
+     * 游戏信息，每个线程一份，重复使用，见 {@link #gamingInfo(int, int)}
+     */
     private static final ThreadLocal<GamingInfo> GAMING_INFO = new ThreadLocal<>();
 
-    private static final boolean PRINT_CALCULATION = true;
+    /**
+     * [下标] 棋位得分，每个线程一份，重复使用
+     */
+    private static final ThreadLocal<int[]> SCORE_GRID = ThreadLocal.withInitial(() -> new int[0]);
+
+    /**
+     * 算杀用的评估器和求解器，每个线程一份，重复使用，调用之间不保留局面
+     */
+    private static final ThreadLocal<ThreatFinder> THREAT_FINDER = new ThreadLocal<>();
+
+    /**
+     * 指标，默认不记录
+     */
+    private static volatile EngineMetrics metrics = EngineMetrics.NOOP;
+
+    /**
+     * 计算过程跟踪，null：不跟踪
+     */
+    private static volatile CalculationTracer tracer;
+
+    /**
+     * 棋型得分
+     */
+    private static volatile PatternWeights patternWeights = PatternWeights.DEFAULT;
+
+    private static final DirectionEnum[] DIRECTIONS = DirectionEnum.values();
+
+    /**
+     * 限时搜索的最大深度
+     */
+    static final int MAX_SEARCH_DEPTH = 16;
 
     /**
      * 计算下棋坐标
@@ -33,190 +67,351 @@ public class AiAlgorithms {
      */
     public static Position checkChessPosition(
             int[][] boardInfo, ColorEnum ownColor, ColorEnum opponentColor) {
-        long a = System.currentTimeMillis();
-        GAMING_INFO.set(new GamingInfo(Objects.requireNonNull(boardInfo), ownColor, opponentColor));
-        Position bestPosition;
-        try {
-            bestPosition = findBestPosition();
-        } finally {
-            GAMING_INFO.remove();
-        }
-        System.out.println(System.currentTimeMillis() - a);
+        return checkChessPosition(boardInfo, ownColor, opponentColor, ThreadLocalRandom.current());
+    }
+
+    /**
+     * 计算下棋坐标
+     *
+     * @param board         位棋盘
+     * @param ownColor      本方棋色
+     * @param opponentColor 对方棋色
+     * @return null：棋盘下满
+     */
+    public static Position checkChessPosition(
+            BitBoard board, ColorEnum ownColor, ColorEnum opponentColor) {
+        return checkChessPosition(board, ownColor, opponentColor, ThreadLocalRandom.current());
+    }
+
+    /**
+     * 计算下棋坐标，同分棋位用指定的随机数选择，相同种子、相同棋谱的结果相同，可用于复现对局
+     *
+     * @param boardInfo     棋盘及棋子信息
+     * @param ownColor      本方棋色
+     * @param opponentColor 对方棋色
+     * @param random        同分棋位随机选择
+     * @return null：棋盘下满
+     */
+    public static Position checkChessPosition(
+            int[][] boardInfo, ColorEnum ownColor, ColorEnum opponentColor, Random random) {
+        long start = System.nanoTime();
+        gamingInfo(boardInfo.length, boardInfo[0].length)
+                .reset(boardInfo, ownColor, opponentColor, Objects.requireNonNull(random));
+        Position bestPosition = findBestPosition();
+        metrics.recordLatency(EngineCallEnum.LOGIC, System.nanoTime() - start);
+        return bestPosition;
+    }
+
+    /**
+     * 计算下棋坐标，同分棋位用指定的随机数选择，相同种子、相同棋谱的结果相同，可用于复现对局
+     *
+     * @param board         位棋盘
+     * @param ownColor      本方棋色
+     * @param opponentColor 对方棋色
+     * @param random        同分棋位随机选择
+     * @return null：棋盘下满
+     */
+    public static Position checkChessPosition(
+            BitBoard board, ColorEnum ownColor, ColorEnum opponentColor, Random random) {
+        long start = System.nanoTime();
+        gamingInfo(board.getWidth(), board.getHeight())
+                .reset(board, ownColor, opponentColor, Objects.requireNonNull(random));
+        Position bestPosition = findBestPosition();
+        metrics.recordLatency(EngineCallEnum.LOGIC, System.nanoTime() - start);
         return bestPosition;
     }
 
+    /**
+     * 限时计算下棋坐标：迭代加深搜索，时间用完时返回最后一次完整迭代的结果
+     *
+     * @param boardInfo        棋盘及棋子信息
+     * @param ownColor         本方棋色
+     * @param opponentColor    对方棋色
+     * @param timeBudgetMillis 时间预算（毫秒）
+     * @return nonNull，position 为 null：棋盘下满；depth：达到的搜索深度
+     */
+    public static SearchResult checkChessPosition(
+            int[][] boardInfo, ColorEnum ownColor, ColorEnum opponentColor, long timeBudgetMillis) {
+        return checkChessPosition(boardInfo, ownColor, opponentColor, timeBudgetMillis, 0);
+    }
+
+    /**
+     * 限时、限节点数计算下棋坐标：迭代加深搜索，任一预算用完时返回最后一次完整迭代的结果
+     * 每次调用都从新的置换表开始，不受之前调用的影响；一局棋中连续搜索请使用 {@link EngineSession#bestMove(long)}
+     *
+     * @param boardInfo        棋盘及棋子信息
+     * @param ownColor         本方棋色
+     * @param opponentColor    对方棋色
+     * @param timeBudgetMillis 时间预算（毫秒），小于等于 0 表示不限
+     * @param nodeBudget       节点预算，小于等于 0 表示不限
+     * @return nonNull，position 为 null：棋盘下满；depth：达到的搜索深度
+     */
+    public static SearchResult checkChessPosition(
+            int[][] boardInfo, ColorEnum ownColor, ColorEnum opponentColor, long timeBudgetMillis, long nodeBudget) {
+        if (ownColor == opponentColor) {
+            throw new IllegalArgumentException("Own color equals opponent color: " + ownColor);
+        }
+        long start = System.nanoTime();
+        AlphaBetaSearch search = new AlphaBetaSearch(BitBoard.valueOf(Objects.requireNonNull(boardInfo)));
+        SearchResult result = search.iterativeSearch(ownColor, MAX_SEARCH_DEPTH, timeBudgetMillis, nodeBudget);
+        long elapsedNanos = System.nanoTime() - start;
+        EngineMetrics currentMetrics = metrics;
+        currentMetrics.recordLatency(EngineCallEnum.SEARCH, elapsedNanos);
+        currentMetrics.addSearchNodes(result.getNodeNum(), elapsedNanos);
+        return result;
+    }
+
+    /**
+     * 按逻辑AI评分列出分数最高的 K 个棋位，一次评分完成，用于提示、分析
+     * 只按棋型打分，不包括算杀
+     *
+     * @param boardInfo     棋盘及棋子信息
+     * @param ownColor      本方棋色
+     * @param opponentColor 对方棋色
+     * @param k             棋位数上限
+     * @return 按分数从高到低排列，棋盘已满时为空
+     */
+    public static List<RankedMove> rankChessPositions(
+            int[][] boardInfo, ColorEnum ownColor, ColorEnum opponentColor, int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("Illegal k: " + k);
+        }
+        GamingInfo gamingInfo = gamingInfo(boardInfo.length, boardInfo[0].length);
+        gamingInfo.reset(boardInfo, ownColor, opponentColor, ThreadLocalRandom.current());
+        CandidateGenerator candidates = gamingInfo.candidates;
+        TopKSelector selector = new TopKSelector(k);
+        for (int i = 0; i < candidates.size(); i++) {
+            int index = candidates.get(i);
+            selector.offer(index, socreFunction(index));
+        }
+        return selector.drainRankedMoves(gamingInfo.board);
+    }
+
+    /**
+     * 设置指标，所有线程共用
+     *
+     * @param engineMetrics null：不记录
+     */
+    public static void setMetrics(EngineMetrics engineMetrics) {
+        metrics = Objects.isNull(engineMetrics) ? EngineMetrics.NOOP : engineMetrics;
+    }
+
+    /**
+     * 当前指标，供 {@link EngineSession} 记录
+     */
+    static EngineMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * 设置计算过程跟踪，运行时可随时打开、关闭
+     *
+     * @param calculationTracer null：不跟踪，如需打印到控制台可传入 {@link CalculationTracer#CONSOLE}
+     */
+    public static void setTracer(CalculationTracer calculationTracer) {
+        tracer = calculationTracer;
+    }
+
+    /**
+     * 设置棋型得分，所有线程共用，之后开始的计算以及新建的 {@link IncrementalEvaluator}、{@link EngineSession} 使用新得分
+     *
+     * @param weights null：恢复默认得分
+     */
+    public static void setPatternWeights(PatternWeights weights) {
+        patternWeights = Objects.isNull(weights) ? PatternWeights.DEFAULT : weights;
+    }
+
+    /**
+     * 当前棋型得分
+     */
+    static PatternWeights patternWeights() {
+        return patternWeights;
+    }
+
     /**
      * 找出对自己最有利的棋位坐标
      *
      * @return null：棋盘已满，nonNull：坐标
      */
     private static Position findBestPosition() {
-        List<Position> emptyPositionList = checkEmptyChessPositionFrom(GAMING_INFO.get().boardInfo);
+        GamingInfo gamingInfo = GAMING_INFO.get();
+        CandidateGenerator candidates = gamingInfo.candidates;
 
-        if (emptyPositionList.isEmpty()) {
+        if (candidates.size() == 0) {
             return null;
         }
 
-        Map<Position, Integer> positionScoreMap = calculateAllPositionScore(emptyPositionList);
-        List<Map.Entry<Position, Integer>> entryList = new ArrayList<>(positionScoreMap.entrySet());
-        Collections.shuffle(entryList);
-        Optional<Map.Entry<Position, Integer>> maxEntryOptional = entryList
-                .stream()
-                .max(Comparator.comparingInt(Map.Entry::getValue));
-        if (!maxEntryOptional.isPresent()) {
-            throw new NullPointerException("Max score position not be found.");
+        Position threatPosition = hasThreat(candidates) ? findThreatPosition() : null;
+        if (Objects.nonNull(threatPosition)) {
+            return threatPosition;
         }
-        Position decision = maxEntryOptional.get().getKey();
-        printCalculationResult(positionScoreMap, decision);
+
+        int[] scores = scoreGrid(gamingInfo.board.getIndexNum());
+        calculateAllPositionScore(candidates, scores);
+        Position decision = gamingInfo.board.positionOf(selectBestIndex(candidates, scores, gamingInfo.random));
+        traceCalculation(candidates, scores, decision);
         return decision;
     }
 
     /**
-     * 计算所有棋位得分
+     * 本方能否在某个候选棋位成活三及以上棋型
+     * 连续冲四、连续活三冲四的第一步（或堵对方冲四的一步）都要成这些棋型，不能时不必创建评估器算杀
+     */
+    private static boolean hasThreat(CandidateGenerator candidates) {
+        ColorEnum ownColor = GAMING_INFO.get().ownColor;
+        for (int i = 0; i < candidates.size(); i++) {
+            int index = candidates.get(i);
+            for (DirectionEnum direction : DIRECTIONS) {
+                if (calculateBy(direction, index, ownColor).ordinal() <= PatternEnum.LIVE_3.ordinal()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 算杀：先找连续冲四必胜，再找连续活三冲四必胜
      *
-     * @param emptyPositionList 空棋位列表
-     * @return k-坐标，v-分数
+     * @return null：没找到必胜
      */
-    private static Map<Position, Integer> calculateAllPositionScore(List<Position> emptyPositionList) {
-        if (emptyPositionList.isEmpty()) {
-            return Collections.emptyMap();
+    private static Position findThreatPosition() {
+        GamingInfo gamingInfo = GAMING_INFO.get();
+        BitBoard board = gamingInfo.board;
+        ThreatFinder threatFinder = THREAT_FINDER.get();
+        if (Objects.isNull(threatFinder) || !threatFinder.fits(board, gamingInfo.patternWeights)) {
+            threatFinder = new ThreatFinder(board.getWidth(), board.getHeight(), gamingInfo.patternWeights);
+            THREAT_FINDER.set(threatFinder);
         }
+        int index = threatFinder.find(board, gamingInfo.ownColor);
+        return index < 0 ? null : board.positionOf(index);
+    }
 
-        int initialCapacity = emptyPositionList.size() * 4 / 3 + 1;
-        Map<Position, Integer> positionScoreMap = new HashMap<>(initialCapacity);
-        emptyPositionList.forEach(position -> {
-            List<PatternEnum>[] patternGroups = calculateAllPattern(position);
-            positionScoreMap.put(position, socreFunction(patternGroups));
-        });
+    /**
+     * 计算所有候选棋位得分
+     *
+     * @param candidates 候选空棋位
+     * @param scores     [下标] 得分，只写入候选棋位
+     */
+    private static void calculateAllPositionScore(CandidateGenerator candidates, int[] scores) {
+        int candidateNum = candidates.size();
+        for (int i = 0; i < candidateNum; i++) {
+            int index = candidates.get(i);
+            scores[index] = socreFunction(index);
+        }
+        EngineMetrics currentMetrics = metrics;
+        currentMetrics.addScoredPositions(candidateNum);
+        // 每个棋位四个方向、双方各查一次表
+        currentMetrics.addPatternLookups(candidateNum * DIRECTIONS.length * 2L);
+    }
+
+    /**
+     * 选出得分最高的候选棋位，同分时蓄水池抽样：第 n 个同分棋位以 1/n 的概率替换当前选择，每个同分棋位等概率选中
+     *
+     * @param candidates 候选空棋位，至少一个
+     * @param scores     [下标] 得分，只读取候选棋位
+     * @param random     同分棋位随机选择
+     * @return 棋位下标
+     */
+    static int selectBestIndex(CandidateGenerator candidates, int[] scores, Random random) {
+        int bestIndex = -1;
+        int bestScore = Integer.MIN_VALUE;
+        int tieNum = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            int index = candidates.get(i);
+            int score = scores[index];
+            if (score > bestScore) {
+                bestScore = score;
+                bestIndex = index;
+                tieNum = 1;
+            } else if (score == bestScore && random.nextInt(++tieNum) == 0) {
+                bestIndex = index;
+            }
+        }
+        return bestIndex;
+    }
 
-        return positionScoreMap;
+    /**
+     * 当前线程的游戏信息，第一次使用、棋盘尺寸或棋型得分变化时重新创建
+     * 不在计算结束时移除，移除后再设置会重新分配线程变量的条目
+     */
+    private static GamingInfo gamingInfo(int width, int height) {
+        PatternWeights weights = patternWeights;
+        GamingInfo gamingInfo = GAMING_INFO.get();
+        if (Objects.isNull(gamingInfo) || !gamingInfo.fits(width, height, weights)) {
+            gamingInfo = new GamingInfo(width, height, weights);
+            GAMING_INFO.set(gamingInfo);
+        }
+        return gamingInfo;
     }
 
     /**
-     * 根据棋型计算棋位得分
+     * 当前线程的得分表，棋盘变大时重新分配
      */
-    private static int socreFunction(List<PatternEnum>[] patternGroups) {
-        int score = patternGroups[0].stream().mapToInt(PatternEnum::getAttackScore).sum();
-        return score + patternGroups[1].stream().mapToInt(PatternEnum::getDefenseScore).sum();
+    private static int[] scoreGrid(int indexNum) {
+        int[] scores = SCORE_GRID.get();
+        if (scores.length < indexNum) {
+            scores = new int[indexNum];
+            SCORE_GRID.set(scores);
+        }
+        return scores;
     }
 
     /**
-     * 计算本家和对手下某个棋位能成的棋型
+     * 根据本家和对手在棋位四个方向上能成的棋型计算棋位得分：本家棋型进攻分 + 对手棋型防守分
      *
-     * @param position 棋位坐标
-     * @return Object[0]：本家棋型列表，Object[1]：对手棋型列表
+     * @param origin 棋位下标
+     * @return 分数
      */
-    private static List<PatternEnum>[] calculateAllPattern(Position position) {
-        List<PatternEnum>[] patternGroups =
-                new ArrayList[]{new ArrayList<>(4), new ArrayList<>(4)};
-        ColorEnum ownColor = GAMING_INFO.get().ownColor;
-        ColorEnum opponentColor = GAMING_INFO.get().opponentColor;
-        for (DirectionEnum direction : DirectionEnum.values()) {
-            PatternEnum ownPattern = calculateBy(direction, position, ownColor, opponentColor);
-            patternGroups[0].add(ownPattern);
-            PatternEnum opponentPattern = calculateBy(direction, position, opponentColor, ownColor);
-            patternGroups[1].add(opponentPattern);
+    private static int socreFunction(int origin) {
+        GamingInfo gamingInfo = GAMING_INFO.get();
+        ColorEnum ownColor = gamingInfo.ownColor;
+        ColorEnum opponentColor = gamingInfo.opponentColor;
+        PatternWeights weights = gamingInfo.patternWeights;
+        int score = 0;
+        for (DirectionEnum direction : DIRECTIONS) {
+            score += weights.attackScoreOf(calculateBy(direction, origin, ownColor));
+            score += weights.defenseScoreOf(calculateBy(direction, origin, opponentColor));
         }
-        return patternGroups;
+        return score;
     }
 
     /**
      * 计算某个方向上的棋型
      *
      * @param direction        方向
-     * @param originOfPosition 原点，假设原点下了自己的棋
+     * @param originOfPosition 原点下标，假设原点下了自己的棋
      * @param ownColor         本方棋色
      * @return nonNull
      */
-    private static PatternEnum calculateBy(
-            DirectionEnum direction, Position originOfPosition, ColorEnum ownColor, ColorEnum opponentColor) {
-        int[] subjectArray = findSubjectArray(direction, originOfPosition, ownColor, opponentColor);
-        return PatternEnum.check(subjectArray);
+    private static PatternEnum calculateBy(DirectionEnum direction, int originOfPosition, ColorEnum ownColor) {
+        return PatternTable.lookup(findSubjectArray(direction, originOfPosition, ownColor));
     }
 
     /**
-     * 从原点出发，找某个方向上找相连的棋位信息，转换成能检测棋型的数组
+     * 从原点出发，找某个方向上找相连的棋位信息，直接编码成棋型查找表的下标，不创建任何对象
      *
      * @param direction        方向
-     * @param originOfPosition 原点，假设原点下了自己的棋
+     * @param originOfPosition 原点下标，假设原点下了自己的棋
      * @param ownColor         本方棋色
-     * @param opponentColor    对方棋色
-     * @return 能检测棋型的数组 nonNull
-     */
-    private static int[] findSubjectArray(
-            DirectionEnum direction, Position originOfPosition, ColorEnum ownColor, ColorEnum opponentColor) {
-        int[][] boardInfo = GAMING_INFO.get().boardInfo;
-        LinkedList<Integer> subjectList = new LinkedList<>();
-        subjectList.add(O);
-
-        int maxOffsetNum = 4;
-        boolean toInitialPoint = true;
-        boolean awayInitialPoint = true;
-        for (int offsetNum = 1; (toInitialPoint || awayInitialPoint) && offsetNum <= maxOffsetNum; offsetNum++) {
-            if (toInitialPoint) {
-                Position positionToLeft = afterOffSet(
-                        direction, true, originOfPosition, offsetNum, boardInfo);
-                int chessInfoType = convertByColor(
-                        positionToLeft, boardInfo, ownColor, opponentColor);
-                if (chessInfoType == S) {
-                    toInitialPoint = false;
-                }
-                subjectList.addFirst(chessInfoType);
-            }
-
-            if (awayInitialPoint) {
-                Position positionToRight = afterOffSet(
-                        direction, false, originOfPosition, offsetNum, boardInfo);
-                int chessInfoType = convertByColor(positionToRight, boardInfo, ownColor, opponentColor);
-                if (chessInfoType == S) {
-                    awayInitialPoint = false;
-                }
-                subjectList.addLast(chessInfoType);
-            }
-        }
-        return subjectList.stream().mapToInt(Integer::intValue).toArray();
-    }
-
-    /**
-     * 转换坐标棋子信息
-     *
-     * @param position      棋位坐标
-     * @param boardInfo     棋盘信息
-     * @param ownColor      本方棋色
-     * @param opponentColor 对方棋色
-     * @return -
+     * @return 以原点为中心的 9 格窗口编码
      */
-    private static int convertByColor(
-            Position position, int[][] boardInfo, ColorEnum ownColor, ColorEnum opponentColor) {
-        if (Objects.isNull(position)) {
-            return S;
-        }
-
-        int colorOnPosition = boardInfo[position.getX()][position.getY()];
-        if (colorOnPosition == ownColor.ordinal()) {
-            return O;
-        } else if (colorOnPosition == opponentColor.ordinal()) {
-            return S;
-        } else {
-            return E;
-        }
+    private static int findSubjectArray(DirectionEnum direction, int originOfPosition, ColorEnum ownColor) {
+        BitBoard board = GAMING_INFO.get().board;
+        return PatternTable.encode(board, originOfPosition, board.deltaOf(direction), ownColor);
     }
 
-    private static void printCalculationResult(Map<Position, Integer> positionScoreMap, Position decision) {
-        if (!PRINT_CALCULATION) {
+    private static void traceCalculation(CandidateGenerator candidates, int[] scores, Position decision) {
+        CalculationTracer currentTracer = tracer;
+        if (Objects.isNull(currentTracer)) {
             return;
         }
-        System.out.println("[开始]");
-        positionScoreMap
-                .entrySet()
-                .stream()
-                .sorted(Comparator.comparingInt(Map.Entry::getValue))
-                .forEach(entry ->
-                        System.out.println(
-                                String.format("[%s, %s]", entry.getKey().getX(),
-                                        entry.getKey().getY()) + "：" + entry.getValue()));
-        System.out.println("最后选择：" + String.format("[%s, %s]", decision.getX(), decision.getY()));
-        System.out.println("[结束]");
+        List<Position> positions = candidates.positions();
+        int[] candidateScores = new int[positions.size()];
+        for (int i = 0; i < candidateScores.length; i++) {
+            candidateScores[i] = scores[candidates.get(i)];
+        }
+        currentTracer.trace(positions, candidateScores, decision);
     }
 
     private AiAlgorithms() {
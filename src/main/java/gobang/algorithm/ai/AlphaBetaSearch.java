@@ -0,0 +1,653 @@
+package gobang.algorithm.ai;
+
+import gobang.algorithm.ForbiddenMoveDetector;
+import gobang.algorithm.RenjuAlgorithms;
+import gobang.algorithm.WinDetector;
+import gobang.bean.BitBoard;
+import gobang.bean.ColorEnum;
+import gobang.bean.Position;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 极大极小搜索（negamax + alpha-beta 剪枝）
+ * 用棋位评分排序并截取候选棋位，叶子节点用 {@link IncrementalEvaluator#evaluate(ColorEnum)} 评估，
+ * 连成 {@link RenjuAlgorithms#WIN_RENJU_NUM} 子即为终局。
+ * 候选棋位依次按置换表棋位、杀手棋位、棋位评分、历史得分排序；同一个对象在一局棋中反复搜索时，
+ * 置换表、杀手棋位、历史得分都保留到下一回合，杀手棋位按根局面前进的步数平移，历史得分减半
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class AlphaBetaSearch {
+
+    /**
+     * 赢棋分数，实际分数为 WIN_SCORE - 步数，越快赢分越高
+     */
+    static final int WIN_SCORE = 1_000_000_000;
+
+    /**
+     * 非终局评估分数上限，保证与赢棋分数不重叠
+     */
+    static final int MAX_EVALUATION = WIN_SCORE / 2;
+
+    /**
+     * 最大搜索步数
+     */
+    static final int MAX_PLY = 64;
+
+    /**
+     * 默认每层候选棋位数，15 路棋盘开局 6 层迭代加深在 100 毫秒内完成
+     */
+    public static final int DEFAULT_WIDTH = 10;
+
+    /**
+     * 默认置换表槽位数
+     */
+    public static final int DEFAULT_TABLE_CAPACITY = 1 << 16;
+
+    /**
+     * 每步保留的杀手棋位数
+     */
+    private static final int KILLER_NUM = 2;
+
+    /**
+     * 历史得分超过该值时全部减半，防止溢出
+     */
+    private static final int MAX_HISTORY = 1 << 24;
+
+    /**
+     * 白方落子时异或到局面键上，区分轮到谁下
+     */
+    private static final long WHITE_TO_MOVE_KEY = 0x3C6EF372FE94F82BL;
+
+    /**
+     * 限制运行时间占比时，每连续运行这么久（纳秒）暂停一次
+     */
+    private static final long THROTTLE_SLICE_NANOS = 2_000_000;
+
+    /**
+     * 暂停时最长多久（纳秒）检查一次停止信号
+     */
+    private static final long THROTTLE_POLL_NANOS = 1_000_000;
+
+    private final IncrementalEvaluator evaluator;
+
+    private final BitBoard board;
+
+    private final WinDetector winDetector;
+
+    /**
+     * 连五的进攻分、防守分，候选棋位的四方向得分之和达到该值即能成五、需要堵
+     */
+    private final int linkFiveAttackScore;
+    private final int linkFiveDefenseScore;
+
+    /**
+     * 黑棋禁手检测，null：不限制禁手（五子棋规则）
+     */
+    private ForbiddenMoveDetector forbiddenMoveDetector;
+
+    private final TranspositionTable transpositionTable;
+
+    /**
+     * 每层候选棋位数
+     */
+    private final int maxWidth;
+
+    /**
+     * [步数][序号] 候选棋位及其排序分数
+     */
+    private final int[][] moves;
+    private final int[][] moveScores;
+
+    /**
+     * 三角形主要变例表
+     */
+    private final int[][] pvTable = new int[MAX_PLY + 1][MAX_PLY + 1];
+    private final int[] pvLength = new int[MAX_PLY + 1];
+
+    /**
+     * [步数][序号] 该步数上最近引起剪枝的棋位，-1：无
+     */
+    private final int[][] killers = new int[MAX_PLY + 1][KILLER_NUM];
+
+    /**
+     * [棋色][下标] 该方在棋位落子引起剪枝的累计得分（深度的平方），评分相同的候选棋位按它排序
+     */
+    private final int[][] history;
+
+    /**
+     * 上一次搜索的根局面棋子数，-1：还没有搜索过
+     */
+    private int lastRootPieceNum = -1;
+
+    private long nodeNum;
+
+    /**
+     * 迭代加深时的截止时间（System.nanoTime）及节点上限，超出后中止当前迭代
+     */
+    private boolean abortable;
+    private long deadlineNanos;
+    private long nodeLimit;
+    private boolean aborted;
+
+    /**
+     * 外部停止信号，并行搜索时由主线程设置
+     */
+    private volatile boolean stopped;
+
+    /**
+     * 运行时间占比上限，(0, 1]，1 为不限制，见 {@link #setDutyCycle}
+     */
+    private volatile double dutyCycle = 1;
+
+    /**
+     * 本段连续运行的开始时间（System.nanoTime）
+     */
+    private long sliceStartNanos;
+
+    public AlphaBetaSearch(BitBoard board) {
+        this(new IncrementalEvaluator(board), DEFAULT_WIDTH);
+    }
+
+    public AlphaBetaSearch(IncrementalEvaluator evaluator, int maxWidth) {
+        this(evaluator, maxWidth, new TranspositionTable(DEFAULT_TABLE_CAPACITY));
+    }
+
+    /**
+     * @param evaluator          评估器，搜索过程中落子后都会撤销，结束时局面不变
+     * @param maxWidth           每层候选棋位数
+     * @param transpositionTable 置换表，可在多次搜索之间共用
+     */
+    public AlphaBetaSearch(IncrementalEvaluator evaluator, int maxWidth, TranspositionTable transpositionTable) {
+        if (maxWidth <= 0) {
+            throw new IllegalArgumentException("Illegal width: " + maxWidth);
+        }
+        this.evaluator = Objects.requireNonNull(evaluator);
+        this.board = evaluator.getBoard();
+        this.winDetector = evaluator.getWinDetector();
+        this.linkFiveAttackScore = evaluator.getPatternWeights().attackScoreOf(PatternEnum.LINK_5);
+        this.linkFiveDefenseScore = evaluator.getPatternWeights().defenseScoreOf(PatternEnum.LINK_5);
+        this.transpositionTable = Objects.requireNonNull(transpositionTable);
+        this.maxWidth = maxWidth;
+        this.moves = new int[MAX_PLY + 1][maxWidth];
+        this.moveScores = new int[MAX_PLY + 1][maxWidth];
+        this.history = new int[2][board.getIndexNum()];
+        clearKillers(0);
+    }
+
+    /**
+     * 搜索最佳棋位
+     *
+     * @param side  落子方
+     * @param depth 搜索深度，至少为 1
+     * @return nonNull，棋盘已满时 position 为 null
+     */
+    public SearchResult search(ColorEnum side, int depth) {
+        if (depth <= 0 || depth > MAX_PLY) {
+            throw new IllegalArgumentException("Illegal depth: " + depth);
+        }
+        long start = System.currentTimeMillis();
+        prepare();
+        nodeNum = 0;
+        abortable = false;
+        aborted = false;
+        int score = negamax(depth, -WIN_SCORE - 1, WIN_SCORE + 1, side, 0);
+        List<Position> principalVariation = principalVariation();
+        Position position = principalVariation.isEmpty() ? null : principalVariation.get(0);
+        return new SearchResult(position, position == null ? 0 : score, depth, nodeNum,
+                System.currentTimeMillis() - start, principalVariation);
+    }
+
+    /**
+     * 多主要变例搜索：根节点每个候选棋位都用完整窗口搜索出准确分数，返回分数最高的 K 个及各自的主要变例
+     *
+     * @param side  落子方
+     * @param depth 搜索深度，至少为 1
+     * @param k     返回的棋位数上限，最多为每层候选棋位数
+     * @return 按分数从高到低排列，棋盘已满时为空
+     */
+    public List<RankedMove> rank(ColorEnum side, int depth, int k) {
+        if (depth <= 0 || depth > MAX_PLY) {
+            throw new IllegalArgumentException("Illegal depth: " + depth);
+        }
+        prepare();
+        nodeNum = 0;
+        abortable = false;
+        aborted = false;
+        int moveNum = generateMoves(side, 0);
+        if (moveNum == 0) {
+            return Collections.emptyList();
+        }
+        int[] rootMoves = moves[0].clone();
+        ColorEnum opponent = opposite(side);
+        TopKSelector selector = new TopKSelector(Math.min(k, moveNum));
+        List<List<Position>> variations = new ArrayList<>(moveNum);
+        for (int i = 0; i < moveNum; i++) {
+            int move = rootMoves[i];
+            evaluator.applyMove(move, side);
+            nodeNum++;
+            pvLength[1] = 1;
+            int score;
+            if (winDetector.isWin(move, side)) {
+                score = WIN_SCORE - 1;
+            } else if (depth <= 1) {
+                score = -evaluate(opponent);
+            } else {
+                score = -negamax(depth - 1, -WIN_SCORE - 1, WIN_SCORE + 1, opponent, 1);
+            }
+            evaluator.undoMove();
+
+            List<Position> variation = new ArrayList<>(pvLength[1]);
+            variation.add(board.positionOf(move));
+            for (int j = 1; j < pvLength[1]; j++) {
+                variation.add(board.positionOf(pvTable[1][j]));
+            }
+            variations.add(variation);
+            selector.offer(i, score);
+        }
+
+        int[] ranks = new int[selector.size()];
+        int[] scores = new int[selector.size()];
+        int rankNum = selector.drainDescending(ranks, scores);
+        List<RankedMove> rankedMoves = new ArrayList<>(rankNum);
+        for (int i = 0; i < rankNum; i++) {
+            List<Position> variation = variations.get(ranks[i]);
+            rankedMoves.add(new RankedMove(variation.get(0), scores[i], variation));
+        }
+        return rankedMoves;
+    }
+
+    /**
+     * 迭代加深搜索，从深度 1 开始逐层加深，时间或节点数用完时返回最后一次完整迭代的结果
+     * 深度 1 的迭代总会完成，保证有棋可下
+     *
+     * @param side             落子方
+     * @param maxDepth         最大深度
+     * @param timeBudgetMillis 时间预算（毫秒），小于等于 0 表示不限
+     * @param nodeBudget       节点预算，小于等于 0 表示不限
+     * @return nonNull，depth 为完成的深度，nodeNum 包含被中止迭代的节点
+     */
+    public SearchResult iterativeSearch(ColorEnum side, int maxDepth, long timeBudgetMillis, long nodeBudget) {
+        return iterativeSearch(side, 1, maxDepth, timeBudgetMillis, nodeBudget);
+    }
+
+    /**
+     * 从指定深度开始迭代加深，起始深度大于 1 时第一次迭代也可被中止
+     */
+    SearchResult iterativeSearch(ColorEnum side, int startDepth, int maxDepth, long timeBudgetMillis, long nodeBudget) {
+        if (maxDepth <= 0 || maxDepth > MAX_PLY) {
+            throw new IllegalArgumentException("Illegal depth: " + maxDepth);
+        }
+        long start = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+        deadlineNanos = timeBudgetMillis > 0 ? startNanos + timeBudgetMillis * 1_000_000 : Long.MAX_VALUE;
+        nodeLimit = nodeBudget > 0 ? nodeBudget : Long.MAX_VALUE;
+        prepare();
+        nodeNum = 0;
+        aborted = false;
+
+        List<Position> principalVariation = Collections.emptyList();
+        int score = 0;
+        int completedDepth = 0;
+        for (int depth = Math.max(1, Math.min(startDepth, maxDepth)); depth <= maxDepth; depth++) {
+            abortable = depth > 1 || startDepth > 1;
+            int iterationScore = negamax(depth, -WIN_SCORE - 1, WIN_SCORE + 1, side, 0);
+            if (aborted) {
+                break;
+            }
+            score = iterationScore;
+            completedDepth = depth;
+            principalVariation = principalVariation();
+            if (principalVariation.isEmpty() || Math.abs(score) > WIN_SCORE - MAX_PLY * 2) {
+                // 棋盘已满或已算出胜负，不必再加深
+                break;
+            }
+        }
+        abortable = false;
+        Position position = principalVariation.isEmpty() ? null : principalVariation.get(0);
+        return new SearchResult(position, position == null ? 0 : score, completedDepth, nodeNum,
+                System.currentTimeMillis() - start, principalVariation);
+    }
+
+    /**
+     * 设置是否使用连珠规则：打开后黑棋不走三三、四四、长连禁手
+     */
+    public void setRenjuRule(boolean renjuRule) {
+        forbiddenMoveDetector = renjuRule ? new ForbiddenMoveDetector(board) : null;
+    }
+
+    public IncrementalEvaluator getEvaluator() {
+        return evaluator;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+
+    private int negamax(int depth, int alpha, int beta, ColorEnum side, int ply) {
+        pvLength[ply] = ply;
+        long key = keyOf(side);
+        long entry = transpositionTable.probe(key);
+        int hashMove = -1;
+        if (entry != 0) {
+            hashMove = TranspositionTable.moveOf(entry);
+            if (ply > 0 && TranspositionTable.depthOf(entry) >= depth) {
+                int score = fromTableScore(TranspositionTable.scoreOf(entry), ply);
+                int bound = TranspositionTable.boundOf(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        int moveNum = generateMoves(side, ply);
+        if (moveNum == 0) {
+            // 棋盘下满，平局
+            return 0;
+        }
+        int promotedNum = promote(ply, moveNum, hashMove, 0) ? 1 : 0;
+        for (int killer : killers[ply]) {
+            if (promote(ply, moveNum, killer, promotedNum)) {
+                promotedNum++;
+            }
+        }
+
+        ColorEnum opponent = opposite(side);
+        int originAlpha = alpha;
+        int bestScore = -WIN_SCORE - 1;
+        int bestMove = -1;
+        int[] plyMoves = moves[ply];
+        for (int i = 0; i < moveNum; i++) {
+            int move = plyMoves[i];
+            evaluator.applyMove(move, side);
+            nodeNum++;
+            if ((nodeNum & 63) == 0 && dutyCycle < 1) {
+                throttle();
+            }
+            if (abortable && ((nodeNum & 63) == 0 || nodeNum >= nodeLimit) && outOfBudget()) {
+                aborted = true;
+            }
+            pvLength[ply + 1] = ply + 1;
+            int score;
+            if (winDetector.isWin(move, side)) {
+                score = WIN_SCORE - ply - 1;
+            } else if (depth <= 1 || ply + 1 >= MAX_PLY) {
+                score = -evaluate(opponent);
+            } else {
+                score = -negamax(depth - 1, -beta, -alpha, opponent, ply + 1);
+            }
+            evaluator.undoMove();
+            if (aborted) {
+                // 中止的迭代结果不可信，不写入置换表
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePrincipalVariation(ply, move);
+                }
+            }
+            if (alpha >= beta) {
+                recordCutoff(ply, move, side, depth);
+                break;
+            }
+        }
+
+        int bound = bestScore >= beta ? TranspositionTable.LOWER_BOUND
+                : bestScore > originAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        transpositionTable.store(key, depth, bound, toTableScore(bestScore, ply), bestMove, board.getPieceNum());
+        return bestScore;
+    }
+
+    /**
+     * 通知正在进行的迭代加深搜索尽快结束
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * 清除停止信号
+     */
+    void resetStop() {
+        stopped = false;
+    }
+
+    public long getNodeNum() {
+        return nodeNum;
+    }
+
+    /**
+     * 限制搜索线程的运行时间占比：每连续运行 2 毫秒按比例暂停，如 0.25 为运行 2 毫秒、暂停 6 毫秒，
+     * 占用的 CPU 不超过一个核的该比例；暂停期间响应 {@link #stop()}，可以在搜索进行中从其他线程修改
+     *
+     * @param dutyCycle (0, 1]，1 为不限制
+     */
+    public void setDutyCycle(double dutyCycle) {
+        if (!(dutyCycle > 0 && dutyCycle <= 1)) {
+            throw new IllegalArgumentException("Illegal duty cycle: " + dutyCycle);
+        }
+        this.dutyCycle = dutyCycle;
+    }
+
+    public double getDutyCycle() {
+        return dutyCycle;
+    }
+
+    /**
+     * 本段运行满 {@link #THROTTLE_SLICE_NANOS} 后暂停，暂停时间按运行时间和占比计算；
+     * 按墙钟计时，线程被抢占的时间也算运行时间，实际占用的 CPU 只会更少
+     */
+    private void throttle() {
+        long now = System.nanoTime();
+        long busyNanos = now - sliceStartNanos;
+        if (busyNanos < THROTTLE_SLICE_NANOS) {
+            return;
+        }
+        double cycle = dutyCycle;
+        long pauseEnd = now + (long) (busyNanos * (1 - cycle) / cycle);
+        long remaining;
+        while (!stopped && dutyCycle < 1 && (remaining = pauseEnd - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(Math.min(remaining, THROTTLE_POLL_NANOS));
+        }
+        sliceStartNanos = System.nanoTime();
+    }
+
+    private boolean outOfBudget() {
+        return stopped || nodeNum >= nodeLimit || System.nanoTime() >= deadlineNanos;
+    }
+
+    /**
+     * 把某个棋位提到第 first 个，前 first 个不动
+     *
+     * @return true：棋位在 first 之后的候选棋位中
+     */
+    private boolean promote(int ply, int moveNum, int move, int first) {
+        if (move < 0) {
+            return false;
+        }
+        int[] plyMoves = moves[ply];
+        int[] plyScores = moveScores[ply];
+        for (int i = first; i < moveNum; i++) {
+            if (plyMoves[i] == move) {
+                int score = plyScores[i];
+                System.arraycopy(plyMoves, first, plyMoves, first + 1, i - first);
+                System.arraycopy(plyScores, first, plyScores, first + 1, i - first);
+                plyMoves[first] = move;
+                plyScores[first] = score;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 记录引起剪枝的棋位
+     */
+    private void recordCutoff(int ply, int move, ColorEnum side, int depth) {
+        int[] plyKillers = killers[ply];
+        if (plyKillers[0] != move) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+        int[] sideHistory = history[side.ordinal() - 1];
+        sideHistory[move] += depth * depth;
+        if (sideHistory[move] > MAX_HISTORY) {
+            ageHistory();
+        }
+    }
+
+    /**
+     * 每次搜索开始时调用：根局面前进了几步，杀手棋位就平移几步，历史得分减半；
+     * 根局面棋子变少（悔棋、换局面）时清空杀手棋位。置换表中棋子数更少的局面不再受保护
+     */
+    private void prepare() {
+        sliceStartNanos = System.nanoTime();
+        int pieceNum = board.getPieceNum();
+        int shift = pieceNum - lastRootPieceNum;
+        if (lastRootPieceNum < 0 || shift < 0 || shift > MAX_PLY) {
+            clearKillers(0);
+        } else if (shift > 0) {
+            for (int ply = 0; ply + shift <= MAX_PLY; ply++) {
+                System.arraycopy(killers[ply + shift], 0, killers[ply], 0, KILLER_NUM);
+            }
+            clearKillers(MAX_PLY + 1 - shift);
+            ageHistory();
+        }
+        lastRootPieceNum = pieceNum;
+        transpositionTable.setRootPieceNum(pieceNum);
+    }
+
+    private void clearKillers(int fromPly) {
+        for (int ply = fromPly; ply <= MAX_PLY; ply++) {
+            Arrays.fill(killers[ply], -1);
+        }
+    }
+
+    private void ageHistory() {
+        for (int[] sideHistory : history) {
+            for (int i = 0; i < sideHistory.length; i++) {
+                sideHistory[i] >>= 1;
+            }
+        }
+    }
+
+    private long keyOf(ColorEnum side) {
+        return side == ColorEnum.WHITE ? board.getZobristKey() ^ WHITE_TO_MOVE_KEY : board.getZobristKey();
+    }
+
+    /**
+     * 赢棋分数存入置换表时换算成距当前节点的步数，取出时再换算回距根节点的步数
+     */
+    private static int toTableScore(int score, int ply) {
+        if (score > WIN_SCORE - MAX_PLY * 2) {
+            return score + ply;
+        }
+        if (score < -WIN_SCORE + MAX_PLY * 2) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTableScore(int score, int ply) {
+        if (score > WIN_SCORE - MAX_PLY * 2) {
+            return score - ply;
+        }
+        if (score < -WIN_SCORE + MAX_PLY * 2) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    /**
+     * 按棋位评分从高到低取候选棋位
+     * 能连五时只走连五，对方能连五时只走堵点
+     *
+     * @return 候选棋位数
+     */
+    private int generateMoves(ColorEnum side, int ply) {
+        int[] plyMoves = moves[ply];
+        int[] plyScores = moveScores[ply];
+        ColorEnum opponent = opposite(side);
+        int[] sideHistory = history[side.ordinal() - 1];
+        int moveNum = 0;
+        CandidateGenerator candidates = evaluator.getCandidates();
+        for (int c = 0; c < candidates.size(); c++) {
+            int index = candidates.get(c);
+            int score = evaluator.scoreOf(index, side);
+            if (moveNum == maxWidth && !ranksBefore(score, sideHistory[index],
+                    plyScores[moveNum - 1], sideHistory[plyMoves[moveNum - 1]])) {
+                continue;
+            }
+            if (side == ColorEnum.BLACK && Objects.nonNull(forbiddenMoveDetector)
+                    && forbiddenMoveDetector.isForbidden(index)) {
+                continue;
+            }
+            int i = moveNum == maxWidth ? moveNum - 1 : moveNum++;
+            int indexHistory = sideHistory[index];
+            for (; i > 0 && ranksBefore(score, indexHistory, plyScores[i - 1], sideHistory[plyMoves[i - 1]]); i--) {
+                plyMoves[i] = plyMoves[i - 1];
+                plyScores[i] = plyScores[i - 1];
+            }
+            plyMoves[i] = index;
+            plyScores[i] = score;
+        }
+
+        if (moveNum > 0 && evaluator.attackScoreOf(plyMoves[0], side) >= linkFiveAttackScore) {
+            return 1;
+        }
+        int blockNum = 0;
+        for (int i = 0; i < moveNum; i++) {
+            if (evaluator.defenseScoreOf(plyMoves[i], opponent) >= linkFiveDefenseScore) {
+                plyMoves[blockNum] = plyMoves[i];
+                plyScores[blockNum++] = plyScores[i];
+            }
+        }
+        return blockNum > 0 ? blockNum : moveNum;
+    }
+
+    /**
+     * 评分高的排在前面，评分相同时历史得分高的排在前面
+     */
+    private static boolean ranksBefore(int score, int history, int otherScore, int otherHistory) {
+        return score > otherScore || score == otherScore && history > otherHistory;
+    }
+
+    private int evaluate(ColorEnum side) {
+        long evaluation = evaluator.evaluate(side);
+        return (int) Math.max(-MAX_EVALUATION, Math.min(MAX_EVALUATION, evaluation));
+    }
+
+    private void updatePrincipalVariation(int ply, int move) {
+        pvTable[ply][ply] = move;
+        System.arraycopy(pvTable[ply + 1], ply + 1, pvTable[ply], ply + 1, pvLength[ply + 1] - ply - 1);
+        pvLength[ply] = pvLength[ply + 1];
+    }
+
+    private List<Position> principalVariation() {
+        if (pvLength[0] == 0) {
+            return Collections.emptyList();
+        }
+        List<Position> principalVariation = new ArrayList<>(pvLength[0]);
+        for (int i = 0; i < pvLength[0]; i++) {
+            principalVariation.add(board.positionOf(pvTable[0][i]));
+        }
+        return principalVariation;
+    }
+
+    static ColorEnum opposite(ColorEnum color) {
+        return color == ColorEnum.BLACK ? ColorEnum.WHITE : ColorEnum.BLACK;
+    }
+}
@@ -0,0 +1,44 @@
+package gobang.algorithm.ai;
+
+import gobang.bean.Position;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 逻辑AI计算过程跟踪，只有设置了跟踪器时才会收集每个棋位的得分
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+@FunctionalInterface
+public interface CalculationTracer {
+
+    /**
+     * 按分数从低到高打印到控制台
+     */
+    CalculationTracer CONSOLE = (positions, scores, decision) -> {
+        Integer[] order = new Integer[positions.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingInt(i -> scores[i]));
+        System.out.println("[开始]");
+        for (int i : order) {
+            Position position = positions.get(i);
+            System.out.println(String.format("[%s, %s]", position.getX(), position.getY()) + "：" + scores[i]);
+        }
+        System.out.println("最后选择：" + String.format("[%s, %s]", decision.getX(), decision.getY()));
+        System.out.println("[结束]");
+    };
+
+    /**
+     * 一次计算结束
+     *
+     * @param positions 参与打分的棋位
+     * @param scores    与 positions 一一对应的分数
+     * @param decision  最后选择的棋位
+     */
+    void trace(List<Position> positions, int[] scores, Position decision);
+}
@@ -0,0 +1,301 @@
+package gobang.algorithm.ai;
+
+import gobang.bean.BitBoard;
+import gobang.bean.ColorEnum;
+import gobang.bean.DirectionEnum;
+import gobang.bean.Position;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
+/**
+ * 候选棋位
+ * 紧挨棋子（切比雪夫距离 1）的空棋位都是候选棋位；离棋子 2 ~ radius 格的空棋位只有任一方在该棋位四个方向棋型的进攻得分之和
+ * 达到 {@link #THREAT_PATTERN} 及以上棋型的最低进攻得分时才是候选棋位，能成三、四的棋位都满足，
+ * 离所有棋子都远或只能成一个二的棋位不可能是最佳棋位。
+ * 每个棋位记录两个范围内的棋子数，落子/提子时只更新周围 (2 * radius + 1)^2 个棋位；
+ * 远处棋位的得分在访问候选棋位时才判断。候选棋位按下标从小到大排列，与落子、悔棋的顺序无关。空棋盘时只返回中心点
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class CandidateGenerator {
+
+    /**
+     * 默认距离
+     */
+    public static final int DEFAULT_RADIUS = 2;
+
+    /**
+     * 离棋子超过 1 格的棋位得分至少要达到的棋型
+     */
+    static final PatternEnum THREAT_PATTERN = PatternEnum.DIE_3;
+
+    private static final DirectionEnum[] DIRECTIONS = DirectionEnum.values();
+
+    private final BitBoard board;
+
+    private final int radius;
+
+    /**
+     * 远处空棋位得分是否达到门槛
+     */
+    private final IntPredicate threat;
+
+    /**
+     * 自己判断远处棋位时使用的棋型得分
+     */
+    private final PatternWeights patternWeights;
+
+    /**
+     * 远处棋位进攻得分门槛，见 {@link #threatAttackScoreOf}
+     */
+    private final int threatAttackScore;
+
+    /**
+     * [下标] 切比雪夫距离 1 以内的棋子数
+     */
+    private final int[] nearCounts;
+
+    /**
+     * [下标] 切比雪夫距离 radius 以内的棋子数
+     */
+    private final int[] farCounts;
+
+    /**
+     * radius 以内有棋子的空棋位位集
+     */
+    private final long[] bits;
+
+    /**
+     * 候选棋位紧凑数组，按下标排列，落子/提子后在下一次访问时重建
+     */
+    private final int[] candidates;
+
+    private int candidateNum;
+
+    private boolean dirty = true;
+
+    /**
+     * 空棋盘时的中心点
+     */
+    private final int center;
+
+    /**
+     * 使用 {@link AiAlgorithms#setPatternWeights} 设置的棋型得分判断远处棋位
+     *
+     * @param board  棋盘，落子/提子后需调用 {@link #place(int)}/{@link #remove(int)} 同步
+     * @param radius 切比雪夫距离，至少为 1
+     */
+    public CandidateGenerator(BitBoard board, int radius) {
+        this(board, radius, AiAlgorithms.patternWeights());
+    }
+
+    public CandidateGenerator(BitBoard board) {
+        this(board, DEFAULT_RADIUS);
+    }
+
+    /**
+     * @param threat 远处空棋位得分是否达到门槛，null：在棋盘上逐个方向查表计算得分
+     */
+    CandidateGenerator(BitBoard board, int radius, IntPredicate threat) {
+        this(board, radius, threat, AiAlgorithms.patternWeights());
+    }
+
+    /**
+     * @param patternWeights 在棋盘上计算远处棋位得分时使用的棋型得分
+     */
+    CandidateGenerator(BitBoard board, int radius, PatternWeights patternWeights) {
+        this(board, radius, null, patternWeights);
+    }
+
+    private CandidateGenerator(BitBoard board, int radius, IntPredicate threat, PatternWeights patternWeights) {
+        if (radius <= 0) {
+            throw new IllegalArgumentException("Illegal radius: " + radius);
+        }
+        this.board = Objects.requireNonNull(board);
+        this.radius = radius;
+        this.threat = Objects.isNull(threat) ? this::calculateThreat : threat;
+        this.patternWeights = Objects.requireNonNull(patternWeights);
+        this.threatAttackScore = threatAttackScoreOf(patternWeights);
+        int indexNum = board.getIndexNum();
+        this.nearCounts = new int[indexNum];
+        this.farCounts = new int[indexNum];
+        this.bits = new long[(indexNum + 63) >>> 6];
+        this.candidates = new int[indexNum];
+        this.center = board.indexOf(board.getWidth() / 2, board.getHeight() / 2);
+        for (int index = 0; index < indexNum; index++) {
+            if (board.isLegal(index) && !board.isEmpty(index)) {
+                addNeighbours(index, 1);
+            }
+        }
+    }
+
+    /**
+     * 棋盘在 index 落子后调用
+     */
+    public void place(int index) {
+        clearBit(index);
+        addNeighbours(index, 1);
+    }
+
+    /**
+     * 棋盘在 index 提子后调用
+     */
+    public void remove(int index) {
+        addNeighbours(index, -1);
+        if (farCounts[index] > 0) {
+            setBit(index);
+        }
+    }
+
+    /**
+     * 棋盘 {@link BitBoard#clear()} 后调用，回到空棋盘，不分配内存
+     */
+    public void clear() {
+        Arrays.fill(nearCounts, 0);
+        Arrays.fill(farCounts, 0);
+        Arrays.fill(bits, 0L);
+        candidateNum = 0;
+        dirty = true;
+    }
+
+    /**
+     * 候选棋位数
+     */
+    public int size() {
+        if (board.getPieceNum() == 0) {
+            return 1;
+        }
+        rebuild();
+        return candidateNum;
+    }
+
+    /**
+     * 第 i 个候选棋位下标，按下标从小到大
+     */
+    public int get(int i) {
+        if (board.getPieceNum() == 0) {
+            return center;
+        }
+        rebuild();
+        return candidates[i];
+    }
+
+    /**
+     * true：该棋位是候选棋位
+     */
+    public boolean contains(int index) {
+        if (board.getPieceNum() == 0) {
+            return index == center;
+        }
+        return BitBoard.testBit(bits, index) && (nearCounts[index] > 0 || threat.test(index));
+    }
+
+    /**
+     * 候选棋位坐标
+     *
+     * @return 新列表，棋盘已满时为空
+     */
+    public List<Position> positions() {
+        int size = size();
+        List<Position> positions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            positions.add(board.positionOf(get(i)));
+        }
+        return positions;
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * 远处棋位进攻得分门槛：不弱于 {@link #THREAT_PATTERN} 的棋型中最低的进攻得分
+     */
+    static int threatAttackScoreOf(PatternWeights weights) {
+        int score = Integer.MAX_VALUE;
+        for (PatternEnum pattern : PatternEnum.values()) {
+            if (pattern.ordinal() <= THREAT_PATTERN.ordinal()) {
+                score = Math.min(score, weights.attackScoreOf(pattern));
+            }
+        }
+        return score;
+    }
+
+    private void addNeighbours(int origin, int increment) {
+        int originX = board.xOf(origin);
+        int originY = board.yOf(origin);
+        for (int x = originX - radius; x <= originX + radius; x++) {
+            for (int y = originY - radius; y <= originY + radius; y++) {
+                if (!board.isLegal(x, y)) {
+                    continue;
+                }
+                int index = board.indexOf(x, y);
+                farCounts[index] += increment;
+                if (Math.abs(x - originX) <= 1 && Math.abs(y - originY) <= 1) {
+                    nearCounts[index] += increment;
+                }
+                if (index == origin || !board.isEmpty(index)) {
+                    continue;
+                }
+                if (farCounts[index] == 0) {
+                    clearBit(index);
+                } else if (farCounts[index] == 1 && increment > 0) {
+                    setBit(index);
+                }
+            }
+        }
+        // 近处棋位的计数和远处棋位的得分都可能变化
+        dirty = true;
+    }
+
+    /**
+     * 在棋盘上查表计算双方在空棋位的进攻得分，判断是否达到门槛
+     */
+    private boolean calculateThreat(int index) {
+        int blackScore = 0;
+        int whiteScore = 0;
+        for (DirectionEnum direction : DIRECTIONS) {
+            int delta = board.deltaOf(direction);
+            blackScore += patternWeights.attackScoreOf(
+                    PatternTable.lookup(PatternTable.encode(board, index, delta, ColorEnum.BLACK)));
+            whiteScore += patternWeights.attackScoreOf(
+                    PatternTable.lookup(PatternTable.encode(board, index, delta, ColorEnum.WHITE)));
+        }
+        return blackScore >= threatAttackScore || whiteScore >= threatAttackScore;
+    }
+
+    private void setBit(int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    private void clearBit(int index) {
+        bits[index >>> 6] &= ~(1L << index);
+    }
+
+    /**
+     * 按下标重建紧凑数组：近处棋位都保留，远处棋位只保留得分达到门槛的
+     */
+    private void rebuild() {
+        if (!dirty) {
+            return;
+        }
+        int num = 0;
+        for (int word = 0; word < bits.length; word++) {
+            long remaining = bits[word];
+            while (remaining != 0) {
+                int index = (word << 6) + Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                if (nearCounts[index] > 0 || threat.test(index)) {
+                    candidates[num++] = index;
+                }
+            }
+        }
+        candidateNum = num;
+        dirty = false;
+    }
+}
@@ -0,0 +1,504 @@
+package gobang.algorithm.ai;
+
+import gobang.bean.BitBoard;
+import gobang.bean.ColorEnum;
+import gobang.bean.Position;
+import gobang.book.OpeningBook;
+import gobang.metrics.EngineCallEnum;
+import gobang.metrics.EngineMetrics;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static gobang.algorithm.ai.AlphaBetaSearch.opposite;
+
+/**
+ * 一局棋的引擎会话
+ * 会话持有棋盘、增量评估器、算杀器和搜索器，双方落子只做增量更新，每一步不再重新扫描整个棋盘；
+ * 会话不依赖线程变量，可以在任意线程（包括虚拟线程）中使用，但同一时刻只能有一个线程调用。
+ * 本方落子后可以开始后台思考（ponder）：猜测对方的应手，在对方思考期间先搜索猜测局面，
+ * 猜中时限时搜索直接接着后台搜索的结果，猜错时停止后台搜索
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class EngineSession {
+
+    /**
+     * 通知后台搜索停止后最多再等的时间（毫秒），后台搜索每 64 个节点检查一次停止信号，正常情况下远小于该值
+     */
+    private static final long STOP_GRACE_MILLIS = 50;
+
+    private final IncrementalEvaluator evaluator;
+
+    private final BitBoard board;
+
+    private final ColorEnum ownColor;
+
+    private final ColorEnum opponentColor;
+
+    private final ThreatSolver vcfSolver;
+
+    private final ThreatSolver vctSolver;
+
+    /**
+     * 同分棋位随机选择
+     */
+    private final Random random;
+
+    /**
+     * [下标] 逻辑AI的候选棋位得分，只写入候选棋位
+     */
+    private final int[] scores;
+
+    /**
+     * 开局库，null：不使用
+     */
+    private OpeningBook openingBook;
+
+    /**
+     * 第一次限时搜索时创建，之后整局复用：会话的评估器随双方落子增量更新，置换表、杀手棋位、历史得分保留到下一回合，
+     * 见 {@link AlphaBetaSearch}；只用逻辑AI时不占用置换表内存
+     */
+    private AlphaBetaSearch search;
+
+    /**
+     * 最近一次限时搜索的结果，用于猜测对方应手
+     */
+    private SearchResult lastSearchResult;
+
+    /**
+     * 后台思考猜测的对方应手，null：没有后台思考
+     */
+    private Position ponderMove;
+
+    private AlphaBetaSearch ponderSearch;
+
+    private Future<SearchResult> ponderFuture;
+
+    /**
+     * true：后台搜索已在线程池中开始运行，false：还在队列中等待
+     */
+    private AtomicBoolean ponderStarted;
+
+    /**
+     * true：对方的应手与猜测一致
+     */
+    private boolean ponderHit;
+
+    /**
+     * 空棋盘开局
+     */
+    public EngineSession(int width, int height, ColorEnum ownColor) {
+        this(new BitBoard(width, height), ownColor);
+    }
+
+    public EngineSession(BitBoard board, ColorEnum ownColor) {
+        this(board, ownColor, new Random(), AiAlgorithms.patternWeights());
+    }
+
+    /**
+     * @param board    初始局面，会话复制一份自己维护
+     * @param ownColor 本方棋色
+     * @param seed     同分棋位随机选择的种子，相同种子、相同棋谱的选择相同
+     */
+    public EngineSession(BitBoard board, ColorEnum ownColor, long seed) {
+        this(board, ownColor, new Random(seed), AiAlgorithms.patternWeights());
+    }
+
+    /**
+     * @param board          初始局面，会话复制一份自己维护
+     * @param ownColor       本方棋色
+     * @param seed           同分棋位随机选择的种子，相同种子、相同棋谱的选择相同
+     * @param patternWeights 本会话使用的棋型得分，不受 {@link AiAlgorithms#setPatternWeights} 影响
+     */
+    public EngineSession(BitBoard board, ColorEnum ownColor, long seed, PatternWeights patternWeights) {
+        this(board, ownColor, new Random(seed), patternWeights);
+    }
+
+    private EngineSession(BitBoard board, ColorEnum ownColor, Random random, PatternWeights patternWeights) {
+        if (ownColor != ColorEnum.BLACK && ownColor != ColorEnum.WHITE) {
+            throw new IllegalArgumentException("Illegal own color: " + ownColor);
+        }
+        this.evaluator = new IncrementalEvaluator(
+                Objects.requireNonNull(board), CandidateGenerator.DEFAULT_RADIUS, patternWeights);
+        this.board = evaluator.getBoard();
+        this.ownColor = ownColor;
+        this.opponentColor = opposite(ownColor);
+        this.vcfSolver = new ThreatSolver(evaluator, ThreatSolver.DEFAULT_VCF_DEPTH, ThreatSolver.DEFAULT_VCF_NODE_LIMIT);
+        this.vctSolver = new ThreatSolver(evaluator, ThreatSolver.DEFAULT_VCT_DEPTH, ThreatSolver.DEFAULT_VCT_NODE_LIMIT);
+        this.random = random;
+        this.scores = new int[board.getIndexNum()];
+    }
+
+    /**
+     * 本方落子
+     *
+     * @param position 空棋位
+     */
+    public void play(Position position) {
+        stopPondering();
+        put(position, ownColor);
+    }
+
+    /**
+     * 对方落子
+     *
+     * @param position 空棋位
+     */
+    public void opponentPlayed(Position position) {
+        if (Objects.nonNull(ponderMove) && !ponderHit) {
+            boolean hit = ponderMove.equals(position);
+            AiAlgorithms.metrics().addPonderResult(hit);
+            if (hit) {
+                ponderHit = true;
+                // 轮到本方，后台搜索就是本方的计算，不再限制
+                ponderSearch.setDutyCycle(1);
+            } else {
+                stopPondering();
+            }
+        }
+        put(position, opponentColor);
+    }
+
+    /**
+     * 逻辑AI计算本方下棋坐标：先查开局库，再算杀，最后选分数最高的候选棋位，同分随机选一个
+     * 只计算不落子，确定下棋后需调用 {@link #play(Position)}
+     *
+     * @return null：棋盘下满
+     */
+    public Position bestMove() {
+        stopPondering();
+        long start = System.nanoTime();
+        Position position = probeOpeningBook();
+        if (Objects.isNull(position)) {
+            position = findBestPosition();
+        }
+        AiAlgorithms.metrics().recordLatency(EngineCallEnum.LOGIC, System.nanoTime() - start);
+        return position;
+    }
+
+    /**
+     * 限时搜索本方下棋坐标，置换表、杀手棋位和历史得分在整局中保留
+     * 只计算不落子，确定下棋后需调用 {@link #play(Position)}
+     *
+     * @param timeBudgetMillis 时间预算（毫秒），小于等于 0 表示不限
+     * @return nonNull，position 为 null：棋盘下满
+     */
+    public SearchResult bestMove(long timeBudgetMillis) {
+        long start = System.nanoTime();
+        Position bookMove = probeOpeningBook();
+        if (Objects.nonNull(bookMove)) {
+            stopPondering();
+            lastSearchResult = null;
+            return new SearchResult(bookMove, 0, 0, 0, 0, Collections.singletonList(bookMove));
+        }
+        SearchResult result = ponderHit ? finishPondering(timeBudgetMillis) : null;
+        boolean pondered = Objects.nonNull(result);
+        if (!pondered) {
+            stopPondering();
+            // 放弃后台搜索时已等过的时间从预算中扣除，至少留 1 毫秒，深度 1 的迭代总会完成
+            long remainingMillis = timeBudgetMillis <= 0 ? timeBudgetMillis
+                    : Math.max(1, timeBudgetMillis - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            result = search().iterativeSearch(ownColor, AiAlgorithms.MAX_SEARCH_DEPTH, remainingMillis, 0);
+        }
+        lastSearchResult = result;
+        long elapsedNanos = System.nanoTime() - start;
+        EngineMetrics metrics = AiAlgorithms.metrics();
+        metrics.recordLatency(EngineCallEnum.SEARCH, elapsedNanos);
+        // 猜中时节点数包含对方思考期间的后台搜索，按后台搜索的总耗时计算每秒节点数
+        metrics.addSearchNodes(result.getNodeNum(),
+                pondered ? TimeUnit.MILLISECONDS.toNanos(result.getElapsedMillis()) : elapsedNanos);
+        return result;
+    }
+
+    /**
+     * 按逻辑AI评分列出本方分数最高的 K 个棋位，只按棋型打分，不包括算杀
+     *
+     * @param k 棋位数上限
+     * @return 按分数从高到低排列，棋盘已满时为空
+     */
+    public List<RankedMove> rankMoves(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("Illegal k: " + k);
+        }
+        CandidateGenerator candidates = evaluator.getCandidates();
+        TopKSelector selector = new TopKSelector(k);
+        for (int i = 0; i < candidates.size(); i++) {
+            int index = candidates.get(i);
+            selector.offer(index, evaluator.scoreOf(index, ownColor));
+        }
+        return selector.drainRankedMoves(board);
+    }
+
+    /**
+     * 搜索本方分数最高的 K 个棋位及各自的主要变例，见 {@link AlphaBetaSearch#rank}
+     *
+     * @param k     棋位数上限
+     * @param depth 搜索深度
+     * @return 按分数从高到低排列，棋盘已满时为空
+     */
+    public List<RankedMove> rankMoves(int k, int depth) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("Illegal k: " + k);
+        }
+        stopPondering();
+        return search().rank(ownColor, depth, k);
+    }
+
+    /**
+     * 本方落子后开始后台思考，运行时间不限制，见 {@link #startPondering(ExecutorService, long, double)}
+     */
+    public boolean startPondering(ExecutorService pool, long ponderTimeMillis) {
+        return startPondering(pool, ponderTimeMillis, 1);
+    }
+
+    /**
+     * 本方落子后开始后台思考：猜测对方应手（优先取上一次搜索的主要变例），在副本上搜索猜测局面
+     * 后台搜索与会话共用置换表，不修改会话的局面；对方落子后猜中则在 {@link #bestMove(long)} 中接着使用，猜错则停止。
+     * 对方思考期间后台搜索按 dutyCycle 暂停，每个后台线程最多占用一个核的该比例，见 {@link AlphaBetaSearch#setDutyCycle}；
+     * 猜中后不再限制
+     *
+     * @param pool             后台思考线程池，建议用 {@link #newPonderPool(int)} 创建，线程池已满时不思考
+     * @param ponderTimeMillis 后台思考的最长时间（毫秒），小于等于 0 表示不限，直到对方落子
+     * @param dutyCycle        对方思考期间后台搜索的运行时间占比，(0, 1]，1 为不限制
+     * @return true：已开始后台思考
+     */
+    public boolean startPondering(ExecutorService pool, long ponderTimeMillis, double dutyCycle) {
+        Objects.requireNonNull(pool);
+        if (!(dutyCycle > 0 && dutyCycle <= 1)) {
+            throw new IllegalArgumentException("Illegal duty cycle: " + dutyCycle);
+        }
+        stopPondering();
+        int predicted = predictOpponentMove();
+        if (predicted < 0) {
+            return false;
+        }
+        IncrementalEvaluator ponderEvaluator = new IncrementalEvaluator(
+                board, CandidateGenerator.DEFAULT_RADIUS, evaluator.getPatternWeights());
+        ponderEvaluator.setNetwork(evaluator.getNetwork());
+        ponderEvaluator.applyMove(predicted, opponentColor);
+        AlphaBetaSearch ponder = new AlphaBetaSearch(ponderEvaluator, AlphaBetaSearch.DEFAULT_WIDTH,
+                search().getTranspositionTable());
+        ponder.setDutyCycle(dutyCycle);
+        AtomicBoolean started = new AtomicBoolean();
+        try {
+            ponderFuture = pool.submit(() -> {
+                started.set(true);
+                return ponder.iterativeSearch(ownColor, AiAlgorithms.MAX_SEARCH_DEPTH, ponderTimeMillis, 0);
+            });
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+        ponderStarted = started;
+        ponderSearch = ponder;
+        ponderMove = board.positionOf(predicted);
+        return true;
+    }
+
+    /**
+     * 停止后台思考，不等待后台线程结束
+     */
+    public void stopPondering() {
+        if (Objects.isNull(ponderMove)) {
+            return;
+        }
+        ponderSearch.stop();
+        ponderFuture.cancel(false);
+        clearPondering();
+    }
+
+    /**
+     * @return 后台思考猜测的对方应手，null：没有后台思考
+     */
+    public Position getPonderMove() {
+        return ponderMove;
+    }
+
+    /**
+     * 后台思考线程池：线程数固定、队列有界，线程为守护线程；队列已满时拒绝提交，{@link #startPondering} 返回 false
+     * 线程设为最低优先级只是提示：Linux 上 HotSpot 默认忽略 Java 线程优先级，后台思考与正常计算平等竞争 CPU，
+     * 占用的 CPU 由线程数和 {@link #startPondering(ExecutorService, long, double)} 的运行时间占比限制：
+     * 最多为线程数乘以占比个核
+     *
+     * @param threadNum 线程数上限
+     */
+    public static ExecutorService newPonderPool(int threadNum) {
+        if (threadNum <= 0) {
+            throw new IllegalArgumentException("Illegal thread num: " + threadNum);
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "ponder-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        };
+        return new ThreadPoolExecutor(threadNum, threadNum, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threadNum), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 设置开局库，{@link #bestMove()} 和 {@link #bestMove(long)} 先查开局库，收录的局面不再计算
+     *
+     * @param openingBook null：不使用开局库
+     */
+    public void setOpeningBook(OpeningBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
+    /**
+     * 设置神经网络，{@link #bestMove(long)} 的搜索用网络评估叶子局面；应在第一次搜索之前设置，
+     * 否则置换表中保留的是另一种评估的分数
+     *
+     * @param network null：用棋型得分评估
+     */
+    public void setNetwork(NnueNetwork network) {
+        evaluator.setNetwork(network);
+    }
+
+    public ColorEnum getOwnColor() {
+        return ownColor;
+    }
+
+    /**
+     * 会话开始后双方落子数
+     */
+    public int getMoveNum() {
+        return evaluator.getMoveNum();
+    }
+
+    /**
+     * @return 当前局面的副本
+     */
+    public BitBoard getBoard() {
+        return new BitBoard(board);
+    }
+
+    private AlphaBetaSearch search() {
+        if (Objects.isNull(search)) {
+            search = new AlphaBetaSearch(evaluator, AlphaBetaSearch.DEFAULT_WIDTH,
+                    new TranspositionTable(AlphaBetaSearch.DEFAULT_TABLE_CAPACITY));
+        }
+        return search;
+    }
+
+    /**
+     * 猜测对方应手：上一次搜索的主要变例第二步仍是空棋位时用它，否则取对方得分最高的候选棋位
+     *
+     * @return 下标，-1：棋盘已满
+     */
+    private int predictOpponentMove() {
+        if (Objects.nonNull(lastSearchResult)) {
+            List<Position> principalVariation = lastSearchResult.getPrincipalVariation();
+            if (principalVariation.size() >= 2) {
+                int index = board.indexOf(principalVariation.get(1));
+                if (board.isEmpty(index) && board.isColor(board.indexOf(principalVariation.get(0)), ownColor)) {
+                    return index;
+                }
+            }
+        }
+        return evaluator.getCandidates().size() == 0 ? -1 : evaluator.bestIndex(opponentColor);
+    }
+
+    /**
+     * 猜中后等待后台搜索，最多等 timeBudgetMillis，到时通知停止并取最后一次完整迭代的结果
+     * 后台搜索还在线程池队列中没有开始、或通知停止后 {@link #STOP_GRACE_MILLIS} 内仍未结束时放弃，由调用者重新搜索
+     *
+     * @return null：后台搜索没有开始、没有及时结束或失败
+     */
+    private SearchResult finishPondering(long timeBudgetMillis) {
+        Future<SearchResult> future = ponderFuture;
+        AlphaBetaSearch ponder = ponderSearch;
+        boolean started = ponderStarted.get();
+        clearPondering();
+        if (!started) {
+            ponder.stop();
+            future.cancel(false);
+            return null;
+        }
+        try {
+            if (timeBudgetMillis <= 0) {
+                // 已经开始运行，不限时间时等它按自己的预算结束，与重新搜索相同
+                return future.get();
+            }
+            try {
+                return future.get(timeBudgetMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                ponder.stop();
+                return future.get(STOP_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            return null;
+        } catch (InterruptedException e) {
+            ponder.stop();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for ponder search.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ponder search failed.", e.getCause());
+        }
+    }
+
+    private void clearPondering() {
+        ponderMove = null;
+        ponderSearch = null;
+        ponderFuture = null;
+        ponderStarted = null;
+        ponderHit = false;
+    }
+
+    private void put(Position position, ColorEnum color) {
+        Objects.requireNonNull(position);
+        if (!board.isLegal(position.getX(), position.getY())) {
+            throw new IllegalArgumentException("Position out of board: " + position);
+        }
+        int index = board.indexOf(position);
+        if (!board.isEmpty(index)) {
+            throw new IllegalArgumentException("Position not empty: " + position);
+        }
+        evaluator.applyMove(index, color);
+    }
+
+    /**
+     * @return null：没有开局库或没有收录
+     */
+    private Position probeOpeningBook() {
+        return Objects.isNull(openingBook) ? null : openingBook.probe(board);
+    }
+
+    private Position findBestPosition() {
+        CandidateGenerator candidates = evaluator.getCandidates();
+        if (candidates.size() == 0) {
+            return null;
+        }
+
+        int threatIndex = vcfSolver.solveVcf(ownColor);
+        if (threatIndex < 0) {
+            threatIndex = vctSolver.solveVct(ownColor);
+        }
+        if (threatIndex >= 0) {
+            return board.positionOf(threatIndex);
+        }
+
+        for (int i = 0; i < candidates.size(); i++) {
+            int index = candidates.get(i);
+            scores[index] = evaluator.scoreOf(index, ownColor);
+        }
+        AiAlgorithms.metrics().addScoredPositions(candidates.size());
+        return board.positionOf(AiAlgorithms.selectBestIndex(candidates, scores, random));
+    }
+}
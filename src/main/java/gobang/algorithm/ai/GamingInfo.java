@@ -1,24 +1,100 @@
 package gobang.algorithm.ai;
 
+import gobang.bean.BitBoard;
 import gobang.bean.ColorEnum;
 
+import java.util.Random;
+
 /**
  * 游戏信息
+ * 每个线程一份，重复使用：位棋盘和候选棋位只在棋盘尺寸或棋型得分变化时创建，
+ * 每次计算前清空后放上本次局面的棋子，计算中不分配内存
  *
  * @author LiuBing
  * @date 2020/11/5
  */
 class GamingInfo {
 
-	final int[][] boardInfo;
+	/**
+	 * 本次计算的局面
+	 */
+	final BitBoard board;
+
+	/**
+	 * 候选棋位，与 board 同步
+	 */
+	final CandidateGenerator candidates;
+
+	ColorEnum ownColor;
+
+	ColorEnum opponentColor;
+
+	/**
+	 * 同分棋位随机选择
+	 */
+	Random random;
+
+	/**
+	 * 棋型得分，创建时取 {@link AiAlgorithms#setPatternWeights} 设置的值，计算过程中不变
+	 */
+	final PatternWeights patternWeights;
+
+	GamingInfo(int width, int height, PatternWeights patternWeights) {
+		this.board = new BitBoard(width, height);
+		this.patternWeights = patternWeights;
+		this.candidates = new CandidateGenerator(board, CandidateGenerator.DEFAULT_RADIUS, patternWeights);
+	}
 
-	final ColorEnum ownColor;
+	/**
+	 * true：可以用于该尺寸的棋盘和该棋型得分
+	 */
+	boolean fits(int width, int height, PatternWeights weights) {
+		return board.getWidth() == width && board.getHeight() == height && patternWeights == weights;
+	}
 
-	final ColorEnum opponentColor;
+	/**
+	 * 换成二维数组表示的局面
+	 *
+	 * @param boardInfo 棋盘[x][y] 每个点的值为 {@link ColorEnum#ordinal()}，尺寸需与构造时一致
+	 */
+	void reset(int[][] boardInfo, ColorEnum ownColor, ColorEnum opponentColor, Random random) {
+		clear(ownColor, opponentColor, random);
+		for (int x = 0; x < boardInfo.length; x++) {
+			for (int y = 0; y < boardInfo[x].length; y++) {
+				int color = boardInfo[x][y];
+				if (color == ColorEnum.BLACK.ordinal()) {
+					put(board.indexOf(x, y), ColorEnum.BLACK);
+				} else if (color == ColorEnum.WHITE.ordinal()) {
+					put(board.indexOf(x, y), ColorEnum.WHITE);
+				}
+			}
+		}
+	}
 
-	public GamingInfo(int[][] boardInfo, ColorEnum ownColor, ColorEnum opponentColor) {
-		this.boardInfo = boardInfo;
+	/**
+	 * 换成位棋盘表示的局面，只复制棋子，不持有 source
+	 *
+	 * @param source 尺寸需与构造时一致
+	 */
+	void reset(BitBoard source, ColorEnum ownColor, ColorEnum opponentColor, Random random) {
+		clear(ownColor, opponentColor, random);
+		for (int index = 0; index < source.getIndexNum(); index++) {
+			if (source.isLegal(index) && !source.isEmpty(index)) {
+				put(index, source.colorAt(index));
+			}
+		}
+	}
+
+	private void clear(ColorEnum ownColor, ColorEnum opponentColor, Random random) {
 		this.ownColor = ownColor;
 		this.opponentColor = opponentColor;
+		this.random = random;
+		board.clear();
+		candidates.clear();
+	}
+
+	private void put(int index, ColorEnum color) {
+		board.put(index, color);
+		candidates.place(index);
 	}
 }
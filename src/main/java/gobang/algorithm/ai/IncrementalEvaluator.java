@@ -0,0 +1,365 @@
+package gobang.algorithm.ai;
+
+import gobang.algorithm.WinDetector;
+import gobang.bean.BitBoard;
+import gobang.bean.ColorEnum;
+import gobang.bean.DirectionEnum;
+import gobang.bean.Position;
+
+import java.util.Objects;
+
+/**
+ * 增量评估器
+ * 为每个空棋位保存黑白双方在四个方向上能成的棋型及汇总分数，
+ * 落子/悔棋后只重算经过该棋位的四条直线上前后各 4 格的棋位
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class IncrementalEvaluator {
+
+    private static final DirectionEnum[] DIRECTIONS = DirectionEnum.values();
+
+    private static final int DIRECTION_NUM = DIRECTIONS.length;
+
+    /**
+     * 棋盘，由评估器维护
+     */
+    private final BitBoard board;
+
+    /**
+     * 候选棋位，随落子/悔棋同步
+     */
+    private final CandidateGenerator candidates;
+
+    /**
+     * 连珠检测，随落子/悔棋同步
+     */
+    private final WinDetector winDetector;
+
+    /**
+     * 棋型得分
+     */
+    private final PatternWeights patternWeights;
+
+    /**
+     * 各方向往远离原点一侧走一格的下标差
+     */
+    private final int[] deltas = new int[DIRECTION_NUM];
+
+    /**
+     * [棋色][下标 * 4 + 方向] 该方在空棋位落子后能成的棋型，有棋子的棋位为 null
+     */
+    private final PatternEnum[][] patterns;
+
+    /**
+     * [棋色][下标] 该方在空棋位四个方向棋型的进攻得分之和
+     */
+    private final int[][] attackScores;
+
+    /**
+     * [棋色][下标] 该方在空棋位四个方向棋型的防守得分之和
+     */
+    private final int[][] defenseScores;
+
+    /**
+     * 远处候选棋位的进攻得分门槛，见 {@link CandidateGenerator#threatAttackScoreOf}
+     */
+    private final int threatAttackScore;
+
+    /**
+     * [棋色] 该方所有空棋位进攻得分总和，作为局面评估
+     */
+    private final long[] totalAttackScores = new long[2];
+
+    /**
+     * 落子顺序
+     */
+    private final int[] moveStack;
+
+    private int moveNum;
+
+    /**
+     * 神经网络累加器，null：用棋型得分评估
+     */
+    private NnueAccumulator accumulator;
+
+    public IncrementalEvaluator(BitBoard board) {
+        this(board, CandidateGenerator.DEFAULT_RADIUS);
+    }
+
+    /**
+     * 使用 {@link AiAlgorithms#setPatternWeights} 设置的棋型得分
+     *
+     * @param board           初始棋盘，评估器复制一份自己维护
+     * @param candidateRadius 候选棋位离棋子的最大距离
+     */
+    public IncrementalEvaluator(BitBoard board, int candidateRadius) {
+        this(board, candidateRadius, AiAlgorithms.patternWeights());
+    }
+
+    /**
+     * @param board           初始棋盘，评估器复制一份自己维护
+     * @param candidateRadius 候选棋位离棋子的最大距离
+     * @param patternWeights  棋型得分
+     */
+    public IncrementalEvaluator(BitBoard board, int candidateRadius, PatternWeights patternWeights) {
+        this.patternWeights = Objects.requireNonNull(patternWeights);
+        this.threatAttackScore = CandidateGenerator.threatAttackScoreOf(patternWeights);
+        this.board = new BitBoard(Objects.requireNonNull(board));
+        this.candidates = new CandidateGenerator(this.board, candidateRadius, this::isThreat);
+        this.winDetector = new WinDetector(this.board);
+        for (int i = 0; i < DIRECTION_NUM; i++) {
+            deltas[i] = board.deltaOf(DIRECTIONS[i]);
+        }
+        int indexNum = board.getIndexNum();
+        this.patterns = new PatternEnum[2][indexNum * DIRECTION_NUM];
+        this.attackScores = new int[2][indexNum];
+        this.defenseScores = new int[2][indexNum];
+        this.moveStack = new int[indexNum];
+        for (int index = 0; index < indexNum; index++) {
+            if (board.isLegal(index)) {
+                for (int d = 0; d < DIRECTION_NUM; d++) {
+                    refresh(index, d);
+                }
+            }
+        }
+    }
+
+    public IncrementalEvaluator(int[][] boardInfo) {
+        this(BitBoard.valueOf(boardInfo));
+    }
+
+    /**
+     * 落子并更新受影响棋位的棋型
+     *
+     * @param index 空棋位下标
+     * @param color 棋色
+     */
+    public void applyMove(int index, ColorEnum color) {
+        board.put(index, color);
+        candidates.place(index);
+        winDetector.place(index, color);
+        moveStack[moveNum++] = index;
+        refreshLinesThrough(index);
+        if (Objects.nonNull(accumulator)) {
+            accumulator.place(index, color);
+        }
+    }
+
+    public void applyMove(Position position, ColorEnum color) {
+        applyMove(board.indexOf(position), color);
+    }
+
+    /**
+     * 撤销最后一步落子
+     *
+     * @return 被撤销的棋位下标
+     */
+    public int undoMove() {
+        if (moveNum == 0) {
+            throw new IllegalStateException("No move to undo.");
+        }
+        int index = moveStack[--moveNum];
+        ColorEnum color = board.colorAt(index);
+        board.remove(index);
+        candidates.remove(index);
+        winDetector.remove(index, color);
+        refreshLinesThrough(index);
+        if (Objects.nonNull(accumulator)) {
+            accumulator.remove(index, color);
+        }
+        return index;
+    }
+
+    /**
+     * 某方在空棋位落子的得分，与 {@link AiAlgorithms} 的评分一致：本方棋型进攻分 + 对方棋型防守分
+     *
+     * @param index 棋位下标
+     * @param side  落子方
+     * @return 有棋子的棋位为 0
+     */
+    public int scoreOf(int index, ColorEnum side) {
+        return attackScores[colorIndex(side)][index] + defenseScores[1 - colorIndex(side)][index];
+    }
+
+    /**
+     * 某方在空棋位四个方向棋型的进攻得分之和
+     */
+    int attackScoreOf(int index, ColorEnum color) {
+        return attackScores[colorIndex(color)][index];
+    }
+
+    /**
+     * 某方在空棋位四个方向棋型的防守得分之和
+     */
+    int defenseScoreOf(int index, ColorEnum color) {
+        return defenseScores[colorIndex(color)][index];
+    }
+
+    /**
+     * 局面评估：设置了神经网络时为网络输出，否则为落子方所有空棋位进攻分之和减去对方的
+     *
+     * @param side 落子方
+     * @return 正数对落子方有利
+     */
+    public long evaluate(ColorEnum side) {
+        if (Objects.nonNull(accumulator)) {
+            return accumulator.evaluate(side);
+        }
+        return totalAttackScores[colorIndex(side)] - totalAttackScores[1 - colorIndex(side)];
+    }
+
+    /**
+     * 用神经网络代替棋型得分做局面评估，候选棋位排序仍用棋型得分
+     *
+     * @param network 网络，棋盘尺寸需与评估器一致；null：恢复棋型得分评估
+     */
+    public void setNetwork(NnueNetwork network) {
+        accumulator = Objects.isNull(network) ? null : new NnueAccumulator(network, board);
+    }
+
+    /**
+     * @return null：未设置神经网络
+     */
+    public NnueNetwork getNetwork() {
+        return Objects.isNull(accumulator) ? null : accumulator.getNetwork();
+    }
+
+    /**
+     * 找出对落子方得分最高的候选棋位，分数相同取先遍历到的
+     *
+     * @param side 落子方
+     * @return -1：棋盘已满
+     */
+    public int bestIndex(ColorEnum side) {
+        int[] attack = attackScores[colorIndex(side)];
+        int[] defense = defenseScores[1 - colorIndex(side)];
+        int bestIndex = -1;
+        int bestScore = Integer.MIN_VALUE;
+        for (int i = 0; i < candidates.size(); i++) {
+            int index = candidates.get(i);
+            int score = attack[index] + defense[index];
+            if (score > bestScore) {
+                bestScore = score;
+                bestIndex = index;
+            }
+        }
+        return bestIndex;
+    }
+
+    /**
+     * @param side 落子方
+     * @return null：棋盘已满
+     */
+    public Position bestPosition(ColorEnum side) {
+        int index = bestIndex(side);
+        return index < 0 ? null : board.positionOf(index);
+    }
+
+    /**
+     * 某方在空棋位某个方向上能成的棋型
+     *
+     * @return null：棋位有棋子
+     */
+    PatternEnum patternOf(int index, DirectionEnum direction, ColorEnum color) {
+        return patterns[colorIndex(color)][index * DIRECTION_NUM + direction.ordinal()];
+    }
+
+    /**
+     * 任一方在空棋位四个方向棋型的进攻得分之和是否达到远处候选棋位的门槛
+     */
+    private boolean isThreat(int index) {
+        return attackScores[0][index] >= threatAttackScore || attackScores[1][index] >= threatAttackScore;
+    }
+
+    public PatternWeights getPatternWeights() {
+        return patternWeights;
+    }
+
+    /**
+     * 评估器维护的棋盘，只读
+     */
+    public BitBoard getBoard() {
+        return board;
+    }
+
+    /**
+     * 连珠检测，随落子/悔棋同步，只读
+     */
+    public WinDetector getWinDetector() {
+        return winDetector;
+    }
+
+    /**
+     * 候选棋位，只读
+     */
+    public CandidateGenerator getCandidates() {
+        return candidates;
+    }
+
+    public int getMoveNum() {
+        return moveNum;
+    }
+
+    /**
+     * 重算经过某棋位的四条直线上前后各 4 格（不越过棋盘边界）
+     */
+    private void refreshLinesThrough(int origin) {
+        for (int d = 0; d < DIRECTION_NUM; d++) {
+            int delta = deltas[d];
+            refresh(origin, d);
+            for (int offsetNum = 1, index = origin - delta;
+                 offsetNum <= PatternTable.MAX_OFFSET_NUM && board.isLegal(index);
+                 offsetNum++, index -= delta) {
+                refresh(index, d);
+            }
+            for (int offsetNum = 1, index = origin + delta;
+                 offsetNum <= PatternTable.MAX_OFFSET_NUM && board.isLegal(index);
+                 offsetNum++, index += delta) {
+                refresh(index, d);
+            }
+        }
+    }
+
+    /**
+     * 重算某个棋位在某个方向上双方的棋型
+     */
+    private void refresh(int index, int d) {
+        boolean empty = board.isEmpty(index);
+        refresh(index, d, 0, empty ? calculateBy(index, d, ColorEnum.BLACK) : null);
+        refresh(index, d, 1, empty ? calculateBy(index, d, ColorEnum.WHITE) : null);
+    }
+
+    private void refresh(int index, int d, int colorIndex, PatternEnum pattern) {
+        int slot = index * DIRECTION_NUM + d;
+        PatternEnum old = patterns[colorIndex][slot];
+        if (old == pattern) {
+            return;
+        }
+        if (Objects.nonNull(old)) {
+            int attackScore = patternWeights.attackScoreOf(old);
+            totalAttackScores[colorIndex] -= attackScore;
+            attackScores[colorIndex][index] -= attackScore;
+            defenseScores[colorIndex][index] -= patternWeights.defenseScoreOf(old);
+        }
+        if (Objects.nonNull(pattern)) {
+            int attackScore = patternWeights.attackScoreOf(pattern);
+            totalAttackScores[colorIndex] += attackScore;
+            attackScores[colorIndex][index] += attackScore;
+            defenseScores[colorIndex][index] += patternWeights.defenseScoreOf(pattern);
+        }
+        patterns[colorIndex][slot] = pattern;
+    }
+
+    /**
+     * 假设原点下了本方棋子，计算某个方向上的棋型
+     */
+    private PatternEnum calculateBy(int origin, int d, ColorEnum ownColor) {
+        return PatternTable.lookup(PatternTable.encode(board, origin, deltas[d], ownColor));
+    }
+
+    private static int colorIndex(ColorEnum color) {
+        return color.ordinal() - 1;
+    }
+}
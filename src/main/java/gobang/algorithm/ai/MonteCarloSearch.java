@@ -0,0 +1,719 @@
+package gobang.algorithm.ai;
+
+import gobang.bean.BitBoard;
+import gobang.bean.ColorEnum;
+import gobang.bean.Position;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 蒙特卡洛树搜索（UCT + 渐进展宽）
+ * 棋型得分既是先验也是模拟策略：展开时按 {@link IncrementalEvaluator#scoreOf} 排序并给出先验，
+ * 一个节点能选的子节点数随访问次数的平方根增长；模拟时每步在得分最高的几个棋位中随机选择，有连五必走、对方有连五必堵。
+ * 多个线程共享一棵树（树并行），选择时给经过的节点加虚拟损失，让其他线程分散到别的分支；
+ * 节点存放在构造时一次分配好的节点池中，{@link #play} 后保留新局面对应的子树并压缩到池的前部，跨回合复用；
+ * {@link #reset} 换成新局面后节点池跨对局复用。
+ * 同一时刻只能有一个调用者使用，{@link #search} 与 {@link #play} 不能并发调用
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class MonteCarloSearch {
+
+    /**
+     * 默认节点池容量
+     */
+    public static final int DEFAULT_NODE_CAPACITY = 1 << 20;
+
+    /**
+     * 每个节点最多展开的子节点数
+     */
+    private static final int MAX_CHILD_NUM = 24;
+
+    /**
+     * 虚拟损失：选择时先按输记的访问次数，回传时扣回
+     */
+    private static final int VIRTUAL_LOSS = 3;
+
+    /**
+     * 叶子节点被访问到这个次数后才展开，减少只访问一次的节点占用节点池
+     */
+    private static final int EXPAND_VISITS = 2;
+
+    /**
+     * UCT 探索系数
+     */
+    private static final double EXPLORATION = 0.7;
+
+    /**
+     * 未访问子节点的 UCT 值，高于任何访问过的子节点
+     */
+    private static final double UNVISITED_VALUE = 1e9;
+
+    /**
+     * 先验项系数，先验的影响随访问次数衰减
+     */
+    private static final double PRIOR_WEIGHT = 1.0;
+
+    /**
+     * 模拟阶段最多的步数，超过按和棋计
+     */
+    private static final int ROLLOUT_LIMIT = 60;
+
+    /**
+     * 模拟策略在得分最高的几个棋位中随机选择
+     */
+    private static final int ROLLOUT_WIDTH = 3;
+
+    /**
+     * 节点状态：未展开、展开中、已展开
+     */
+    private static final int LEAF = 0;
+    private static final int EXPANDING = 1;
+    private static final int EXPANDED = 2;
+
+    /**
+     * 回报按半分计：胜 2，和 1，负 0
+     */
+    private static final int WIN_REWARD = 2;
+    private static final int DRAW_REWARD = 1;
+
+    private static final int ROOT = 0;
+
+    private final ExecutorService pool;
+
+    private final int capacity;
+
+    private int linkFiveAttackScore;
+
+    private int linkFiveDefenseScore;
+
+    private final List<Worker> workers;
+
+    /**
+     * [节点] 到达该节点的落子下标，根节点为 -1
+     */
+    private final int[] moves;
+
+    /**
+     * [节点] 第一个子节点，子节点在池中连续存放
+     */
+    private final int[] firstChildren;
+
+    private final int[] childNums;
+
+    private final float[] priors;
+
+    /**
+     * [节点] true：到达该节点的落子成连五
+     */
+    private final boolean[] terminals;
+
+    /**
+     * 节点的子节点在状态置为 {@link #EXPANDED} 之前写好，读到 EXPANDED 后可以安全读取
+     */
+    private final AtomicIntegerArray states;
+
+    /**
+     * 访问次数，含进行中的虚拟损失
+     */
+    private final AtomicIntegerArray visits;
+
+    /**
+     * 回报之和（半分），对到达该节点的落子方
+     */
+    private final AtomicIntegerArray rewards;
+
+    private final AtomicInteger nodeNum = new AtomicInteger();
+
+    /**
+     * 本次搜索已开始的模拟次数
+     */
+    private final AtomicLong playoutNum = new AtomicLong();
+
+    /**
+     * 压缩节点池用：旧节点-新节点，-1 为丢弃
+     */
+    private final int[] relocations;
+
+    /**
+     * 根节点的落子方，null：树为空
+     */
+    private ColorEnum rootSide;
+
+    private volatile boolean stopped;
+
+    private long playoutLimit;
+
+    private long deadlineNanos;
+
+    /**
+     * @param board     局面，不会被修改
+     * @param threadNum 线程数，含调用者线程
+     * @param capacity  节点池容量
+     * @param pool      运行辅助线程的线程池，threadNum 为 1 时可以为 null
+     */
+    public MonteCarloSearch(BitBoard board, int threadNum, int capacity, ExecutorService pool) {
+        if (threadNum <= 0) {
+            throw new IllegalArgumentException("Illegal thread num: " + threadNum);
+        }
+        if (capacity <= MAX_CHILD_NUM) {
+            throw new IllegalArgumentException("Illegal node capacity: " + capacity);
+        }
+        if (threadNum > 1) {
+            Objects.requireNonNull(pool);
+        }
+        this.pool = pool;
+        this.capacity = capacity;
+        this.workers = new ArrayList<>(threadNum);
+        for (int i = 0; i < threadNum; i++) {
+            workers.add(null);
+        }
+        createWorkers(board);
+        this.moves = new int[capacity];
+        this.firstChildren = new int[capacity];
+        this.childNums = new int[capacity];
+        this.priors = new float[capacity];
+        this.terminals = new boolean[capacity];
+        this.states = new AtomicIntegerArray(capacity);
+        this.visits = new AtomicIntegerArray(capacity);
+        this.rewards = new AtomicIntegerArray(capacity);
+        this.relocations = new int[capacity];
+        clear();
+    }
+
+    public MonteCarloSearch(BitBoard board, int threadNum, ExecutorService pool) {
+        this(board, threadNum, DEFAULT_NODE_CAPACITY, pool);
+    }
+
+    /**
+     * 单线程
+     */
+    public MonteCarloSearch(BitBoard board) {
+        this(board, 1, DEFAULT_NODE_CAPACITY, null);
+    }
+
+    /**
+     * 搜索，树中已有的统计（上一回合保留的子树）继续使用
+     *
+     * @param side             落子方
+     * @param timeBudgetMillis 时间预算（毫秒），小于等于 0 表示不限
+     * @param playoutBudget    模拟次数预算，小于等于 0 表示不限
+     * @return 访问次数最多的棋位，score 为其胜率折算的 [-1000, 1000]，depth 为树的最大深度，nodeNum 为模拟次数
+     */
+    public SearchResult search(ColorEnum side, long timeBudgetMillis, long playoutBudget) {
+        if (timeBudgetMillis <= 0 && playoutBudget <= 0) {
+            throw new IllegalArgumentException("Time budget or playout budget is required.");
+        }
+        long startNanos = System.nanoTime();
+        if (rootSide != side) {
+            clear();
+            rootSide = side;
+        }
+        stopped = false;
+        playoutNum.set(0);
+        playoutLimit = playoutBudget > 0 ? playoutBudget : Long.MAX_VALUE;
+        deadlineNanos = timeBudgetMillis > 0 ? startNanos + timeBudgetMillis * 1_000_000 : Long.MAX_VALUE;
+
+        List<Future<?>> futures = new ArrayList<>(workers.size() - 1);
+        for (int i = 1; i < workers.size(); i++) {
+            futures.add(pool.submit(workers.get(i)));
+        }
+        try {
+            workers.get(0).run();
+        } finally {
+            stopped = true;
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for helper search.", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Helper search failed.", e.getCause());
+            }
+        }
+        return result(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * 通知正在进行的搜索尽快结束
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * 棋盘上落了一子：所有线程的评估器同步落子，树保留该落子对应的子树
+     *
+     * @param position 空棋位
+     * @param color    棋色
+     */
+    public void play(Position position, ColorEnum color) {
+        BitBoard board = workers.get(0).evaluator.getBoard();
+        int index = board.indexOf(position);
+        if (!board.isLegal(position.getX(), position.getY()) || !board.isEmpty(index)) {
+            throw new IllegalArgumentException("Illegal move: " + position);
+        }
+        for (Worker worker : workers) {
+            worker.evaluator.applyMove(index, color);
+        }
+
+        int child = -1;
+        if (rootSide == color && states.get(ROOT) == EXPANDED) {
+            int first = firstChildren[ROOT];
+            for (int c = first; c < first + childNums[ROOT]; c++) {
+                if (moves[c] == index) {
+                    child = c;
+                    break;
+                }
+            }
+        }
+        if (child < 0 || terminals[child]) {
+            clear();
+        } else {
+            reroot(child);
+        }
+        rootSide = AlphaBetaSearch.opposite(color);
+    }
+
+    /**
+     * 换成新局面，清空树，节点池保留，用于下一局
+     *
+     * @param board 局面，尺寸需与构造时一致，不会被修改
+     */
+    public void reset(BitBoard board) {
+        BitBoard current = getBoard();
+        if (board.getWidth() != current.getWidth() || board.getHeight() != current.getHeight()) {
+            throw new IllegalArgumentException("Board size changed: " + board.getWidth() + "x" + board.getHeight());
+        }
+        createWorkers(board);
+        clear();
+    }
+
+    /**
+     * 节点池中使用的节点数
+     */
+    public int getNodeNum() {
+        return nodeNum.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getThreadNum() {
+        return workers.size();
+    }
+
+    /**
+     * 搜索使用的局面（调用者线程），只读
+     */
+    public BitBoard getBoard() {
+        return workers.get(0).evaluator.getBoard();
+    }
+
+    /**
+     * 每个线程一份评估器，棋型得分取创建时 {@link AiAlgorithms#setPatternWeights} 设置的值
+     */
+    private void createWorkers(BitBoard board) {
+        for (int i = 0; i < workers.size(); i++) {
+            workers.set(i, new Worker(new IncrementalEvaluator(new BitBoard(board)), i));
+        }
+        PatternWeights patternWeights = workers.get(0).evaluator.getPatternWeights();
+        this.linkFiveAttackScore = patternWeights.attackScoreOf(PatternEnum.LINK_5);
+        this.linkFiveDefenseScore = patternWeights.defenseScoreOf(PatternEnum.LINK_5);
+    }
+
+    /*
+     * 以下按节点下标读取树，根节点为 0，供测试检查树的结构
+     */
+
+    int moveOf(int node) {
+        return moves[node];
+    }
+
+    int firstChildOf(int node) {
+        return firstChildren[node];
+    }
+
+    /**
+     * 0：未展开或没有子节点
+     */
+    int childNumOf(int node) {
+        return states.get(node) == EXPANDED ? childNums[node] : 0;
+    }
+
+    int visitsOf(int node) {
+        return visits.get(node);
+    }
+
+    int rewardsOf(int node) {
+        return rewards.get(node);
+    }
+
+    private void clear() {
+        nodeNum.set(1);
+        resetNode(ROOT, -1);
+        rootSide = null;
+    }
+
+    private void resetNode(int node, int move) {
+        moves[node] = move;
+        firstChildren[node] = 0;
+        childNums[node] = 0;
+        priors[node] = 0;
+        terminals[node] = false;
+        states.set(node, LEAF);
+        visits.set(node, 0);
+        rewards.set(node, 0);
+    }
+
+    /**
+     * 以 newRoot 为根保留子树：子节点下标总是大于父节点，按下标顺序一遍标记、一遍前移，
+     * 新下标不大于旧下标，同一父节点的子节点仍然连续
+     */
+    private void reroot(int newRoot) {
+        int oldNodeNum = nodeNum.get();
+        for (int node = newRoot; node < oldNodeNum; node++) {
+            relocations[node] = -1;
+        }
+        relocations[newRoot] = 0;
+        for (int node = newRoot; node < oldNodeNum; node++) {
+            if (relocations[node] >= 0 && states.get(node) == EXPANDED) {
+                int first = firstChildren[node];
+                for (int c = first; c < first + childNums[node]; c++) {
+                    relocations[c] = 0;
+                }
+            }
+        }
+        int newNodeNum = 0;
+        for (int node = newRoot; node < oldNodeNum; node++) {
+            if (relocations[node] >= 0) {
+                relocations[node] = newNodeNum++;
+            }
+        }
+        for (int node = newRoot; node < oldNodeNum; node++) {
+            int target = relocations[node];
+            if (target < 0) {
+                continue;
+            }
+            moves[target] = moves[node];
+            childNums[target] = childNums[node];
+            firstChildren[target] = childNums[node] > 0 ? relocations[firstChildren[node]] : 0;
+            priors[target] = priors[node];
+            terminals[target] = terminals[node];
+            states.set(target, states.get(node));
+            visits.set(target, visits.get(node));
+            rewards.set(target, rewards.get(node));
+        }
+        moves[ROOT] = -1;
+        nodeNum.set(newNodeNum);
+    }
+
+    /**
+     * 从池中分配连续的 num 个节点
+     *
+     * @return 第一个节点，-1：节点池已满
+     */
+    private int allocate(int num) {
+        while (true) {
+            int first = nodeNum.get();
+            if (first + num > capacity) {
+                return -1;
+            }
+            if (nodeNum.compareAndSet(first, first + num)) {
+                return first;
+            }
+        }
+    }
+
+    private SearchResult result(long elapsedNanos) {
+        BitBoard board = getBoard();
+        List<Position> principalVariation = new ArrayList<>();
+        int node = ROOT;
+        while (states.get(node) == EXPANDED && childNums[node] > 0) {
+            int best = mostVisitedChild(node);
+            if (visits.get(best) == 0) {
+                break;
+            }
+            principalVariation.add(board.positionOf(moves[best]));
+            node = best;
+        }
+        int maxDepth = 0;
+        long completedNum = 0;
+        for (Worker worker : workers) {
+            maxDepth = Math.max(maxDepth, worker.maxDepth);
+            completedNum += worker.completedNum;
+        }
+        long elapsedMillis = elapsedNanos / 1_000_000;
+        if (principalVariation.isEmpty()) {
+            // 没有完成一次模拟或棋盘已满，退回到得分最高的棋位
+            Position position = workers.get(0).evaluator.bestPosition(rootSide);
+            return new SearchResult(position, 0, 0, completedNum, elapsedMillis,
+                    Objects.isNull(position) ? Collections.emptyList() : Collections.singletonList(position));
+        }
+        int best = mostVisitedChild(ROOT);
+        int score = (int) Math.round(1000.0 * (rewards.get(best) - visits.get(best)) / visits.get(best));
+        return new SearchResult(principalVariation.get(0), score, maxDepth, completedNum, elapsedMillis,
+                principalVariation);
+    }
+
+    private int mostVisitedChild(int node) {
+        int first = firstChildren[node];
+        int best = first;
+        for (int c = first + 1; c < first + childNums[node]; c++) {
+            if (visits.get(c) > visits.get(best)) {
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 搜索线程，各自持有一份评估器
+     */
+    private class Worker implements Runnable {
+
+        private final IncrementalEvaluator evaluator;
+
+        private final SplittableRandom random;
+
+        /**
+         * 本次模拟经过的节点
+         */
+        private final int[] path;
+
+        private final int[] rolloutIndexes = new int[ROLLOUT_WIDTH];
+
+        private final int[] rolloutScores = new int[ROLLOUT_WIDTH];
+
+        private final TopKSelector selector = new TopKSelector(MAX_CHILD_NUM);
+
+        private final int[] childIndexes = new int[MAX_CHILD_NUM];
+
+        private final int[] childScores = new int[MAX_CHILD_NUM];
+
+        private int maxDepth;
+
+        /**
+         * 本次搜索完成的模拟次数
+         */
+        private long completedNum;
+
+        private Worker(IncrementalEvaluator evaluator, int id) {
+            this.evaluator = evaluator;
+            this.random = new SplittableRandom(0x9E3779B97F4A7C15L * (id + 1));
+            this.path = new int[evaluator.getBoard().getIndexNum() + 1];
+        }
+
+        @Override
+        public void run() {
+            maxDepth = 0;
+            completedNum = 0;
+            while (!stopped) {
+                long playout = playoutNum.getAndIncrement();
+                if (playout >= playoutLimit || ((playout & 15) == 0 && System.nanoTime() >= deadlineNanos)) {
+                    stopped = true;
+                    break;
+                }
+                playout();
+                completedNum++;
+                // 只剩一个选择时不必继续
+                if (states.get(ROOT) == EXPANDED && childNums[ROOT] <= 1) {
+                    stopped = true;
+                }
+            }
+        }
+
+        /**
+         * 一次选择-展开-模拟-回传
+         */
+        private void playout() {
+            int moveNum = evaluator.getMoveNum();
+            ColorEnum side = rootSide;
+            int node = ROOT;
+            int depth = 0;
+            path[depth] = node;
+            visits.addAndGet(node, VIRTUAL_LOSS);
+            ColorEnum winner;
+            while (true) {
+                if (terminals[node]) {
+                    winner = AlphaBetaSearch.opposite(side);
+                    break;
+                }
+                int state = states.get(node);
+                if (state == LEAF && (node == ROOT || visits.get(node) - VIRTUAL_LOSS >= EXPAND_VISITS)
+                        && states.compareAndSet(node, LEAF, EXPANDING)) {
+                    state = expand(node, side) ? EXPANDED : LEAF;
+                    states.set(node, state);
+                }
+                if (state != EXPANDED) {
+                    winner = rollout(side);
+                    break;
+                }
+                if (childNums[node] == 0) {
+                    // 棋盘已满
+                    winner = ColorEnum.EMPTY;
+                    break;
+                }
+                node = select(node);
+                evaluator.applyMove(moves[node], side);
+                side = AlphaBetaSearch.opposite(side);
+                path[++depth] = node;
+                visits.addAndGet(node, VIRTUAL_LOSS);
+            }
+            maxDepth = Math.max(maxDepth, depth);
+
+            for (int d = 0; d <= depth; d++) {
+                // 奇数层节点由根节点落子方走到
+                ColorEnum mover = d % 2 == 1 ? rootSide : AlphaBetaSearch.opposite(rootSide);
+                int reward = winner == mover ? WIN_REWARD : winner == ColorEnum.EMPTY ? DRAW_REWARD : 0;
+                rewards.addAndGet(path[d], reward);
+                visits.addAndGet(path[d], 1 - VIRTUAL_LOSS);
+            }
+            while (evaluator.getMoveNum() > moveNum) {
+                evaluator.undoMove();
+            }
+        }
+
+        /**
+         * UCT 选择，只在先验最高的前若干个子节点中选，个数随访问次数增长
+         */
+        private int select(int node) {
+            int parentVisits = Math.max(1, visits.get(node));
+            int first = firstChildren[node];
+            int width = Math.min(childNums[node], 1 + (int) Math.sqrt(parentVisits));
+            double logVisits = Math.log(parentVisits);
+            int best = first;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int c = first; c < first + width; c++) {
+                int childVisits = visits.get(c);
+                double value;
+                if (childVisits == 0) {
+                    // 未访问的按先验顺序优先
+                    value = UNVISITED_VALUE + priors[c];
+                } else {
+                    value = rewards.get(c) / (2.0 * childVisits)
+                            + EXPLORATION * Math.sqrt(logVisits / childVisits)
+                            + PRIOR_WEIGHT * priors[c] / (childVisits + 1);
+                }
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = c;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * 展开：有连五只留连五，对方有连五只留堵点，否则取得分最高的若干棋位，先验按得分的对数归一
+         *
+         * @return false：节点池已满
+         */
+        private boolean expand(int node, ColorEnum side) {
+            ColorEnum opponent = AlphaBetaSearch.opposite(side);
+            CandidateGenerator candidates = evaluator.getCandidates();
+            int winIndex = -1;
+            for (int c = 0; c < candidates.size(); c++) {
+                int index = candidates.get(c);
+                if (evaluator.attackScoreOf(index, side) >= linkFiveAttackScore) {
+                    winIndex = index;
+                    break;
+                }
+                selector.offer(index, evaluator.scoreOf(index, side));
+            }
+            int num;
+            if (winIndex >= 0) {
+                selector.drainDescending(childIndexes, childScores);
+                childIndexes[0] = winIndex;
+                childScores[0] = linkFiveAttackScore;
+                num = 1;
+            } else {
+                num = selector.drainDescending(childIndexes, childScores);
+                int blockNum = 0;
+                for (int i = 0; i < num; i++) {
+                    if (evaluator.defenseScoreOf(childIndexes[i], opponent) >= linkFiveDefenseScore) {
+                        childIndexes[blockNum] = childIndexes[i];
+                        childScores[blockNum++] = childScores[i];
+                    }
+                }
+                num = blockNum > 0 ? blockNum : num;
+            }
+
+            int first = num == 0 ? 0 : allocate(num);
+            if (first < 0) {
+                return false;
+            }
+            double maxLog = num == 0 ? 1 : Math.log1p(Math.max(1, childScores[0]));
+            for (int i = 0; i < num; i++) {
+                int child = first + i;
+                resetNode(child, childIndexes[i]);
+                priors[child] = (float) (Math.log1p(Math.max(0, childScores[i])) / maxLog);
+                terminals[child] = winIndex >= 0;
+            }
+            firstChildren[node] = first;
+            childNums[node] = num;
+            return true;
+        }
+
+        /**
+         * 模拟到终局或步数上限，落子都留在评估器中，由调用者撤销
+         *
+         * @return 胜方，{@link ColorEnum#EMPTY}：和棋
+         */
+        private ColorEnum rollout(ColorEnum side) {
+            CandidateGenerator candidates = evaluator.getCandidates();
+            for (int ply = 0; ply < ROLLOUT_LIMIT; ply++) {
+                int num = 0;
+                int move = -1;
+                for (int c = 0; c < candidates.size(); c++) {
+                    int index = candidates.get(c);
+                    if (evaluator.attackScoreOf(index, side) >= linkFiveAttackScore) {
+                        move = index;
+                        break;
+                    }
+                    int score = evaluator.scoreOf(index, side);
+                    if (num == ROLLOUT_WIDTH && score <= rolloutScores[num - 1]) {
+                        continue;
+                    }
+                    int i = num == ROLLOUT_WIDTH ? num - 1 : num++;
+                    for (; i > 0 && rolloutScores[i - 1] < score; i--) {
+                        rolloutIndexes[i] = rolloutIndexes[i - 1];
+                        rolloutScores[i] = rolloutScores[i - 1];
+                    }
+                    rolloutIndexes[i] = index;
+                    rolloutScores[i] = score;
+                }
+                if (move < 0) {
+                    if (num == 0) {
+                        return ColorEnum.EMPTY;
+                    }
+                    // 只在不低于最高分一半的棋位中随机，必堵、必走的棋位不会被随机掉
+                    int choiceNum = 1;
+                    while (choiceNum < num && rolloutScores[choiceNum] >= rolloutScores[0] / 2) {
+                        choiceNum++;
+                    }
+                    move = rolloutIndexes[random.nextInt(choiceNum)];
+                }
+                evaluator.applyMove(move, side);
+                if (evaluator.getWinDetector().isWin(move, side)) {
+                    return side;
+                }
+                side = AlphaBetaSearch.opposite(side);
+            }
+            return ColorEnum.EMPTY;
+        }
+    }
+}
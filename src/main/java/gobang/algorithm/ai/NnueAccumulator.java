@@ -0,0 +1,89 @@
+package gobang.algorithm.ai;
+
+import gobang.bean.BitBoard;
+import gobang.bean.ColorEnum;
+
+/**
+ * {@link NnueNetwork} 的累加器：黑白两个视角各一份第一层输出，
+ * 落子/提子时各加减一列输入权重，整数运算可精确撤销，不需要保存历史
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+final class NnueAccumulator {
+
+    private final NnueNetwork network;
+
+    /**
+     * [下标] 棋位编号 x * 高 + y，越界棋位为 -1
+     */
+    private final int[] cells;
+
+    /**
+     * [视角棋色] 累加器
+     */
+    private final short[][] accumulators;
+
+    /**
+     * 隐藏层累加临时数组
+     */
+    private final int[] sums;
+
+    /**
+     * @param network 网络，棋盘尺寸需与 board 一致
+     * @param board   当前局面
+     */
+    NnueAccumulator(NnueNetwork network, BitBoard board) {
+        if (network.getWidth() != board.getWidth() || network.getHeight() != board.getHeight()) {
+            throw new IllegalArgumentException("Network is for " + network.getWidth() + "x" + network.getHeight()
+                    + " board: " + board.getWidth() + "x" + board.getHeight());
+        }
+        this.network = network;
+        this.cells = new int[board.getIndexNum()];
+        this.accumulators = new short[2][network.getAccumulatorSize()];
+        this.sums = new int[network.getHiddenSize()];
+        network.reset(accumulators[0]);
+        network.reset(accumulators[1]);
+        for (int index = 0; index < cells.length; index++) {
+            if (!board.isLegal(index)) {
+                cells[index] = -1;
+                continue;
+            }
+            cells[index] = board.xOf(index) * board.getHeight() + board.yOf(index);
+            if (!board.isEmpty(index)) {
+                place(index, board.colorAt(index));
+            }
+        }
+    }
+
+    void place(int index, ColorEnum color) {
+        int cell = cells[index];
+        int own = colorIndex(color);
+        network.addFeature(accumulators[own], cell);
+        network.addFeature(accumulators[1 - own], network.getCellNum() + cell);
+    }
+
+    void remove(int index, ColorEnum color) {
+        int cell = cells[index];
+        int own = colorIndex(color);
+        network.removeFeature(accumulators[own], cell);
+        network.removeFeature(accumulators[1 - own], network.getCellNum() + cell);
+    }
+
+    /**
+     * @param side 落子方
+     * @return 对落子方的分数
+     */
+    int evaluate(ColorEnum side) {
+        int own = colorIndex(side);
+        return network.forward(accumulators[own], accumulators[1 - own], sums);
+    }
+
+    NnueNetwork getNetwork() {
+        return network;
+    }
+
+    private static int colorIndex(ColorEnum color) {
+        return color.ordinal() - 1;
+    }
+}
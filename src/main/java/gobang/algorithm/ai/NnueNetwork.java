@@ -0,0 +1,238 @@
+package gobang.algorithm.ai;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 量化神经网络评估（NNUE 结构）
+ * 输入为每个棋位的「本方棋子」「对方棋子」两组特征，第一层输出即累加器，由 {@link NnueAccumulator} 随落子/提子增量加减对应列；
+ * 评估时只计算上面两层：黑白两个视角的累加器按落子方在前拼接，截断到 [0, 127] 后经隐藏层（int16 权重、int32 累加、右移 6 位并截断）
+ * 到输出层，输出为对落子方的分数。隐藏层权重按输入行存放，截断后为 0 的输入整行跳过，其余逐行累加到各隐藏单元。
+ * 权重不可变，可在多个线程中共享。
+ * <p>
+ * 文件为大端序：
+ * <pre>
+ * int   魔数 0x474F4E4E，short 版本，byte 宽，byte 高，short 累加器长度 H1，short 隐藏层长度 H2
+ * short 输入权重 [特征][H1]，特征：本方棋子为棋位编号，对方棋子为棋位数 + 棋位编号，棋位编号 = x * 高 + y
+ * short 累加器偏置 [H1]
+ * short 隐藏层权重 [2 * H1][H2]，前 H1 行对应落子方视角
+ * int   隐藏层偏置 [H2]
+ * short 输出权重 [H2]
+ * int   输出偏置
+ * </pre>
+ * 累加器是 int16，训练时需保证任意局面的累加结果不溢出
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public final class NnueNetwork {
+
+    public static final int MAGIC = 0x474F4E4E;
+
+    public static final short VERSION = 1;
+
+    /**
+     * 激活值上限，累加器和隐藏层输出都截断到 [0, ACTIVATION_MAX]
+     */
+    public static final int ACTIVATION_MAX = 127;
+
+    /**
+     * 隐藏层累加结果右移的位数
+     */
+    public static final int HIDDEN_SHIFT = 6;
+
+    /**
+     * 累加器、隐藏层的最大长度
+     */
+    private static final int MAX_LAYER_SIZE = 1 << 12;
+
+    private static final int HEADER_LENGTH = 12;
+
+    private final int width;
+
+    private final int height;
+
+    private final int cellNum;
+
+    private final int accumulatorSize;
+
+    private final int hiddenSize;
+
+    private final short[] inputWeights;
+
+    private final short[] inputBiases;
+
+    private final short[] hiddenWeights;
+
+    private final int[] hiddenBiases;
+
+    private final short[] outputWeights;
+
+    private final int outputBias;
+
+    private NnueNetwork(int width, int height, int accumulatorSize, int hiddenSize, ByteBuffer buffer) {
+        this.width = width;
+        this.height = height;
+        this.cellNum = width * height;
+        this.accumulatorSize = accumulatorSize;
+        this.hiddenSize = hiddenSize;
+        this.inputWeights = new short[cellNum * 2 * accumulatorSize];
+        this.inputBiases = new short[accumulatorSize];
+        this.hiddenWeights = new short[hiddenSize * 2 * accumulatorSize];
+        this.hiddenBiases = new int[hiddenSize];
+        this.outputWeights = new short[hiddenSize];
+        buffer.asShortBuffer().get(inputWeights);
+        buffer.position(buffer.position() + inputWeights.length * Short.BYTES);
+        buffer.asShortBuffer().get(inputBiases);
+        buffer.position(buffer.position() + inputBiases.length * Short.BYTES);
+        buffer.asShortBuffer().get(hiddenWeights);
+        buffer.position(buffer.position() + hiddenWeights.length * Short.BYTES);
+        buffer.asIntBuffer().get(hiddenBiases);
+        buffer.position(buffer.position() + hiddenBiases.length * Integer.BYTES);
+        buffer.asShortBuffer().get(outputWeights);
+        buffer.position(buffer.position() + outputWeights.length * Short.BYTES);
+        this.outputBias = buffer.getInt();
+    }
+
+    /**
+     * 从文件加载
+     *
+     * @param path 文件路径
+     * @return nonNull
+     * @throws IOException 读取失败或格式错误
+     */
+    public static NnueNetwork load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = read(channel, HEADER_LENGTH);
+            int magic = header.getInt();
+            short version = header.getShort();
+            if (magic != MAGIC || version != VERSION) {
+                throw new IOException("Not a network file of version " + VERSION + ": " + path);
+            }
+            int width = header.get() & 0xFF;
+            int height = header.get() & 0xFF;
+            int accumulatorSize = header.getShort();
+            int hiddenSize = header.getShort();
+            if (width == 0 || height == 0 || accumulatorSize <= 0 || accumulatorSize > MAX_LAYER_SIZE
+                    || hiddenSize <= 0 || hiddenSize > MAX_LAYER_SIZE) {
+                throw new IOException("Illegal network shape: " + width + "x" + height + ", "
+                        + accumulatorSize + ", " + hiddenSize);
+            }
+            long length = (long) width * height * 2 * accumulatorSize * Short.BYTES
+                    + (long) accumulatorSize * Short.BYTES
+                    + (long) hiddenSize * 2 * accumulatorSize * Short.BYTES
+                    + (long) hiddenSize * Integer.BYTES
+                    + (long) hiddenSize * Short.BYTES
+                    + Integer.BYTES;
+            if (channel.size() != HEADER_LENGTH + length) {
+                throw new IOException("Network file length mismatch: " + channel.size() + " != "
+                        + (HEADER_LENGTH + length));
+            }
+            return new NnueNetwork(width, height, accumulatorSize, hiddenSize, read(channel, (int) length));
+        }
+    }
+
+    private static ByteBuffer read(FileChannel channel, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Truncated network file.");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * 累加器置为偏置
+     */
+    void reset(short[] accumulator) {
+        System.arraycopy(inputBiases, 0, accumulator, 0, accumulatorSize);
+    }
+
+    /**
+     * 累加器加上某个特征的输入权重
+     */
+    void addFeature(short[] accumulator, int feature) {
+        int offset = feature * accumulatorSize;
+        for (int i = 0; i < accumulatorSize; i++) {
+            accumulator[i] += inputWeights[offset + i];
+        }
+    }
+
+    /**
+     * 累加器减去某个特征的输入权重
+     */
+    void removeFeature(short[] accumulator, int feature) {
+        int offset = feature * accumulatorSize;
+        for (int i = 0; i < accumulatorSize; i++) {
+            accumulator[i] -= inputWeights[offset + i];
+        }
+    }
+
+    /**
+     * 计算累加器之上的各层
+     *
+     * @param own      落子方视角的累加器
+     * @param opponent 对方视角的累加器
+     * @param sums     临时数组，长度不小于 H2
+     * @return 对落子方的分数
+     */
+    int forward(short[] own, short[] opponent, int[] sums) {
+        System.arraycopy(hiddenBiases, 0, sums, 0, hiddenSize);
+        accumulate(own, 0, sums);
+        accumulate(opponent, accumulatorSize, sums);
+        int output = outputBias;
+        for (int h = 0; h < hiddenSize; h++) {
+            output += clamp(sums[h] >> HIDDEN_SHIFT) * outputWeights[h];
+        }
+        return output;
+    }
+
+    /**
+     * 把一个视角的激活值乘以隐藏层权重累加到 sums，激活值为 0 的行跳过
+     */
+    private void accumulate(short[] accumulator, int firstRow, int[] sums) {
+        for (int i = 0; i < accumulatorSize; i++) {
+            int activation = clamp(accumulator[i]);
+            if (activation == 0) {
+                continue;
+            }
+            int offset = (firstRow + i) * hiddenSize;
+            for (int h = 0; h < hiddenSize; h++) {
+                sums[h] += activation * hiddenWeights[offset + h];
+            }
+        }
+    }
+
+    private static int clamp(int value) {
+        return Math.max(0, Math.min(ACTIVATION_MAX, value));
+    }
+
+    /**
+     * 棋位编号 x * 高 + y 的个数，对方棋子特征从这里开始编号
+     */
+    public int getCellNum() {
+        return cellNum;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getAccumulatorSize() {
+        return accumulatorSize;
+    }
+
+    public int getHiddenSize() {
+        return hiddenSize;
+    }
+}
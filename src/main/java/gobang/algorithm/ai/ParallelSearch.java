@@ -0,0 +1,111 @@
+package gobang.algorithm.ai;
+
+import gobang.bean.BitBoard;
+import gobang.bean.ColorEnum;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * 并行搜索（Lazy SMP）
+ * 所有线程各自持有一份评估器，对同一局面做迭代加深搜索，只通过共用的置换表交换结果；
+ * 辅助线程错开起始深度，主线程（调用者线程）的结果即为最终结果，主线程结束后通知辅助线程停止。
+ * 单线程时不使用线程池，结果与 {@link AlphaBetaSearch#iterativeSearch} 完全一致
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class ParallelSearch {
+
+    private final ExecutorService pool;
+
+    private final int threadNum;
+
+    private final AlphaBetaSearch mainSearch;
+
+    private final List<AlphaBetaSearch> helperSearches;
+
+    private final TranspositionTable transpositionTable;
+
+    /**
+     * @param board              局面
+     * @param threadNum          线程数，含调用者线程
+     * @param maxWidth           每层候选棋位数
+     * @param transpositionTable 共用置换表
+     * @param pool               运行辅助线程的线程池，threadNum 为 1 时可以为 null
+     */
+    public ParallelSearch(BitBoard board, int threadNum, int maxWidth,
+                          TranspositionTable transpositionTable, ExecutorService pool) {
+        if (threadNum <= 0) {
+            throw new IllegalArgumentException("Illegal thread num: " + threadNum);
+        }
+        if (threadNum > 1) {
+            Objects.requireNonNull(pool);
+        }
+        this.pool = pool;
+        this.threadNum = threadNum;
+        this.transpositionTable = Objects.requireNonNull(transpositionTable);
+        this.mainSearch = new AlphaBetaSearch(new IncrementalEvaluator(board), maxWidth, transpositionTable);
+        this.helperSearches = new ArrayList<>(threadNum - 1);
+        for (int i = 1; i < threadNum; i++) {
+            helperSearches.add(new AlphaBetaSearch(new IncrementalEvaluator(board), maxWidth, transpositionTable));
+        }
+    }
+
+    /**
+     * 并行迭代加深搜索
+     *
+     * @param side             落子方
+     * @param maxDepth         最大深度
+     * @param timeBudgetMillis 时间预算（毫秒），小于等于 0 表示不限
+     * @param nodeBudget       主线程节点预算，小于等于 0 表示不限
+     * @return 主线程结果，nodeNum 为所有线程节点数之和
+     */
+    public SearchResult search(ColorEnum side, int maxDepth, long timeBudgetMillis, long nodeBudget) {
+        if (threadNum == 1) {
+            return mainSearch.iterativeSearch(side, maxDepth, timeBudgetMillis, nodeBudget);
+        }
+
+        List<Future<SearchResult>> futures = new ArrayList<>(helperSearches.size());
+        for (int i = 0; i < helperSearches.size(); i++) {
+            AlphaBetaSearch helper = helperSearches.get(i);
+            helper.resetStop();
+            // 一半辅助线程从深度 2 开始，与主线程错开
+            int startDepth = 1 + (i + 1) % 2;
+            futures.add(pool.submit(() -> helper.iterativeSearch(side, startDepth, maxDepth, timeBudgetMillis, 0)));
+        }
+
+        SearchResult result;
+        try {
+            result = mainSearch.iterativeSearch(side, maxDepth, timeBudgetMillis, nodeBudget);
+        } finally {
+            helperSearches.forEach(AlphaBetaSearch::stop);
+        }
+
+        long nodeNum = result.getNodeNum();
+        for (Future<SearchResult> future : futures) {
+            try {
+                nodeNum += future.get().getNodeNum();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for helper search.", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Helper search failed.", e.getCause());
+            }
+        }
+        return new SearchResult(result.getPosition(), result.getScore(), result.getDepth(), nodeNum,
+                result.getElapsedMillis(), result.getPrincipalVariation());
+    }
+
+    public int getThreadNum() {
+        return threadNum;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+}
@@ -0,0 +1,178 @@
+package gobang.algorithm.ai;
+
+import gobang.bean.BitBoard;
+import gobang.bean.ColorEnum;
+
+import static gobang.algorithm.ai.PieceType.*;
+
+/**
+ * 棋型查找表
+ * 以原点为中心、两边各取 4 个棋位组成 9 格窗口，窗口按三进制编码后直接索引到棋型，
+ * 表在类加载时用 {@link PatternEnum#check(int[])} 对每一种窗口计算一次，之后检测棋型只需一次数组访问
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+final class PatternTable {
+
+    /**
+     * 单边最多检测的棋位数
+     */
+    static final int MAX_OFFSET_NUM = 4;
+
+    /**
+     * 窗口长度
+     */
+    static final int WINDOW_LENGTH = MAX_OFFSET_NUM * 2 + 1;
+
+    /**
+     * 窗口中原点的下标
+     */
+    static final int ORIGIN_INDEX = MAX_OFFSET_NUM;
+
+    /**
+     * 窗口每一格的权重：3^i
+     */
+    static final int[] WEIGHTS = new int[WINDOW_LENGTH];
+
+    /**
+     * 窗口编码总数：3^9
+     */
+    static final int SIZE;
+
+    /**
+     * 下标-窗口编码，值-棋型
+     */
+    private static final PatternEnum[] TABLE;
+
+    static {
+        int weight = 1;
+        for (int i = 0; i < WINDOW_LENGTH; i++) {
+            WEIGHTS[i] = weight;
+            weight *= 3;
+        }
+        SIZE = weight;
+        TABLE = new PatternEnum[SIZE];
+        int[] window = new int[WINDOW_LENGTH];
+        for (int code = 0; code < SIZE; code++) {
+            decode(code, window);
+            TABLE[code] = PatternEnum.check(toSubject(window));
+        }
+    }
+
+    /**
+     * 检测窗口的棋型
+     *
+     * @param window 长度为 9 的窗口，原点在中间，超出边界的棋位为 S
+     * @return nonNull
+     */
+    static PatternEnum lookup(int[] window) {
+        return TABLE[encode(window)];
+    }
+
+    /**
+     * 检测编码后窗口的棋型
+     *
+     * @param code 窗口编码
+     * @return nonNull
+     */
+    static PatternEnum lookup(int code) {
+        return TABLE[code];
+    }
+
+    /**
+     * 窗口编码，每格取值 S/E/O 对应三进制 0/1/2
+     */
+    static int encode(int[] window) {
+        int code = 0;
+        for (int i = 0; i < WINDOW_LENGTH; i++) {
+            code += (window[i] + 1) * WEIGHTS[i];
+        }
+        return code;
+    }
+
+    /**
+     * 从棋盘上原点所在直线直接读取窗口编码，假设原点下了本方棋子
+     * 从原点往两边逐格走，遇到对方棋子或棋盘边界（S）即停止，之后的棋位编码为 S
+     *
+     * @param board    位棋盘
+     * @param origin   原点下标
+     * @param delta    方向下标差，见 {@link BitBoard#deltaOf}
+     * @param ownColor 本方棋色
+     * @return 窗口编码
+     */
+    static int encode(BitBoard board, int origin, int delta, ColorEnum ownColor) {
+        int code = (O + 1) * WEIGHTS[ORIGIN_INDEX];
+        int index = origin;
+        for (int offsetNum = 1; offsetNum <= MAX_OFFSET_NUM; offsetNum++) {
+            index -= delta;
+            int type = typeOf(board, index, ownColor);
+            if (type == S) {
+                break;
+            }
+            code += (type + 1) * WEIGHTS[ORIGIN_INDEX - offsetNum];
+        }
+        index = origin;
+        for (int offsetNum = 1; offsetNum <= MAX_OFFSET_NUM; offsetNum++) {
+            index += delta;
+            int type = typeOf(board, index, ownColor);
+            if (type == S) {
+                break;
+            }
+            code += (type + 1) * WEIGHTS[ORIGIN_INDEX + offsetNum];
+        }
+        return code;
+    }
+
+    /**
+     * 棋位棋子类型
+     *
+     * @param index 下标，可以在棋盘外
+     */
+    private static int typeOf(BitBoard board, int index, ColorEnum ownColor) {
+        if (!board.isLegal(index)) {
+            return S;
+        }
+        ColorEnum color = board.colorAt(index);
+        if (color == ColorEnum.EMPTY) {
+            return E;
+        }
+        return color == ownColor ? O : S;
+    }
+
+    /**
+     * 窗口解码
+     */
+    static void decode(int code, int[] window) {
+        for (int i = 0; i < WINDOW_LENGTH; i++) {
+            window[i] = code % 3 - 1;
+            code /= 3;
+        }
+    }
+
+    /**
+     * 把窗口还原成逐格扫描得到的检测数组：从原点往两边走，遇到 S 即停止（S 本身保留）
+     */
+    static int[] toSubject(int[] window) {
+        int low = ORIGIN_INDEX;
+        while (low > 0) {
+            low--;
+            if (window[low] == S) {
+                break;
+            }
+        }
+        int high = ORIGIN_INDEX;
+        while (high < WINDOW_LENGTH - 1) {
+            high++;
+            if (window[high] == S) {
+                break;
+            }
+        }
+        int[] subject = new int[high - low + 1];
+        System.arraycopy(window, low, subject, 0, subject.length);
+        return subject;
+    }
+
+    private PatternTable() {
+    }
+}
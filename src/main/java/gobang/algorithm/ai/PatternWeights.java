@@ -0,0 +1,216 @@
+package gobang.algorithm.ai;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * 棋型得分表
+ * 每种棋型一个进攻分、一个防守分，默认值为 {@link PatternEnum} 中的常量，可以从文件加载，不可变，可在多个线程中共享。
+ * 文件每行一个棋型：棋型名 进攻分 防守分，# 开头为注释，没有列出的棋型用默认值，例如：
+ * <pre>
+ * LIVE_3 10000 6000
+ * </pre>
+ * 得分需满足：都不小于 0；{@link PatternEnum#LINK_5} 的进攻分、防守分都大于其他棋型的 4 倍，
+ * 这样四个方向得分之和达到连五得分就一定有连五，搜索和算杀据此判断
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public final class PatternWeights {
+
+    private static final PatternEnum[] PATTERNS = PatternEnum.values();
+
+    /**
+     * 棋型数
+     */
+    public static final int PATTERN_NUM = PATTERNS.length;
+
+    /**
+     * 连五在得分向量中的下标，见 {@link #toVector()}
+     */
+    public static final int LINK_5_INDEX = PatternEnum.LINK_5.ordinal();
+
+    /**
+     * 四个方向得分之和不超过 int
+     */
+    private static final int MAX_SCORE = Integer.MAX_VALUE / 8;
+
+    public static final PatternWeights DEFAULT;
+
+    static {
+        int[] vector = new int[PATTERN_NUM * 2];
+        for (PatternEnum pattern : PATTERNS) {
+            vector[pattern.ordinal()] = pattern.getAttackScore();
+            vector[PATTERN_NUM + pattern.ordinal()] = pattern.getDefenseScore();
+        }
+        DEFAULT = fromVector(vector);
+    }
+
+    /**
+     * [棋型] 进攻分
+     */
+    private final int[] attackScores;
+
+    /**
+     * [棋型] 防守分
+     */
+    private final int[] defenseScores;
+
+    private PatternWeights(int[] attackScores, int[] defenseScores) {
+        this.attackScores = attackScores;
+        this.defenseScores = defenseScores;
+    }
+
+    /**
+     * 由得分向量创建
+     *
+     * @param vector 长度为棋型数的 2 倍，前一半为各棋型进攻分，后一半为防守分，按 {@link #patternNameOf(int)} 的顺序
+     * @return nonNull
+     * @throws IllegalArgumentException 长度不对或得分不满足约束
+     */
+    public static PatternWeights fromVector(int[] vector) {
+        if (vector.length != PATTERN_NUM * 2) {
+            throw new IllegalArgumentException("Illegal vector length: " + vector.length);
+        }
+        int[] attackScores = Arrays.copyOfRange(vector, 0, PATTERN_NUM);
+        int[] defenseScores = Arrays.copyOfRange(vector, PATTERN_NUM, PATTERN_NUM * 2);
+        check(attackScores, "attack");
+        check(defenseScores, "defense");
+        return new PatternWeights(attackScores, defenseScores);
+    }
+
+    /**
+     * @return 新数组，前一半为各棋型进攻分，后一半为防守分
+     */
+    public int[] toVector() {
+        int[] vector = Arrays.copyOf(attackScores, PATTERN_NUM * 2);
+        System.arraycopy(defenseScores, 0, vector, PATTERN_NUM, PATTERN_NUM);
+        return vector;
+    }
+
+    /**
+     * 从文件加载
+     *
+     * @param path 文件路径
+     * @return nonNull
+     * @throws IOException 读取失败或格式错误
+     */
+    public static PatternWeights load(Path path) throws IOException {
+        int[] vector = DEFAULT.toVector();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNum = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNum++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split("\\s+");
+                if (parts.length != 3) {
+                    throw new IOException("Illegal pattern weight at line " + lineNum + ": " + line);
+                }
+                PatternEnum pattern;
+                try {
+                    pattern = PatternEnum.valueOf(parts[0]);
+                    vector[pattern.ordinal()] = Integer.parseInt(parts[1]);
+                    vector[PATTERN_NUM + pattern.ordinal()] = Integer.parseInt(parts[2]);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Illegal pattern weight at line " + lineNum + ": " + line, e);
+                }
+            }
+        }
+        try {
+            return fromVector(vector);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Illegal pattern weights in " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 写入文件，已存在时覆盖
+     *
+     * @param path 文件路径
+     */
+    public void store(Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write("# pattern attack defense");
+            writer.newLine();
+            for (PatternEnum pattern : PATTERNS) {
+                writer.write(pattern.name() + " " + attackScores[pattern.ordinal()] + " "
+                        + defenseScores[pattern.ordinal()]);
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * 棋型名，下标与得分向量一致
+     */
+    public static String patternNameOf(int patternIndex) {
+        return PATTERNS[patternIndex].name();
+    }
+
+    int attackScoreOf(PatternEnum pattern) {
+        return attackScores[pattern.ordinal()];
+    }
+
+    int defenseScoreOf(PatternEnum pattern) {
+        return defenseScores[pattern.ordinal()];
+    }
+
+    /**
+     * 得分不小于 0、不超过上限，连五大于其他棋型的 4 倍
+     */
+    private static void check(int[] scores, String kind) {
+        int maxOther = 0;
+        for (PatternEnum pattern : PATTERNS) {
+            int score = scores[pattern.ordinal()];
+            if (score < 0 || score > MAX_SCORE) {
+                throw new IllegalArgumentException("Illegal " + kind + " score of " + pattern + ": " + score);
+            }
+            if (pattern != PatternEnum.LINK_5) {
+                maxOther = Math.max(maxOther, score);
+            }
+        }
+        if (scores[LINK_5_INDEX] <= maxOther * 4L) {
+            throw new IllegalArgumentException("LINK_5 " + kind + " score must exceed 4 times the others: "
+                    + scores[LINK_5_INDEX] + " <= 4 * " + maxOther);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PatternWeights that = (PatternWeights) o;
+        return Arrays.equals(attackScores, that.attackScores) && Arrays.equals(defenseScores, that.defenseScores);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(attackScores) + Arrays.hashCode(defenseScores);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (PatternEnum pattern : PATTERNS) {
+            if (builder.length() > 0) {
+                builder.append(", ");
+            }
+            builder.append(pattern.name()).append('=').append(attackScores[pattern.ordinal()])
+                    .append('/').append(defenseScores[pattern.ordinal()]);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,51 @@
+package gobang.algorithm.ai;
+
+import gobang.bean.Position;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 排名棋位：分析、提示时返回的候选棋位之一
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class RankedMove {
+
+    private final Position position;
+
+    /**
+     * 逻辑AI为棋位评分，搜索为该棋位的搜索分数
+     */
+    private final int score;
+
+    /**
+     * 以该棋位开始的主要变例，逻辑AI评分时只有该棋位
+     */
+    private final List<Position> principalVariation;
+
+    public RankedMove(Position position, int score, List<Position> principalVariation) {
+        this.position = Objects.requireNonNull(position);
+        this.score = score;
+        this.principalVariation = Collections.unmodifiableList(principalVariation);
+    }
+
+    public Position getPosition() {
+        return position;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public List<Position> getPrincipalVariation() {
+        return principalVariation;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[%s, %s]：%s %s", position.getX(), position.getY(), score, principalVariation);
+    }
+}
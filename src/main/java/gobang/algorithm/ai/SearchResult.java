@@ -0,0 +1,97 @@
+package gobang.algorithm.ai;
+
+import gobang.bean.Position;
+
+import java.util.List;
+
+/**
+ * 搜索结果
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class SearchResult {
+
+    /**
+     * 最佳棋位，null：棋盘已满
+     */
+    private final Position position;
+
+    /**
+     * 对落子方的分数
+     */
+    private final int score;
+
+    /**
+     * 完成的搜索深度
+     */
+    private final int depth;
+
+    /**
+     * 搜索节点数
+     */
+    private final long nodeNum;
+
+    /**
+     * 耗时（毫秒）
+     */
+    private final long elapsedMillis;
+
+    /**
+     * 主要变例，第一步为 position
+     */
+    private final List<Position> principalVariation;
+
+    public SearchResult(Position position, int score, int depth, long nodeNum, long elapsedMillis,
+                        List<Position> principalVariation) {
+        this.position = position;
+        this.score = score;
+        this.depth = depth;
+        this.nodeNum = nodeNum;
+        this.elapsedMillis = elapsedMillis;
+        this.principalVariation = principalVariation;
+    }
+
+    public Position getPosition() {
+        return position;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodeNum() {
+        return nodeNum;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public List<Position> getPrincipalVariation() {
+        return principalVariation;
+    }
+
+    /**
+     * 每秒搜索节点数
+     */
+    public long getNodesPerSecond() {
+        return elapsedMillis == 0 ? nodeNum * 1000 : nodeNum * 1000 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchResult{" +
+                "position=" + position +
+                ", score=" + score +
+                ", depth=" + depth +
+                ", nodeNum=" + nodeNum +
+                ", elapsedMillis=" + elapsedMillis +
+                ", principalVariation=" + principalVariation +
+                '}';
+    }
+}
@@ -0,0 +1,68 @@
+package gobang.algorithm.ai;
+
+import gobang.bean.BitBoard;
+import gobang.bean.ColorEnum;
+
+import java.util.Objects;
+
+/**
+ * 逻辑AI的算杀：先找连续冲四必胜，再找连续活三冲四必胜
+ * 评估器和两个求解器只创建一次，从空棋盘开始，每次算杀前把局面的棋子逐个落下，结束后全部撤销回到空棋盘，
+ * 不在两次调用之间保留局面，结果只取决于本次的局面
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+class ThreatFinder {
+
+    private final IncrementalEvaluator evaluator;
+
+    private final ThreatSolver vcfSolver;
+
+    private final ThreatSolver vctSolver;
+
+    /**
+     * @param width          棋盘宽度
+     * @param height         棋盘高度
+     * @param patternWeights 棋型得分
+     */
+    ThreatFinder(int width, int height, PatternWeights patternWeights) {
+        this.evaluator = new IncrementalEvaluator(
+                new BitBoard(width, height), CandidateGenerator.DEFAULT_RADIUS, patternWeights);
+        this.vcfSolver = new ThreatSolver(evaluator, ThreatSolver.DEFAULT_VCF_DEPTH, ThreatSolver.DEFAULT_VCF_NODE_LIMIT);
+        this.vctSolver = new ThreatSolver(evaluator, ThreatSolver.DEFAULT_VCT_DEPTH, ThreatSolver.DEFAULT_VCT_NODE_LIMIT);
+    }
+
+    /**
+     * true：可以用于该尺寸的棋盘和该棋型得分
+     */
+    boolean fits(BitBoard board, PatternWeights patternWeights) {
+        BitBoard own = evaluator.getBoard();
+        return own.getWidth() == board.getWidth() && own.getHeight() == board.getHeight()
+                && evaluator.getPatternWeights() == patternWeights;
+    }
+
+    /**
+     * 算杀
+     *
+     * @param board    局面，尺寸需与构造时一致
+     * @param attacker 进攻方，即当前落子方
+     * @return 第一步棋位下标；-1：没找到
+     */
+    int find(BitBoard board, ColorEnum attacker) {
+        Objects.requireNonNull(board);
+        for (int index = 0; index < board.getIndexNum(); index++) {
+            if (board.isLegal(index) && !board.isEmpty(index)) {
+                evaluator.applyMove(index, board.colorAt(index));
+            }
+        }
+        try {
+            int index = vcfSolver.solveVcf(attacker);
+            return index < 0 ? vctSolver.solveVct(attacker) : index;
+        } finally {
+            while (evaluator.getMoveNum() > 0) {
+                evaluator.undoMove();
+            }
+        }
+    }
+}
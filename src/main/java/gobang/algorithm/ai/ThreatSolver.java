@@ -0,0 +1,305 @@
+package gobang.algorithm.ai;
+
+import gobang.bean.BitBoard;
+import gobang.bean.ColorEnum;
+import gobang.bean.DirectionEnum;
+
+import java.util.Objects;
+
+import static gobang.algorithm.ai.AlphaBetaSearch.opposite;
+
+/**
+ * 算杀：连续冲四（VCF）、连续活三冲四（VCT）
+ * 进攻方只走能成 {@link PatternEnum#RUSH_4}/{@link PatternEnum#LIVE_4}（VCT 还包括 {@link PatternEnum#LIVE_3}）的棋位，
+ * 防守方只走堵点和反冲四，所以搜索树很窄，能在很深的步数内找到必胜
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class ThreatSolver {
+
+    /**
+     * 默认 VCF 最大步数（双方合计）
+     */
+    public static final int DEFAULT_VCF_DEPTH = 21;
+
+    /**
+     * 默认 VCT 最大步数（双方合计）
+     */
+    public static final int DEFAULT_VCT_DEPTH = 11;
+
+    /**
+     * 默认 VCF 节点上限
+     */
+    public static final int DEFAULT_VCF_NODE_LIMIT = 5000;
+
+    /**
+     * 默认 VCT 节点上限，VCT 分支多，上限更低
+     */
+    public static final int DEFAULT_VCT_NODE_LIMIT = 2000;
+
+    private static final DirectionEnum[] DIRECTIONS = DirectionEnum.values();
+
+    private final IncrementalEvaluator evaluator;
+
+    private final BitBoard board;
+
+    private final PatternWeights patternWeights;
+
+    /**
+     * 成四、活三以及对应堵点离己方棋子都不超过 2 格，且进攻得分不低于眠三，都在候选棋位内
+     */
+    private final CandidateGenerator candidates;
+
+    private final int maxDepth;
+
+    private final int nodeLimit;
+
+    /**
+     * true：只走冲四（VCF）
+     */
+    private boolean fourOnly;
+
+    private int nodeNum;
+
+    /**
+     * 根节点找到必胜时的第一步棋位下标
+     */
+    private int firstMove;
+
+    /**
+     * [步数][序号] 候选棋位，每层最多棋盘棋位数
+     */
+    private final int[][] moves;
+
+    /**
+     * @param evaluator 评估器，求解过程中落子后都会撤销，结束时局面不变
+     * @param maxDepth  最大步数（双方合计）
+     * @param nodeLimit 节点上限，超出后视为无解
+     */
+    public ThreatSolver(IncrementalEvaluator evaluator, int maxDepth, int nodeLimit) {
+        if (maxDepth <= 0 || nodeLimit <= 0) {
+            throw new IllegalArgumentException("Illegal limit: depth=" + maxDepth + ", nodes=" + nodeLimit);
+        }
+        this.evaluator = Objects.requireNonNull(evaluator);
+        if (evaluator.getCandidates().getRadius() < CandidateGenerator.DEFAULT_RADIUS) {
+            throw new IllegalArgumentException("Candidate radius too small: " + evaluator.getCandidates().getRadius());
+        }
+        this.board = evaluator.getBoard();
+        this.patternWeights = evaluator.getPatternWeights();
+        this.candidates = evaluator.getCandidates();
+        this.maxDepth = maxDepth;
+        this.nodeLimit = nodeLimit;
+        this.moves = new int[maxDepth + 1][];
+    }
+
+    /**
+     * 找连续冲四必胜
+     *
+     * @param attacker 进攻方，即当前落子方
+     * @return 第一步棋位下标；-1：没找到
+     */
+    public int solveVcf(ColorEnum attacker) {
+        fourOnly = true;
+        return solve(attacker);
+    }
+
+    /**
+     * 找连续活三冲四必胜
+     *
+     * @param attacker 进攻方，即当前落子方
+     * @return 第一步棋位下标；-1：没找到
+     */
+    public int solveVct(ColorEnum attacker) {
+        fourOnly = false;
+        return solve(attacker);
+    }
+
+    /**
+     * 最近一次求解的节点数
+     */
+    public int getNodeNum() {
+        return nodeNum;
+    }
+
+    private int solve(ColorEnum attacker) {
+        nodeNum = 0;
+        firstMove = -1;
+        return attack(attacker, 0) ? firstMove : -1;
+    }
+
+    /**
+     * 进攻方落子，根节点找到必胜时把第一步写入 {@link #firstMove}
+     *
+     * @return true：必胜
+     */
+    private boolean attack(ColorEnum attacker, int ply) {
+        ColorEnum defender = opposite(attacker);
+        int fiveCell = findFirst(attacker, PatternEnum.LINK_5);
+        if (fiveCell >= 0) {
+            if (ply == 0) {
+                firstMove = fiveCell;
+            }
+            return true;
+        }
+        if (ply >= maxDepth || nodeNum >= nodeLimit) {
+            return false;
+        }
+
+        int defenderFiveNum = count(defender, PatternEnum.LINK_5);
+        if (defenderFiveNum >= 2) {
+            return false;
+        }
+        int moveNum;
+        if (defenderFiveNum == 1) {
+            // 对方冲四，只能先堵
+            moveNum = 1;
+            moves(ply)[0] = findFirst(defender, PatternEnum.LINK_5);
+        } else {
+            moveNum = collect(ply, attacker, true, !fourOnly);
+        }
+
+        int[] plyMoves = moves[ply];
+        for (int i = 0; i < moveNum; i++) {
+            int move = plyMoves[i];
+            evaluator.applyMove(move, attacker);
+            nodeNum++;
+            boolean win = defend(attacker, ply + 1);
+            evaluator.undoMove();
+            if (win) {
+                if (ply == 0) {
+                    firstMove = move;
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 防守方落子
+     *
+     * @return true：进攻方必胜
+     */
+    private boolean defend(ColorEnum attacker, int ply) {
+        ColorEnum defender = opposite(attacker);
+        if (count(defender, PatternEnum.LINK_5) > 0) {
+            return false;
+        }
+        int attackerFiveNum = count(attacker, PatternEnum.LINK_5);
+        if (attackerFiveNum >= 2) {
+            return true;
+        }
+        if (ply >= maxDepth || nodeNum >= nodeLimit) {
+            return false;
+        }
+
+        int moveNum;
+        if (attackerFiveNum == 1) {
+            moveNum = 1;
+            moves(ply)[0] = findFirst(attacker, PatternEnum.LINK_5);
+        } else {
+            if (fourOnly || findFirst(attacker, PatternEnum.LIVE_4) < 0) {
+                // 没有威胁，防守方可以自由落子
+                return false;
+            }
+            // 堵活三：进攻方能成活四、冲四的棋位，以及防守方自己的冲四
+            moveNum = collectDefense(ply, attacker, defender);
+        }
+
+        int[] plyMoves = moves[ply];
+        for (int i = 0; i < moveNum; i++) {
+            int move = plyMoves[i];
+            evaluator.applyMove(move, defender);
+            nodeNum++;
+            boolean win = attack(attacker, ply + 1);
+            evaluator.undoMove();
+            if (!win) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 收集进攻棋位：先冲四活四，再活三
+     */
+    private int collect(int ply, ColorEnum color, boolean four, boolean three) {
+        int[] plyMoves = moves(ply);
+        int moveNum = 0;
+        if (four) {
+            for (int c = 0; c < candidates.size(); c++) {
+                int index = candidates.get(c);
+                if ((has(index, color, PatternEnum.LIVE_4) || has(index, color, PatternEnum.RUSH_4))) {
+                    plyMoves[moveNum++] = index;
+                }
+            }
+        }
+        if (three) {
+            for (int c = 0; c < candidates.size(); c++) {
+                int index = candidates.get(c);
+                if (has(index, color, PatternEnum.LIVE_3)
+                        && !has(index, color, PatternEnum.LIVE_4) && !has(index, color, PatternEnum.RUSH_4)) {
+                    plyMoves[moveNum++] = index;
+                }
+            }
+        }
+        return moveNum;
+    }
+
+    private int collectDefense(int ply, ColorEnum attacker, ColorEnum defender) {
+        int[] plyMoves = moves(ply);
+        int moveNum = 0;
+        for (int c = 0; c < candidates.size(); c++) {
+            int index = candidates.get(c);
+            if ((has(index, attacker, PatternEnum.LIVE_4) || has(index, attacker, PatternEnum.RUSH_4)
+                    || has(index, defender, PatternEnum.LIVE_4) || has(index, defender, PatternEnum.RUSH_4))) {
+                plyMoves[moveNum++] = index;
+            }
+        }
+        return moveNum;
+    }
+
+    private int[] moves(int ply) {
+        if (Objects.isNull(moves[ply])) {
+            moves[ply] = new int[board.getIndexNum()];
+        }
+        return moves[ply];
+    }
+
+    private int findFirst(ColorEnum color, PatternEnum pattern) {
+        for (int c = 0; c < candidates.size(); c++) {
+            int index = candidates.get(c);
+            if (has(index, color, pattern)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 统计能成某棋型的空棋位数，最多数到 2
+     */
+    private int count(ColorEnum color, PatternEnum pattern) {
+        int num = 0;
+        for (int c = 0; c < candidates.size() && num < 2; c++) {
+            if (has(candidates.get(c), color, pattern)) {
+                num++;
+            }
+        }
+        return num;
+    }
+
+    private boolean has(int index, ColorEnum color, PatternEnum pattern) {
+        // 棋型得分都不小于 0，有该棋型时四个方向得分之和至少为该棋型得分，不够时不可能有该棋型
+        if (evaluator.attackScoreOf(index, color) < patternWeights.attackScoreOf(pattern)) {
+            return false;
+        }
+        for (DirectionEnum direction : DIRECTIONS) {
+            if (evaluator.patternOf(index, direction, color) == pattern) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
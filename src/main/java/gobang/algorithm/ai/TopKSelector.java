@@ -0,0 +1,125 @@
+package gobang.algorithm.ai;
+
+import gobang.bean.BitBoard;
+import gobang.bean.Position;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 有界 Top-K 选择
+ * 用长度为 K 的小顶堆保存分数最高的 K 个下标，每次加入 O(log K)，不装箱、不排序全部元素
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+final class TopKSelector {
+
+    private final int[] indexes;
+
+    private final int[] scores;
+
+    private int size;
+
+    TopKSelector(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        }
+        this.indexes = new int[capacity];
+        this.scores = new int[capacity];
+    }
+
+    /**
+     * 加入一个候选，堆满时只有分数高于堆顶才替换堆顶
+     */
+    void offer(int index, int score) {
+        if (size < indexes.length) {
+            indexes[size] = index;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (score > scores[0]) {
+            indexes[0] = index;
+            scores[0] = score;
+            siftDown(0, size);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 按分数从高到低取出所有候选，取出后清空
+     *
+     * @param outIndexes 长度不小于 {@link #size()}
+     * @param outScores  长度不小于 {@link #size()}
+     * @return 候选数
+     */
+    int drainDescending(int[] outIndexes, int[] outScores) {
+        int num = size;
+        // 堆排序：每次把堆顶（最小值）换到末尾，最后数组按分数从高到低
+        for (int last = num - 1; last > 0; last--) {
+            swap(0, last);
+            siftDown(0, last);
+        }
+        System.arraycopy(indexes, 0, outIndexes, 0, num);
+        System.arraycopy(scores, 0, outScores, 0, num);
+        size = 0;
+        return num;
+    }
+
+    /**
+     * 把候选作为棋位下标取出，按分数从高到低转成排名棋位，取出后清空
+     */
+    List<RankedMove> drainRankedMoves(BitBoard board) {
+        int[] outIndexes = new int[size];
+        int[] outScores = new int[size];
+        int num = drainDescending(outIndexes, outScores);
+        List<RankedMove> rankedMoves = new ArrayList<>(num);
+        for (int i = 0; i < num; i++) {
+            Position position = board.positionOf(outIndexes[i]);
+            rankedMoves.add(new RankedMove(position, outScores[i], Collections.singletonList(position)));
+        }
+        return rankedMoves;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (scores[parent] <= scores[i]) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i, int heapSize) {
+        while (true) {
+            int smallest = i;
+            int left = i * 2 + 1;
+            int right = left + 1;
+            if (left < heapSize && scores[left] < scores[smallest]) {
+                smallest = left;
+            }
+            if (right < heapSize && scores[right] < scores[smallest]) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        int index = indexes[i];
+        indexes[i] = indexes[j];
+        indexes[j] = index;
+        int score = scores[i];
+        scores[i] = scores[j];
+        scores[j] = score;
+    }
+}
@@ -0,0 +1,286 @@
+package gobang.algorithm.ai;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 置换表
+ * 固定容量，两组 long 数组分别存校验键和打包后的数据，按 Zobrist 键低位直接寻址，
+ * 同一槽位深度优先替换：新结果的搜索深度不低于原结果、或是同一局面时才覆盖；
+ * 另记每个槽位局面的棋子数，棋子数少于当前根局面的（之前回合的局面）已不可能再出现，总是可以覆盖，
+ * 这样一局棋中共用置换表时，上一回合搜索过、现在仍可到达的局面保留下来，不可到达的逐步让位
+ * 多线程共用时不加锁：校验键存的是 Zobrist 键与数据的异或，读到被其它线程写了一半的槽位时校验不通过，按未命中处理
+ * 查找、保存次数等统计默认不记录：多线程共用时每次查找都累加同一组计数器会在核之间争抢缓存行，需要时在构造时打开
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class TranspositionTable {
+
+    /**
+     * 边界类型：准确值
+     */
+    static final int EXACT = 0;
+
+    /**
+     * 边界类型：下界（发生 beta 剪枝）
+     */
+    static final int LOWER_BOUND = 1;
+
+    /**
+     * 边界类型：上界（没有棋位超过 alpha）
+     */
+    static final int UPPER_BOUND = 2;
+
+    /**
+     * 每个槽位占用字节数
+     */
+    public static final int BYTES_PER_ENTRY = 18;
+
+    /**
+     * 数据位布局：[0, 32) 分数，[32, 48) 棋位下标 + 1，[48, 56) 深度，[56, 58) 边界类型，第 63 位有效标记
+     */
+    private static final int MOVE_SHIFT = 32;
+    private static final int DEPTH_SHIFT = 48;
+    private static final int BOUND_SHIFT = 56;
+    private static final long VALID_BIT = 1L << 63;
+
+    /**
+     * 校验键：Zobrist 键与数据的异或，读取时两者一致才算命中
+     */
+    private final long[] keys;
+
+    private final long[] entries;
+
+    /**
+     * [槽位] 局面的棋子数，只用于替换判断，多线程读到旧值不影响正确性
+     */
+    private final short[] pieceNums;
+
+    private final int mask;
+
+    /**
+     * 当前根局面的棋子数，见 {@link #setRootPieceNum}
+     */
+    private volatile int rootPieceNum;
+
+    /**
+     * true：记录查找、命中、冲突、保存、拒绝次数
+     */
+    private final boolean statsEnabled;
+
+    private final LongAdder probeNum = new LongAdder();
+    private final LongAdder hitNum = new LongAdder();
+    private final LongAdder collisionNum = new LongAdder();
+    private final LongAdder storeNum = new LongAdder();
+    private final LongAdder rejectNum = new LongAdder();
+
+    /**
+     * 不记录统计
+     *
+     * @param capacity 槽位数，向下取 2 的幂
+     */
+    public TranspositionTable(int capacity) {
+        this(capacity, false);
+    }
+
+    /**
+     * @param capacity     槽位数，向下取 2 的幂
+     * @param statsEnabled true：记录查找、命中等次数，用于分析置换表大小和替换策略
+     */
+    public TranspositionTable(int capacity, boolean statsEnabled) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        this.keys = new long[size];
+        this.entries = new long[size];
+        this.pieceNums = new short[size];
+        this.mask = size - 1;
+        this.statsEnabled = statsEnabled;
+    }
+
+    /**
+     * 按内存大小创建
+     *
+     * @param megabytes 占用内存（MB）
+     * @return nonNull
+     */
+    public static TranspositionTable ofMegabytes(int megabytes) {
+        long capacity = (long) megabytes * 1024 * 1024 / BYTES_PER_ENTRY;
+        return new TranspositionTable((int) Math.min(Integer.MAX_VALUE, Math.max(1, capacity)));
+    }
+
+    /**
+     * 查找局面
+     *
+     * @param key Zobrist 键
+     * @return 0：未命中；非 0：打包数据，用 scoreOf 等方法解析
+     */
+    long probe(long key) {
+        if (statsEnabled) {
+            probeNum.increment();
+        }
+        int slot = (int) key & mask;
+        long entry = entries[slot];
+        long check = keys[slot];
+        if (entry == 0) {
+            return 0;
+        }
+        if ((check ^ entry) != key) {
+            if (statsEnabled) {
+                collisionNum.increment();
+            }
+            return 0;
+        }
+        if (statsEnabled) {
+            hitNum.increment();
+        }
+        return entry;
+    }
+
+    /**
+     * 保存局面
+     *
+     * @param key      Zobrist 键
+     * @param depth    搜索深度
+     * @param bound    边界类型
+     * @param score    分数
+     * @param move     最佳棋位下标，-1：无
+     * @param pieceNum 局面的棋子数
+     */
+    void store(long key, int depth, int bound, int score, int move, int pieceNum) {
+        int slot = (int) key & mask;
+        long old = entries[slot];
+        if (old != 0 && (keys[slot] ^ old) != key && depthOf(old) > depth && pieceNums[slot] >= rootPieceNum) {
+            if (statsEnabled) {
+                rejectNum.increment();
+            }
+            return;
+        }
+        long entry = VALID_BIT
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) depth << DEPTH_SHIFT)
+                | ((long) (move + 1) << MOVE_SHIFT)
+                | (score & 0xFFFFFFFFL);
+        entries[slot] = entry;
+        keys[slot] = key ^ entry;
+        pieceNums[slot] = (short) Math.min(Short.MAX_VALUE, pieceNum);
+        if (statsEnabled) {
+            storeNum.increment();
+        }
+    }
+
+    /**
+     * 开始搜索新的根局面时调用：棋子数更少的局面不会再出现，对应槽位不再受深度优先保护
+     *
+     * @param pieceNum 根局面的棋子数
+     */
+    void setRootPieceNum(int pieceNum) {
+        rootPieceNum = Math.min(Short.MAX_VALUE, pieceNum);
+    }
+
+    static int scoreOf(long entry) {
+        return (int) entry;
+    }
+
+    static int moveOf(long entry) {
+        return (int) ((entry >>> MOVE_SHIFT) & 0xFFFF) - 1;
+    }
+
+    static int depthOf(long entry) {
+        return (int) ((entry >>> DEPTH_SHIFT) & 0xFF);
+    }
+
+    static int boundOf(long entry) {
+        return (int) ((entry >>> BOUND_SHIFT) & 0x3);
+    }
+
+    /**
+     * 清空所有槽位和统计
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(entries, 0);
+        Arrays.fill(pieceNums, (short) 0);
+        probeNum.reset();
+        hitNum.reset();
+        collisionNum.reset();
+        storeNum.reset();
+        rejectNum.reset();
+    }
+
+    public int getCapacity() {
+        return entries.length;
+    }
+
+    public boolean isStatsEnabled() {
+        return statsEnabled;
+    }
+
+    public long getMemoryBytes() {
+        return (long) entries.length * BYTES_PER_ENTRY;
+    }
+
+    /**
+     * 以下统计只在 {@link #isStatsEnabled()} 时记录，否则都为 0
+     */
+    public long getProbeNum() {
+        return probeNum.sum();
+    }
+
+    public long getHitNum() {
+        return hitNum.sum();
+    }
+
+    public long getCollisionNum() {
+        return collisionNum.sum();
+    }
+
+    public long getStoreNum() {
+        return storeNum.sum();
+    }
+
+    /**
+     * 因深度优先策略被拒绝的保存次数
+     */
+    public long getRejectNum() {
+        return rejectNum.sum();
+    }
+
+    /**
+     * 命中率：命中次数 / 查找次数
+     */
+    public double getHitRate() {
+        long probes = probeNum.sum();
+        return probes == 0 ? 0 : (double) hitNum.sum() / probes;
+    }
+
+    /**
+     * 冲突率：槽位被其它局面占用的次数 / 查找次数
+     */
+    public double getCollisionRate() {
+        long probes = probeNum.sum();
+        return probes == 0 ? 0 : (double) collisionNum.sum() / probes;
+    }
+
+    /**
+     * 槽位使用率，抽样前 1000 个槽位
+     */
+    public double getFillRate() {
+        int sampleNum = Math.min(1000, entries.length);
+        int usedNum = 0;
+        for (int i = 0; i < sampleNum; i++) {
+            if (entries[i] != 0) {
+                usedNum++;
+            }
+        }
+        return (double) usedNum / sampleNum;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TranspositionTable{capacity=%d, probes=%d, hitRate=%.4f, collisionRate=%.4f, stores=%d, rejects=%d}",
+                getCapacity(), getProbeNum(), getHitRate(), getCollisionRate(), getStoreNum(), getRejectNum());
+    }
+}
@@ -0,0 +1,494 @@
+package gobang.bean;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * 位棋盘
+ * 黑白棋各用一组 long 按位记录落子，棋位 (x, y) 的下标为 x * stride + y，
+ * 其中 stride = height + 1，每列末尾多出的一位作为哨兵位永远不属于棋盘，
+ * 这样横、纵、两斜向上相邻棋位的下标差都是固定值，移位即可得到整块棋盘的相邻关系
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class BitBoard {
+
+	/**
+	 * X 轴棋位数，对应 boardInfo.length
+	 */
+	private final int width;
+
+	/**
+	 * Y 轴棋位数，对应 boardInfo[0].length
+	 */
+	private final int height;
+
+	/**
+	 * 相邻两列的下标差
+	 */
+	private final int stride;
+
+	/**
+	 * 下标总数（含哨兵位）
+	 */
+	private final int indexNum;
+
+	/**
+	 * 棋盘内的棋位，同尺寸棋盘之间共享
+	 */
+	private final long[] legalBits;
+
+	/**
+	 * 黑棋
+	 */
+	private final long[] blackBits;
+
+	/**
+	 * 白棋
+	 */
+	private final long[] whiteBits;
+
+	/**
+	 * 棋子数
+	 */
+	private int pieceNum;
+
+	/**
+	 * Zobrist 键，落子/提子时异或对应棋位棋色的随机数
+	 */
+	private long zobristKey;
+
+	public BitBoard(int width, int height) {
+		if (width <= 0 || height <= 0) {
+			throw new IllegalArgumentException("Illegal board size: " + width + "x" + height);
+		}
+		this.width = width;
+		this.height = height;
+		this.stride = height + 1;
+		this.indexNum = width * stride;
+		int wordNum = (indexNum + 63) >>> 6;
+		this.legalBits = new long[wordNum];
+		this.blackBits = new long[wordNum];
+		this.whiteBits = new long[wordNum];
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				setBit(legalBits, indexOf(x, y));
+			}
+		}
+	}
+
+	/**
+	 * 复制棋盘，只复制两组落子位，开销很小
+	 */
+	public BitBoard(BitBoard source) {
+		this.width = source.width;
+		this.height = source.height;
+		this.stride = source.stride;
+		this.indexNum = source.indexNum;
+		this.legalBits = source.legalBits;
+		this.blackBits = source.blackBits.clone();
+		this.whiteBits = source.whiteBits.clone();
+		this.pieceNum = source.pieceNum;
+		this.zobristKey = source.zobristKey;
+	}
+
+	/**
+	 * 由二维数组构建
+	 *
+	 * @param boardInfo 棋盘[x][y] 每个点的值为 {@link ColorEnum#ordinal()}
+	 * @return nonNull
+	 */
+	public static BitBoard valueOf(int[][] boardInfo) {
+		Objects.requireNonNull(boardInfo);
+		BitBoard board = new BitBoard(boardInfo.length, boardInfo[0].length);
+		for (int x = 0; x < boardInfo.length; x++) {
+			for (int y = 0; y < boardInfo[x].length; y++) {
+				int color = boardInfo[x][y];
+				if (color == ColorEnum.BLACK.ordinal()) {
+					board.put(board.indexOf(x, y), ColorEnum.BLACK);
+				} else if (color == ColorEnum.WHITE.ordinal()) {
+					board.put(board.indexOf(x, y), ColorEnum.WHITE);
+				}
+			}
+		}
+		return board;
+	}
+
+	/**
+	 * 转换成二维数组
+	 *
+	 * @return 棋盘[x][y] 每个点的值为 {@link ColorEnum#ordinal()}
+	 */
+	public int[][] toBoardInfo() {
+		int[][] boardInfo = new int[width][height];
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				boardInfo[x][y] = colorAt(indexOf(x, y)).ordinal();
+			}
+		}
+		return boardInfo;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * 下标上限（不含），遍历全部棋位时配合 {@link #isLegal(int)} 使用
+	 */
+	public int getIndexNum() {
+		return indexNum;
+	}
+
+	public int getPieceNum() {
+		return pieceNum;
+	}
+
+	public long getZobristKey() {
+		return zobristKey;
+	}
+
+	public int indexOf(int x, int y) {
+		return x * stride + y;
+	}
+
+	public int indexOf(Position position) {
+		return indexOf(position.getX(), position.getY());
+	}
+
+	public int xOf(int index) {
+		return index / stride;
+	}
+
+	public int yOf(int index) {
+		return index % stride;
+	}
+
+	public Position positionOf(int index) {
+		return Position.valueOf(xOf(index), yOf(index));
+	}
+
+	/**
+	 * 某个方向上往远离原点一侧走一格的下标差，往原点一侧走一格为其相反数
+	 *
+	 * @param direction 方向
+	 * @return 下标差
+	 */
+	public int deltaOf(DirectionEnum direction) {
+		switch (direction) {
+			case HORIZONTAL:
+				return stride;
+			case VERTICAL:
+				return 1;
+			case TILT_DOWN:
+				return stride + 1;
+			case TILT_UP:
+				return stride - 1;
+			default:
+				throw new IllegalArgumentException("Unknown direction: " + direction);
+		}
+	}
+
+	/**
+	 * 从原点出发，计算偏移 n 个棋位后的下标
+	 * 逐格判断，越过哨兵位之后不会绕回到其它列
+	 *
+	 * @param direction      方向
+	 * @param toInitialPoint true：往左上/下角、往左/上；false：往右上/下角、往右/下
+	 * @param origin         原点下标
+	 * @param offsetNum      偏移棋位数
+	 * @return 下标；-1：超出棋盘
+	 */
+	public int afterOffSet(DirectionEnum direction, boolean toInitialPoint, int origin, int offsetNum) {
+		int delta = toInitialPoint ? -deltaOf(direction) : deltaOf(direction);
+		int index = origin;
+		for (int i = 0; i < offsetNum; i++) {
+			index += delta;
+			if (!isLegal(index)) {
+				return -1;
+			}
+		}
+		return index;
+	}
+
+	public boolean isLegal(int index) {
+		return 0 <= index && index < indexNum && testBit(legalBits, index);
+	}
+
+	public boolean isLegal(int x, int y) {
+		return 0 <= x && x < width && 0 <= y && y < height;
+	}
+
+	public boolean isEmpty(int index) {
+		return !testBit(blackBits, index) && !testBit(whiteBits, index);
+	}
+
+	/**
+	 * @return true：棋盘内且为该颜色的棋子
+	 */
+	public boolean isColor(int index, ColorEnum color) {
+		return isLegal(index) && colorAt(index) == color;
+	}
+
+	/**
+	 * @param index 棋盘内的下标
+	 * @return 棋位棋子颜色
+	 */
+	public ColorEnum colorAt(int index) {
+		if (testBit(blackBits, index)) {
+			return ColorEnum.BLACK;
+		}
+		if (testBit(whiteBits, index)) {
+			return ColorEnum.WHITE;
+		}
+		return ColorEnum.EMPTY;
+	}
+
+	/**
+	 * 落子
+	 *
+	 * @param index 空棋位下标
+	 * @param color 黑棋或白棋
+	 */
+	public void put(int index, ColorEnum color) {
+		if (!isLegal(index) || !isEmpty(index)) {
+			throw new IllegalStateException("Position is not empty: " + index);
+		}
+		setBit(bitsOf(color), index);
+		pieceNum++;
+		zobristKey ^= zobristOf(index, color);
+	}
+
+	/**
+	 * 提子
+	 *
+	 * @param index 有棋子的棋位下标
+	 */
+	public void remove(int index) {
+		ColorEnum color = colorAt(index);
+		if (color == ColorEnum.EMPTY) {
+			throw new IllegalStateException("Position is empty: " + index);
+		}
+		clearBit(bitsOf(color), index);
+		pieceNum--;
+		zobristKey ^= zobristOf(index, color);
+	}
+
+	/**
+	 * 提走所有棋子，回到空棋盘，不分配内存
+	 */
+	public void clear() {
+		Arrays.fill(blackBits, 0L);
+		Arrays.fill(whiteBits, 0L);
+		pieceNum = 0;
+		zobristKey = 0L;
+	}
+
+	/**
+	 * 从原点出发，计算某个方向上与原点相连的同色棋子数（原点视为该颜色）
+	 *
+	 * @param origin    原点下标
+	 * @param direction 方向
+	 * @param color     棋色
+	 * @return 连珠数，至少为 1
+	 */
+	public int countLine(int origin, DirectionEnum direction, ColorEnum color) {
+		long[] bits = bitsOf(color);
+		int delta = deltaOf(direction);
+		int count = 1;
+		for (int index = origin - delta; isLegal(index) && testBit(bits, index); index -= delta) {
+			count++;
+		}
+		for (int index = origin + delta; isLegal(index) && testBit(bits, index); index += delta) {
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * 取出原点所在直线上两边各 radius 格的同色棋子
+	 *
+	 * @param origin    原点下标
+	 * @param direction 方向
+	 * @param color     棋色
+	 * @param radius    单边棋位数，不超过 31
+	 * @return 第 radius + i 位表示偏移 i（负数往原点一侧）处是否有该颜色棋子，超出棋盘为 0
+	 */
+	public long lineOf(int origin, DirectionEnum direction, ColorEnum color, int radius) {
+		long[] bits = bitsOf(color);
+		int delta = deltaOf(direction);
+		long line = testBit(bits, origin) ? 1L << radius : 0L;
+		int index = origin;
+		for (int i = 1; i <= radius; i++) {
+			index -= delta;
+			if (!isLegal(index)) {
+				break;
+			}
+			if (testBit(bits, index)) {
+				line |= 1L << (radius - i);
+			}
+		}
+		index = origin;
+		for (int i = 1; i <= radius; i++) {
+			index += delta;
+			if (!isLegal(index)) {
+				break;
+			}
+			if (testBit(bits, index)) {
+				line |= 1L << (radius + i);
+			}
+		}
+		return line;
+	}
+
+	/**
+	 * 有棋子的棋位
+	 *
+	 * @return 新数组
+	 */
+	public long[] occupied() {
+		long[] occupied = new long[blackBits.length];
+		for (int i = 0; i < occupied.length; i++) {
+			occupied[i] = blackBits[i] | whiteBits[i];
+		}
+		return occupied;
+	}
+
+	/**
+	 * 通过移位计算离棋子切比雪夫距离不超过 radius 的空棋位
+	 *
+	 * @param radius 距离
+	 * @return 新数组，按下标置位
+	 */
+	public long[] neighbourOfPieces(int radius) {
+		long[] occupied = occupied();
+		long[] area = occupied.clone();
+		long[] shifted = new long[area.length];
+		// 先纵向扩展，每走一格与棋盘求交，去掉进入哨兵位的部分，防止绕到下一列
+		for (int i = 0; i < radius; i++) {
+			long[] last = area.clone();
+			shift(last, 1, shifted);
+			or(area, shifted);
+			shift(last, -1, shifted);
+			or(area, shifted);
+			and(area, legalBits);
+		}
+		// 再横向扩展，越过棋盘两端的位直接移出数组
+		for (int i = 0; i < radius; i++) {
+			long[] last = area.clone();
+			shift(last, stride, shifted);
+			or(area, shifted);
+			shift(last, -stride, shifted);
+			or(area, shifted);
+		}
+		for (int i = 0; i < area.length; i++) {
+			area[i] &= legalBits[i] & ~occupied[i];
+		}
+		return area;
+	}
+
+	/**
+	 * 某个棋位放某种颜色棋子对应的 Zobrist 随机数
+	 * 用 SplitMix64 混合函数由下标和棋色直接算出，任意尺寸棋盘都不需要建表
+	 *
+	 * @param index 棋位下标
+	 * @param color 黑棋或白棋
+	 * @return 随机数
+	 */
+	public static long zobristOf(int index, ColorEnum color) {
+		long z = (index * 2L + color.ordinal()) * 0x9E3779B97F4A7C15L + 0x632BE59BD9B4E019L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * 整体移位
+	 *
+	 * @param source 原位集
+	 * @param n      正数往下标增大方向移，负数往下标减小方向移
+	 * @param target 结果
+	 */
+	public static void shift(long[] source, int n, long[] target) {
+		int length = source.length;
+		if (n < 0) {
+			int wordShift = (-n) >>> 6;
+			int bitShift = (-n) & 63;
+			for (int i = 0; i < length; i++) {
+				int from = i + wordShift;
+				long low = from < length ? source[from] >>> bitShift : 0L;
+				long high = bitShift != 0 && from + 1 < length ? source[from + 1] << (64 - bitShift) : 0L;
+				target[i] = low | high;
+			}
+		} else {
+			int wordShift = n >>> 6;
+			int bitShift = n & 63;
+			for (int i = length - 1; i >= 0; i--) {
+				int from = i - wordShift;
+				long high = from >= 0 ? source[from] << bitShift : 0L;
+				long low = bitShift != 0 && from - 1 >= 0 ? source[from - 1] >>> (64 - bitShift) : 0L;
+				target[i] = high | low;
+			}
+		}
+	}
+
+	private static void or(long[] target, long[] source) {
+		for (int i = 0; i < target.length; i++) {
+			target[i] |= source[i];
+		}
+	}
+
+	private static void and(long[] target, long[] source) {
+		for (int i = 0; i < target.length; i++) {
+			target[i] &= source[i];
+		}
+	}
+
+	public static boolean testBit(long[] bits, int index) {
+		return (bits[index >>> 6] & (1L << index)) != 0;
+	}
+
+	private static void setBit(long[] bits, int index) {
+		bits[index >>> 6] |= 1L << index;
+	}
+
+	private static void clearBit(long[] bits, int index) {
+		bits[index >>> 6] &= ~(1L << index);
+	}
+
+	private long[] bitsOf(ColorEnum color) {
+		switch (color) {
+			case BLACK:
+				return blackBits;
+			case WHITE:
+				return whiteBits;
+			default:
+				throw new IllegalArgumentException("Illegal piece color: " + color);
+		}
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		BitBoard that = (BitBoard) o;
+		return width == that.width &&
+				height == that.height &&
+				Arrays.equals(blackBits, that.blackBits) &&
+				Arrays.equals(whiteBits, that.whiteBits);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(width, height, Arrays.hashCode(blackBits), Arrays.hashCode(whiteBits));
+	}
+}
@@ -1,7 +1,5 @@
 package gobang.bean;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -124,23 +122,18 @@ public class Position implements Comparable<Position> {
 		static final int LOW_Y = 0;
 
 		/**
-		 * 缓存容器
+		 * 缓存容器 [x - LOW_X][y - LOW_Y]，按坐标直接取，查找时不创建键
 		 */
-		static final Map<String, Position> CACHE;
+		static final Position[][] CACHE = new Position[HIGH_X - LOW_X + 1][HIGH_Y - LOW_Y + 1];
 
 		private PositionCache() {
 		}
 
 		static {
-			int lengthOfX = HIGH_X - LOW_X + 1;
-			int lengthOfY = HIGH_Y - LOW_Y + 1;
-			int initialCapacity = lengthOfX * lengthOfY * 4 / 3 + 1;
-			CACHE = new HashMap<>(initialCapacity);
-
 			if (!LAZY_CACHE) {
 				for (int x = LOW_X; x <= HIGH_X; x++) {
 					for (int y = LOW_Y; y <= HIGH_Y; y++) {
-						CACHE.put(buildKey(x, y), new Position(x, y));
+						CACHE[x - LOW_X][y - LOW_Y] = new Position(x, y);
 					}
 				}
 			}
@@ -150,23 +143,20 @@ public class Position implements Comparable<Position> {
 			return LOW_X <= x && x <= HIGH_X && LOW_Y <= y && y <= HIGH_Y;
 		}
 
-		static String buildKey(int x, int y) {
-			return x + "_" + y;
-		}
-
 		static Position findInCache(int x, int y) {
 			if (!inCacheScope(x, y)) {
 				return null;
 			}
 
-			String key = buildKey(x, y);
-			Position returnValue = CACHE.get(key);
+			Position[] column = CACHE[x - LOW_X];
+			Position returnValue = column[y - LOW_Y];
 			if (Objects.isNull(returnValue)) {
+				// 字段都是 final，其它线程读到非 null 时一定是构造完成的对象
 				synchronized (PositionCache.class) {
-					returnValue = CACHE.get(key);
+					returnValue = column[y - LOW_Y];
 					if (Objects.isNull(returnValue)) {
 						returnValue = new Position(x, y);
-						CACHE.put(key, returnValue);
+						column[y - LOW_Y] = returnValue;
 					}
 				}
 			}
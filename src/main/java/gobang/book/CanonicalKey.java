@@ -0,0 +1,70 @@
+package gobang.book;
+
+import gobang.bean.BitBoard;
+import gobang.bean.ColorEnum;
+
+/**
+ * 局面的规范键
+ * 对棋盘做每一种可用的对称变换，按变换后的坐标求 Zobrist 键，取最小的键作为规范键，
+ * 互为对称的局面规范键相同；同时记下得到规范键的变换，用来在原局面和规范局面之间换算坐标。
+ * 计算过程只使用自身的数组，不分配对象，但不能多个线程同时使用同一个实例
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+final class CanonicalKey {
+
+	private static final SymmetryEnum[] SYMMETRIES = SymmetryEnum.values();
+
+	/**
+	 * [变换] 变换后局面的 Zobrist 键
+	 */
+	private final long[] keys = new long[SYMMETRIES.length];
+
+	private SymmetryEnum symmetry = SymmetryEnum.IDENTITY;
+
+	/**
+	 * 计算规范键
+	 *
+	 * @param board 棋盘
+	 * @return 规范键，之后可用 {@link #getSymmetry()} 取得原局面到规范局面的变换
+	 */
+	long compute(BitBoard board) {
+		int width = board.getWidth();
+		int height = board.getHeight();
+		int symmetryNum = SymmetryEnum.applicableNum(width, height);
+		for (int s = 0; s < symmetryNum; s++) {
+			keys[s] = 0;
+		}
+		int pieceNum = board.getPieceNum();
+		for (int x = 0, foundNum = 0; x < width && foundNum < pieceNum; x++) {
+			for (int y = 0; y < height; y++) {
+				ColorEnum color = board.colorAt(board.indexOf(x, y));
+				if (color == ColorEnum.EMPTY) {
+					continue;
+				}
+				foundNum++;
+				for (int s = 0; s < symmetryNum; s++) {
+					SymmetryEnum symmetry = SYMMETRIES[s];
+					keys[s] ^= BitBoard.zobristOf(board.indexOf(
+							symmetry.xOf(x, y, width, height), symmetry.yOf(x, y, width, height)), color);
+				}
+			}
+		}
+		int best = 0;
+		for (int s = 1; s < symmetryNum; s++) {
+			if (keys[s] < keys[best]) {
+				best = s;
+			}
+		}
+		symmetry = SYMMETRIES[best];
+		return keys[best];
+	}
+
+	/**
+	 * 最近一次计算中原局面到规范局面的变换，互为对称的局面有多个变换时取其中之一，对落子结果没有影响
+	 */
+	SymmetryEnum getSymmetry() {
+		return symmetry;
+	}
+}
@@ -0,0 +1,162 @@
+package gobang.book;
+
+import gobang.bean.BitBoard;
+import gobang.bean.Position;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 开局库
+ * 开局库文件按规范键升序存放定长条目，打开时整个文件只读映射到内存，查询时在映射区上二分查找，
+ * 不读文件、不分配对象；局面先按 {@link CanonicalKey} 规范化，互为对称的局面共用一个条目。
+ * 文件格式（大端）：
+ * <pre>
+ * 文件头 16 字节：int 魔数 | short 版本 | byte 宽 | byte 高 | long 条目数
+ * 条目 16 字节：long 规范键 | byte 规范局面中的 X | byte 规范局面中的 Y | short 棋谱平均分 | int 样本数
+ * </pre>
+ * 开局库可以在多个线程中共享
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class OpeningBook {
+
+	/**
+	 * 魔数："GOBK"
+	 */
+	static final int MAGIC = 0x474F424B;
+
+	static final short VERSION = 1;
+
+	static final int HEADER_LENGTH = 16;
+
+	static final int ENTRY_LENGTH = 16;
+
+	/**
+	 * 每个线程一个规范键计算器
+	 */
+	private static final ThreadLocal<CanonicalKey> CANONICAL_KEY = ThreadLocal.withInitial(CanonicalKey::new);
+
+	private final ByteBuffer buffer;
+
+	private final int width;
+
+	private final int height;
+
+	private final int entryNum;
+
+	private OpeningBook(ByteBuffer buffer, int width, int height, int entryNum) {
+		this.buffer = buffer;
+		this.width = width;
+		this.height = height;
+		this.entryNum = entryNum;
+	}
+
+	/**
+	 * 打开开局库文件，映射后即关闭文件通道，映射区在开局库对象被回收前一直有效
+	 *
+	 * @param path 由 {@link OpeningBookBuilder#write(Path)} 生成的文件
+	 * @return nonNull
+	 * @throws IOException 读取失败或不是开局库文件
+	 */
+	public static OpeningBook open(Path path) throws IOException {
+		MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() < HEADER_LENGTH) {
+				throw new IOException("Not an opening book: " + path);
+			}
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		if (buffer.getInt(0) != MAGIC) {
+			throw new IOException("Not an opening book: " + path);
+		}
+		if (buffer.getShort(4) != VERSION) {
+			throw new IOException("Unsupported opening book version: " + buffer.getShort(4));
+		}
+		int width = buffer.get(6) & 0xFF;
+		int height = buffer.get(7) & 0xFF;
+		long entryNum = buffer.getLong(8);
+		if (entryNum < 0 || HEADER_LENGTH + entryNum * ENTRY_LENGTH != buffer.capacity()) {
+			throw new IOException("Corrupt opening book, entries=" + entryNum + ", length=" + buffer.capacity());
+		}
+		return new OpeningBook(buffer, width, height, (int) entryNum);
+	}
+
+	/**
+	 * 查询开局库
+	 *
+	 * @param board 当前局面
+	 * @return 开局库中的下棋坐标；null：没有收录、棋盘尺寸不同或库中的棋位已有棋子（键冲突）
+	 */
+	public Position probe(BitBoard board) {
+		int index = probeIndex(board);
+		return index < 0 ? null : board.positionOf(index);
+	}
+
+	/**
+	 * 查询开局库，不分配对象
+	 *
+	 * @param board 当前局面
+	 * @return 开局库中的下棋棋位下标；-1：没有收录、棋盘尺寸不同或库中的棋位已有棋子（键冲突）
+	 */
+	public int probeIndex(BitBoard board) {
+		if (board.getWidth() != width || board.getHeight() != height) {
+			return -1;
+		}
+		CanonicalKey canonicalKey = CANONICAL_KEY.get();
+		int offset = find(canonicalKey.compute(board));
+		if (offset < 0) {
+			return -1;
+		}
+		int canonicalX = buffer.get(offset + 8) & 0xFF;
+		int canonicalY = buffer.get(offset + 9) & 0xFF;
+		SymmetryEnum inverse = canonicalKey.getSymmetry().inverse();
+		int x = inverse.xOf(canonicalX, canonicalY, width, height);
+		int y = inverse.yOf(canonicalX, canonicalY, width, height);
+		if (!board.isLegal(x, y)) {
+			return -1;
+		}
+		int index = board.indexOf(x, y);
+		return board.isEmpty(index) ? index : -1;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public int getEntryNum() {
+		return entryNum;
+	}
+
+	/**
+	 * 二分查找条目
+	 *
+	 * @return 条目在文件中的偏移；-1：没有收录
+	 */
+	private int find(long key) {
+		int low = 0;
+		int high = entryNum - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int offset = HEADER_LENGTH + mid * ENTRY_LENGTH;
+			long midKey = buffer.getLong(offset);
+			if (midKey < key) {
+				low = mid + 1;
+			} else if (midKey > key) {
+				high = mid - 1;
+			} else {
+				return offset;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,305 @@
+package gobang.book;
+
+import gobang.algorithm.ai.AlphaBetaSearch;
+import gobang.algorithm.ai.IncrementalEvaluator;
+import gobang.algorithm.ai.RankedMove;
+import gobang.bean.BitBoard;
+import gobang.bean.ColorEnum;
+import gobang.bean.Position;
+import gobang.record.GameRecord;
+import gobang.record.GameResultEnum;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 开局库生成器
+ * 收集局面-落子样本，按规范局面汇总后每个局面选一个落子写成 {@link OpeningBook} 文件；不是线程安全的。
+ * 样本分两种，各自计分、互不混合：棋谱样本按对局胜负计分，搜索样本记搜索给出的名次（0 为最好）。
+ * 搜索分数是棋型得分之和，量级随局面变化很大，不能与胜负分平均，所以只用名次。
+ * 选择落子时搜索样本优先：有搜索样本的落子按平均名次选，都没有时按棋谱平均分、样本数选，仍相同时取坐标小的
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class OpeningBookBuilder {
+
+	/**
+	 * 棋谱样本的分数：胜为正，负为负，和为 0
+	 */
+	public static final int RESULT_SCORE = 1000;
+
+	private final int width;
+
+	private final int height;
+
+	private final CanonicalKey canonicalKey = new CanonicalKey();
+
+	/**
+	 * 规范键-（规范局面中的落子坐标 X << 8 | Y）-样本统计
+	 */
+	private final Map<Long, Map<Integer, MoveStats>> positions = new HashMap<>();
+
+	/**
+	 * @param width  X 轴棋位数，不超过 255
+	 * @param height Y 轴棋位数，不超过 255
+	 */
+	public OpeningBookBuilder(int width, int height) {
+		if (width <= 0 || height <= 0 || width > 0xFF || height > 0xFF) {
+			throw new IllegalArgumentException("Illegal board size: " + width + "x" + height);
+		}
+		this.width = width;
+		this.height = height;
+	}
+
+	/**
+	 * 加入一个棋谱样本
+	 *
+	 * @param board 落子前的局面
+	 * @param move  落子坐标，需为空棋位
+	 * @param score 对落子方的胜负分，-{@link #RESULT_SCORE} ~ {@link #RESULT_SCORE}
+	 */
+	public void addMove(BitBoard board, Position move, int score) {
+		if (score < -RESULT_SCORE || score > RESULT_SCORE) {
+			throw new IllegalArgumentException("Illegal result score: " + score);
+		}
+		MoveStats stats = statsOf(board, move);
+		stats.gameNum++;
+		stats.scoreSum += score;
+	}
+
+	/**
+	 * 加入一个搜索样本
+	 *
+	 * @param board 落子前的局面
+	 * @param move  落子坐标，需为空棋位
+	 * @param rank  搜索给出的名次，0 为最好
+	 */
+	public void addRankedMove(BitBoard board, Position move, int rank) {
+		if (rank < 0) {
+			throw new IllegalArgumentException("Illegal rank: " + rank);
+		}
+		MoveStats stats = statsOf(board, move);
+		stats.searchNum++;
+		stats.rankSum += rank;
+	}
+
+	/**
+	 * 落子在规范局面中的样本统计，没有时新建
+	 */
+	private MoveStats statsOf(BitBoard board, Position move) {
+		if (board.getWidth() != width || board.getHeight() != height) {
+			throw new IllegalArgumentException("Board size mismatch: " + board.getWidth() + "x" + board.getHeight());
+		}
+		if (!board.isLegal(move.getX(), move.getY()) || !board.isEmpty(board.indexOf(move))) {
+			throw new IllegalArgumentException("Illegal book move: " + move);
+		}
+		long key = canonicalKey.compute(board);
+		SymmetryEnum symmetry = canonicalKey.getSymmetry();
+		int x = symmetry.xOf(move.getX(), move.getY(), width, height);
+		int y = symmetry.yOf(move.getX(), move.getY(), width, height);
+		return positions.computeIfAbsent(key, k -> new HashMap<>())
+				.computeIfAbsent(x << 8 | y, k -> new MoveStats());
+	}
+
+	/**
+	 * 加入一局自对弈棋谱的前 maxMoveNum 步，每一步按最终胜负计分
+	 *
+	 * @param moves      从空棋盘开始的落子顺序，黑方先行
+	 * @param winner     胜方，{@link ColorEnum#EMPTY} 或 null 为和棋
+	 * @param maxMoveNum 收录的步数
+	 */
+	public void addGame(List<Position> moves, ColorEnum winner, int maxMoveNum) {
+		BitBoard board = new BitBoard(width, height);
+		ColorEnum color = ColorEnum.BLACK;
+		for (int i = 0; i < moves.size() && i < maxMoveNum; i++) {
+			Position move = moves.get(i);
+			int score = Objects.isNull(winner) || winner == ColorEnum.EMPTY ? 0
+					: winner == color ? RESULT_SCORE : -RESULT_SCORE;
+			addMove(board, move, score);
+			board.put(board.indexOf(move), color);
+			color = color == ColorEnum.BLACK ? ColorEnum.WHITE : ColorEnum.BLACK;
+		}
+	}
+
+	/**
+	 * 加入一局棋谱的前 maxMoveNum 步，每一步按最终胜负计分，未结束的对局不加入
+	 *
+	 * @param record     棋谱，见 {@link gobang.record.GameRecordReader}
+	 * @param maxMoveNum 收录的步数
+	 */
+	public void addGame(GameRecord record, int maxMoveNum) {
+		GameResultEnum result = record.getResult();
+		if (result == GameResultEnum.UNFINISHED) {
+			return;
+		}
+		ColorEnum winner = result == GameResultEnum.BLACK_WIN ? ColorEnum.BLACK
+				: result == GameResultEnum.WHITE_WIN ? ColorEnum.WHITE : ColorEnum.EMPTY;
+		BitBoard board = new BitBoard(width, height);
+		for (int i = 0; i < record.getMoveNum() && i < maxMoveNum; i++) {
+			ColorEnum color = record.colorOf(i);
+			Position move = Position.valueOf(record.xOf(i), record.yOf(i));
+			addMove(board, move, winner == ColorEnum.EMPTY ? 0 : winner == color ? RESULT_SCORE : -RESULT_SCORE);
+			board.put(board.indexOf(move), color);
+		}
+	}
+
+	/**
+	 * 用搜索结果展开开局树：每个局面搜索分数最高的 branchNum 个棋位，按名次作为搜索样本加入，
+	 * 再分别落子继续展开，直到棋子数达到 maxMoveNum；对称的局面只展开一次
+	 *
+	 * @param root       起始局面
+	 * @param side       起始局面的落子方
+	 * @param maxMoveNum 展开到的棋子数
+	 * @param branchNum  每个局面展开的棋位数
+	 * @param depth      搜索深度
+	 * @return 展开的局面数
+	 */
+	public int expand(BitBoard root, ColorEnum side, int maxMoveNum, int branchNum, int depth) {
+		if (branchNum <= 0) {
+			throw new IllegalArgumentException("Illegal branch num: " + branchNum);
+		}
+		IncrementalEvaluator evaluator = new IncrementalEvaluator(root);
+		AlphaBetaSearch search = new AlphaBetaSearch(evaluator, AlphaBetaSearch.DEFAULT_WIDTH);
+		return expand(search, side, maxMoveNum, branchNum, depth, new HashSet<>());
+	}
+
+	private int expand(AlphaBetaSearch search, ColorEnum side, int maxMoveNum, int branchNum, int depth,
+					   Set<Long> expanded) {
+		IncrementalEvaluator evaluator = search.getEvaluator();
+		BitBoard board = evaluator.getBoard();
+		if (board.getPieceNum() >= maxMoveNum || !expanded.add(canonicalKey.compute(board))) {
+			return 0;
+		}
+		List<RankedMove> rankedMoves = search.rank(side, depth, branchNum);
+		for (int rank = 0; rank < rankedMoves.size(); rank++) {
+			addRankedMove(board, rankedMoves.get(rank).getPosition(), rank);
+		}
+		ColorEnum opponent = side == ColorEnum.BLACK ? ColorEnum.WHITE : ColorEnum.BLACK;
+		int expandedNum = 1;
+		for (RankedMove rankedMove : rankedMoves) {
+			int index = board.indexOf(rankedMove.getPosition());
+			evaluator.applyMove(index, side);
+			if (!evaluator.getWinDetector().isWin(index, side)) {
+				expandedNum += expand(search, opponent, maxMoveNum, branchNum, depth, expanded);
+			}
+			evaluator.undoMove();
+		}
+		return expandedNum;
+	}
+
+	/**
+	 * 已收集的局面数
+	 */
+	public int getPositionNum() {
+		return positions.size();
+	}
+
+	/**
+	 * 写出开局库文件，已存在时覆盖
+	 *
+	 * @param path 文件路径
+	 * @return 条目数
+	 */
+	public int write(Path path) throws IOException {
+		long[] keys = new long[positions.size()];
+		int keyNum = 0;
+		for (Long key : positions.keySet()) {
+			keys[keyNum++] = key;
+		}
+		Arrays.sort(keys);
+
+		ByteBuffer buffer = ByteBuffer.allocate(OpeningBook.HEADER_LENGTH + keyNum * OpeningBook.ENTRY_LENGTH);
+		buffer.putInt(OpeningBook.MAGIC)
+				.putShort(OpeningBook.VERSION)
+				.put((byte) width)
+				.put((byte) height)
+				.putLong(keyNum);
+		for (long key : keys) {
+			int bestMove = -1;
+			MoveStats best = null;
+			for (Map.Entry<Integer, MoveStats> entry : positions.get(key).entrySet()) {
+				MoveStats stats = entry.getValue();
+				if (Objects.isNull(best) || stats.compareTo(best) > 0
+						|| stats.compareTo(best) == 0 && entry.getKey() < bestMove) {
+					best = stats;
+					bestMove = entry.getKey();
+				}
+			}
+			buffer.putLong(key)
+					.put((byte) (bestMove >>> 8))
+					.put((byte) bestMove)
+					.putShort((short) best.averageScore())
+					.putInt((int) Math.min(Integer.MAX_VALUE, best.gameNum + best.searchNum));
+		}
+		buffer.flip();
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+		return keyNum;
+	}
+
+	/**
+	 * 某个落子的样本统计
+	 */
+	private static class MoveStats implements Comparable<MoveStats> {
+
+		/**
+		 * 棋谱样本数及胜负分之和
+		 */
+		private long gameNum;
+
+		private long scoreSum;
+
+		/**
+		 * 搜索样本数及名次之和
+		 */
+		private long searchNum;
+
+		private long rankSum;
+
+		/**
+		 * @return 棋谱平均分，没有棋谱样本时为 0
+		 */
+		private long averageScore() {
+			return gameNum == 0 ? 0 : scoreSum / gameNum;
+		}
+
+		/**
+		 * 有搜索样本的优先，都有时平均名次小的优先；再比棋谱平均分，平均分相同时样本多的优先
+		 * 平均值用交叉相乘比较，不因整数除法丢掉差别
+		 */
+		@Override
+		public int compareTo(MoveStats o) {
+			int result = Boolean.compare(searchNum > 0, o.searchNum > 0);
+			if (result != 0) {
+				return result;
+			}
+			if (searchNum > 0) {
+				result = Long.compare(o.rankSum * searchNum, rankSum * o.searchNum);
+				if (result != 0) {
+					return result;
+				}
+			}
+			if (gameNum > 0 && o.gameNum > 0) {
+				result = Long.compare(scoreSum * o.gameNum, o.scoreSum * gameNum);
+			} else {
+				result = Long.compare(averageScore(), o.averageScore());
+			}
+			return result != 0 ? result : Long.compare(gameNum, o.gameNum);
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package gobang.book;
+
+import gobang.bean.BitBoard;
+import gobang.bean.ColorEnum;
+import gobang.bean.Position;
+import gobang.tournament.Tournament;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 开局库生成入口
+ * 从天元开局用搜索展开开局树并写出开局库文件
+ * 参数：文件 [展开到的棋子数] [每个局面展开的棋位数] [搜索深度]，例如：gobang.book 8 3 4
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class OpeningBookStarter {
+
+	private static final String DEFAULT_PATH = "gobang.book";
+
+	private static final int DEFAULT_MAX_MOVE_NUM = 8;
+
+	private static final int DEFAULT_BRANCH_NUM = 3;
+
+	private static final int DEFAULT_DEPTH = 4;
+
+	public static void main(String[] args) throws IOException {
+		Path path = Paths.get(args.length > 0 ? args[0] : DEFAULT_PATH);
+		int maxMoveNum = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MAX_MOVE_NUM;
+		int branchNum = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_BRANCH_NUM;
+		int depth = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_DEPTH;
+
+		int size = Tournament.BOARD_SIZE;
+		BitBoard board = new BitBoard(size, size);
+		OpeningBookBuilder builder = new OpeningBookBuilder(size, size);
+		// 空棋盘没有候选棋位，第一步固定下天元
+		builder.addRankedMove(board, Position.valueOf(size / 2, size / 2), 0);
+		board.put(board.indexOf(size / 2, size / 2), ColorEnum.BLACK);
+
+		long start = System.currentTimeMillis();
+		int expandedNum = builder.expand(board, ColorEnum.WHITE, maxMoveNum, branchNum, depth);
+		int entryNum = builder.write(path);
+		System.out.println(String.format("positions=%d, entries=%d, time=%dms, file=%s",
+				expandedNum + 1, entryNum, System.currentTimeMillis() - start, path.toAbsolutePath()));
+	}
+}
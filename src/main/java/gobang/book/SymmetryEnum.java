@@ -0,0 +1,128 @@
+package gobang.book;
+
+/**
+ * 棋盘的 8 种对称变换（4 种旋转 × 是否翻转）
+ * 交换 X、Y 轴的变换只适用于正方形棋盘
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public enum SymmetryEnum {
+
+	/**
+	 * 不变：(x, y)
+	 */
+	IDENTITY,
+
+	/**
+	 * 旋转 180 度：(w - 1 - x, h - 1 - y)
+	 */
+	ROTATE_180,
+
+	/**
+	 * 左右翻转：(w - 1 - x, y)
+	 */
+	MIRROR_X,
+
+	/**
+	 * 上下翻转：(x, h - 1 - y)
+	 */
+	MIRROR_Y,
+
+	/**
+	 * 旋转 90 度：(y, n - 1 - x)
+	 */
+	ROTATE_90,
+
+	/**
+	 * 旋转 270 度：(n - 1 - y, x)
+	 */
+	ROTATE_270,
+
+	/**
+	 * 沿主对角线翻转：(y, x)
+	 */
+	TRANSPOSE,
+
+	/**
+	 * 沿副对角线翻转：(n - 1 - y, n - 1 - x)
+	 */
+	ANTI_TRANSPOSE,
+	;
+
+	private static final SymmetryEnum[] VALUES = values();
+
+	/**
+	 * 变换后的 X 坐标
+	 *
+	 * @param width  X 轴棋位数
+	 * @param height Y 轴棋位数
+	 */
+	public int xOf(int x, int y, int width, int height) {
+		switch (this) {
+			case ROTATE_90:
+			case TRANSPOSE:
+				return y;
+			case ROTATE_180:
+			case MIRROR_X:
+				return width - 1 - x;
+			case ROTATE_270:
+			case ANTI_TRANSPOSE:
+				return height - 1 - y;
+			default:
+				return x;
+		}
+	}
+
+	/**
+	 * 变换后的 Y 坐标
+	 *
+	 * @param width  X 轴棋位数
+	 * @param height Y 轴棋位数
+	 */
+	public int yOf(int x, int y, int width, int height) {
+		switch (this) {
+			case ROTATE_90:
+			case ANTI_TRANSPOSE:
+				return width - 1 - x;
+			case ROTATE_180:
+			case MIRROR_Y:
+				return height - 1 - y;
+			case ROTATE_270:
+			case TRANSPOSE:
+				return x;
+			default:
+				return y;
+		}
+	}
+
+	/**
+	 * 逆变换
+	 */
+	public SymmetryEnum inverse() {
+		switch (this) {
+			case ROTATE_90:
+				return ROTATE_270;
+			case ROTATE_270:
+				return ROTATE_90;
+			default:
+				return this;
+		}
+	}
+
+	/**
+	 * @return true：变换会交换 X、Y 轴
+	 */
+	public boolean swapsAxes() {
+		return this == ROTATE_90 || this == ROTATE_270 || this == TRANSPOSE || this == ANTI_TRANSPOSE;
+	}
+
+	/**
+	 * 某尺寸棋盘可用的变换数，可用的变换排在 {@link #values()} 前面
+	 *
+	 * @return 正方形棋盘为 8，否则为 4
+	 */
+	public static int applicableNum(int width, int height) {
+		return width == height ? VALUES.length : VALUES.length / 2;
+	}
+}
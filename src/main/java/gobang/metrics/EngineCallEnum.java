@@ -0,0 +1,21 @@
+package gobang.metrics;
+
+/**
+ * 引擎调用类型，每种调用单独统计延迟
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public enum EngineCallEnum {
+
+	/**
+	 * 逻辑AI打分
+	 */
+	LOGIC,
+
+	/**
+	 * 限时搜索
+	 */
+	SEARCH,
+	;
+}
@@ -0,0 +1,52 @@
+package gobang.metrics;
+
+/**
+ * 引擎指标，默认实现都是空操作，只实现关心的指标即可
+ * 实现需线程安全，引擎可能在多个线程中同时调用
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public interface EngineMetrics {
+
+	/**
+	 * 不记录任何指标
+	 */
+	EngineMetrics NOOP = new EngineMetrics() {
+	};
+
+	/**
+	 * 记录一次调用的耗时
+	 *
+	 * @param call  调用类型
+	 * @param nanos 纳秒
+	 */
+	default void recordLatency(EngineCallEnum call, long nanos) {
+	}
+
+	/**
+	 * 累加打分的棋位数
+	 */
+	default void addScoredPositions(long num) {
+	}
+
+	/**
+	 * 累加棋型查表次数
+	 */
+	default void addPatternLookups(long num) {
+	}
+
+	/**
+	 * 累加搜索节点数及搜索耗时，用于计算每秒节点数
+	 */
+	default void addSearchNodes(long nodeNum, long nanos) {
+	}
+
+	/**
+	 * 记录一次后台思考的猜测结果
+	 *
+	 * @param hit true：猜中对方应手
+	 */
+	default void addPonderResult(boolean hit) {
+	}
+}
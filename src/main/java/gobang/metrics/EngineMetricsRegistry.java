@@ -0,0 +1,114 @@
+package gobang.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 内存中的指标汇总：每种调用一个延迟直方图，外加计数器，供定时导出到监控
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class EngineMetricsRegistry implements EngineMetrics {
+
+	private final Map<EngineCallEnum, LatencyHistogram> latencies = new EnumMap<>(EngineCallEnum.class);
+
+	private final LongAdder scoredPositionNum = new LongAdder();
+
+	private final LongAdder patternLookupNum = new LongAdder();
+
+	private final LongAdder searchNodeNum = new LongAdder();
+
+	private final LongAdder searchNanos = new LongAdder();
+
+	private final LongAdder ponderHitNum = new LongAdder();
+
+	private final LongAdder ponderMissNum = new LongAdder();
+
+	public EngineMetricsRegistry() {
+		for (EngineCallEnum call : EngineCallEnum.values()) {
+			latencies.put(call, new LatencyHistogram());
+		}
+	}
+
+	@Override
+	public void recordLatency(EngineCallEnum call, long nanos) {
+		latencies.get(call).record(nanos);
+	}
+
+	@Override
+	public void addScoredPositions(long num) {
+		scoredPositionNum.add(num);
+	}
+
+	@Override
+	public void addPatternLookups(long num) {
+		patternLookupNum.add(num);
+	}
+
+	@Override
+	public void addSearchNodes(long nodeNum, long nanos) {
+		searchNodeNum.add(nodeNum);
+		searchNanos.add(nanos);
+	}
+
+	@Override
+	public void addPonderResult(boolean hit) {
+		(hit ? ponderHitNum : ponderMissNum).increment();
+	}
+
+	public LatencyHistogram getLatency(EngineCallEnum call) {
+		return latencies.get(call);
+	}
+
+	public long getScoredPositionNum() {
+		return scoredPositionNum.sum();
+	}
+
+	public long getPatternLookupNum() {
+		return patternLookupNum.sum();
+	}
+
+	public long getSearchNodeNum() {
+		return searchNodeNum.sum();
+	}
+
+	/**
+	 * 搜索期间的平均每秒节点数
+	 */
+	public double getNodesPerSecond() {
+		long nanos = searchNanos.sum();
+		return nanos == 0 ? 0 : searchNodeNum.sum() * 1e9 / nanos;
+	}
+
+	public long getPonderHitNum() {
+		return ponderHitNum.sum();
+	}
+
+	public long getPonderMissNum() {
+		return ponderMissNum.sum();
+	}
+
+	public void reset() {
+		latencies.values().forEach(LatencyHistogram::reset);
+		scoredPositionNum.reset();
+		patternLookupNum.reset();
+		searchNodeNum.reset();
+		searchNanos.reset();
+		ponderHitNum.reset();
+		ponderMissNum.reset();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		for (Map.Entry<EngineCallEnum, LatencyHistogram> entry : latencies.entrySet()) {
+			builder.append(entry.getKey()).append(": ").append(entry.getValue()).append('\n');
+		}
+		return builder.append(String.format("scoredPositions=%d, patternLookups=%d, searchNodes=%d, nodes/s=%.0f, ponderHit/Miss=%d/%d",
+				getScoredPositionNum(), getPatternLookupNum(), getSearchNodeNum(), getNodesPerSecond(),
+				getPonderHitNum(), getPonderMissNum()))
+				.toString();
+	}
+}
@@ -0,0 +1,135 @@
+package gobang.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 延迟直方图（纳秒）
+ * 按 2 的幂分段，每段再等分成 16 个桶，相对误差不超过 1/16；
+ * 记录只做一次原子加，不分配对象，可多线程并发记录
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class LatencyHistogram {
+
+	/**
+	 * 每段桶数的位数
+	 */
+	private static final int SUB_BUCKET_BITS = 4;
+
+	private static final int SUB_BUCKET_NUM = 1 << SUB_BUCKET_BITS;
+
+	private static final int BUCKET_NUM = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKET_NUM;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_NUM);
+
+	private final LongAdder count = new LongAdder();
+
+	private final LongAdder sum = new LongAdder();
+
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * 记录一次延迟
+	 *
+	 * @param nanos 纳秒，负数按 0 记录
+	 */
+	public void record(long nanos) {
+		long value = Math.max(0, nanos);
+		buckets.incrementAndGet(bucketOf(value));
+		count.increment();
+		sum.add(value);
+		if (value > max.get()) {
+			max.accumulateAndGet(value, Math::max);
+		}
+	}
+
+	public long getCount() {
+		return count.sum();
+	}
+
+	public long getMaxNanos() {
+		return max.get();
+	}
+
+	public double getMeanNanos() {
+		long n = count.sum();
+		return n == 0 ? 0 : (double) sum.sum() / n;
+	}
+
+	/**
+	 * 分位数
+	 *
+	 * @param quantile 0 ~ 1，如 0.99
+	 * @return 所在桶的下界（纳秒），没有记录时为 0
+	 */
+	public long getQuantileNanos(double quantile) {
+		if (quantile < 0 || quantile > 1) {
+			throw new IllegalArgumentException("Illegal quantile: " + quantile);
+		}
+		long total = 0;
+		for (int i = 0; i < BUCKET_NUM; i++) {
+			total += buckets.get(i);
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(quantile * total));
+		long seen = 0;
+		for (int i = 0; i < BUCKET_NUM; i++) {
+			seen += buckets.get(i);
+			if (seen >= rank) {
+				return Math.min(lowerBoundOf(i), max.get());
+			}
+		}
+		return max.get();
+	}
+
+	public long getP50Nanos() {
+		return getQuantileNanos(0.5);
+	}
+
+	public long getP99Nanos() {
+		return getQuantileNanos(0.99);
+	}
+
+	public long getP999Nanos() {
+		return getQuantileNanos(0.999);
+	}
+
+	public void reset() {
+		for (int i = 0; i < BUCKET_NUM; i++) {
+			buckets.set(i, 0);
+		}
+		count.reset();
+		sum.reset();
+		max.set(0);
+	}
+
+	private static int bucketOf(long value) {
+		if (value < SUB_BUCKET_NUM) {
+			return (int) value;
+		}
+		int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_NUM - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_NUM + subBucket;
+	}
+
+	private static long lowerBoundOf(int bucket) {
+		if (bucket < SUB_BUCKET_NUM) {
+			return bucket;
+		}
+		int exponent = bucket / SUB_BUCKET_NUM + SUB_BUCKET_BITS - 1;
+		long subBucket = bucket % SUB_BUCKET_NUM;
+		return (1L << exponent) | (subBucket << (exponent - SUB_BUCKET_BITS));
+	}
+
+	@Override
+	public String toString() {
+		return String.format("count=%d, mean=%.1fus, p50=%.1fus, p99=%.1fus, p999=%.1fus, max=%.1fus",
+				getCount(), getMeanNanos() / 1e3, getP50Nanos() / 1e3, getP99Nanos() / 1e3,
+				getP999Nanos() / 1e3, getMaxNanos() / 1e3);
+	}
+}
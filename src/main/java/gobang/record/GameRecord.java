@@ -0,0 +1,171 @@
+package gobang.record;
+
+import gobang.bean.ColorEnum;
+import gobang.bean.Position;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 棋谱
+ * 从空棋盘开始，双方轮流落子，每一步用一个字节记录棋位编号 x * height + y，
+ * 所以棋盘棋位数不能超过 256；局头中宽、高各占一个无符号字节，单边不能超过 255；读取大量棋谱时可以反复使用同一个对象
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class GameRecord {
+
+	/**
+	 * 棋盘棋位数上限
+	 */
+	public static final int MAX_CELL_NUM = 1 << Byte.SIZE;
+
+	/**
+	 * 单边棋位数上限
+	 */
+	public static final int MAX_SIZE = (1 << Byte.SIZE) - 1;
+
+	private int width;
+
+	private int height;
+
+	/**
+	 * 先行方
+	 */
+	private ColorEnum startColor;
+
+	private GameResultEnum result;
+
+	/**
+	 * 棋位编号，无符号字节
+	 */
+	private final byte[] moves = new byte[MAX_CELL_NUM];
+
+	private int moveNum;
+
+	/**
+	 * @param width      X 轴棋位数
+	 * @param height     Y 轴棋位数
+	 * @param startColor 先行方
+	 */
+	public GameRecord(int width, int height, ColorEnum startColor) {
+		reset(width, height, startColor, GameResultEnum.UNFINISHED);
+	}
+
+	/**
+	 * 空棋谱，用于 {@link GameRecordReader#read(GameRecord)}
+	 */
+	public GameRecord() {
+		this(1, 1, ColorEnum.BLACK);
+	}
+
+	/**
+	 * 清空落子，重新设置棋盘和结果
+	 */
+	void reset(int width, int height, ColorEnum startColor, GameResultEnum result) {
+		if (width <= 0 || height <= 0 || width > MAX_SIZE || height > MAX_SIZE || width * height > MAX_CELL_NUM) {
+			throw new IllegalArgumentException("Illegal board size: " + width + "x" + height);
+		}
+		if (startColor != ColorEnum.BLACK && startColor != ColorEnum.WHITE) {
+			throw new IllegalArgumentException("Illegal start color: " + startColor);
+		}
+		this.width = width;
+		this.height = height;
+		this.startColor = startColor;
+		this.result = Objects.requireNonNull(result);
+		this.moveNum = 0;
+	}
+
+	/**
+	 * 记录下一步，落子方按先行方轮流
+	 */
+	public void addMove(int x, int y) {
+		if (x < 0 || x >= width || y < 0 || y >= height) {
+			throw new IllegalArgumentException("Position out of board: " + x + "_" + y);
+		}
+		if (moveNum == width * height) {
+			throw new IllegalStateException("Board is full.");
+		}
+		moves[moveNum++] = (byte) (x * height + y);
+	}
+
+	public void addMove(Position position) {
+		addMove(position.getX(), position.getY());
+	}
+
+	/**
+	 * 第 i 步的棋位编号
+	 */
+	public int cellOf(int i) {
+		return moves[i] & 0xFF;
+	}
+
+	public int xOf(int i) {
+		return cellOf(i) / height;
+	}
+
+	public int yOf(int i) {
+		return cellOf(i) % height;
+	}
+
+	/**
+	 * 第 i 步的落子方
+	 */
+	public ColorEnum colorOf(int i) {
+		if ((i & 1) == 0) {
+			return startColor;
+		}
+		return startColor == ColorEnum.BLACK ? ColorEnum.WHITE : ColorEnum.BLACK;
+	}
+
+	/**
+	 * @return 新列表
+	 */
+	public List<Position> getPositions() {
+		List<Position> positions = new ArrayList<>(moveNum);
+		for (int i = 0; i < moveNum; i++) {
+			positions.add(Position.valueOf(xOf(i), yOf(i)));
+		}
+		return positions;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public ColorEnum getStartColor() {
+		return startColor;
+	}
+
+	public GameResultEnum getResult() {
+		return result;
+	}
+
+	public void setResult(GameResultEnum result) {
+		this.result = Objects.requireNonNull(result);
+	}
+
+	public int getMoveNum() {
+		return moveNum;
+	}
+
+	/**
+	 * 落子数组，供读写器直接拷贝
+	 */
+	byte[] moves() {
+		return moves;
+	}
+
+	/**
+	 * 读取时直接设置落子数
+	 */
+	void setMoveNum(int moveNum) {
+		this.moveNum = moveNum;
+	}
+}
@@ -0,0 +1,151 @@
+package gobang.record;
+
+import gobang.bean.ColorEnum;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static gobang.record.GameRecordWriter.*;
+
+/**
+ * 棋谱流式读取，文件格式见 {@link GameRecordWriter}
+ * 按顺序整块读入直接缓冲区再逐局解码，文件大小不受限制；
+ * {@link #read(GameRecord)} 反复使用同一个棋谱对象时不分配对象。不是线程安全的
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class GameRecordReader implements Closeable {
+
+	private static final ColorEnum[] COLORS = ColorEnum.values();
+
+	private static final GameResultEnum[] RESULTS = GameResultEnum.values();
+
+	private final ReadableByteChannel channel;
+
+	private final ByteBuffer buffer;
+
+	/**
+	 * true：通道已读完
+	 */
+	private boolean endOfChannel;
+
+	private long gameNum;
+
+	/**
+	 * @param channel 读取通道，读取器关闭时一起关闭
+	 * @throws IOException 读取失败或不是棋谱文件
+	 */
+	public GameRecordReader(ReadableByteChannel channel) throws IOException {
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocateDirect(DEFAULT_BUFFER_SIZE);
+		buffer.flip();
+		if (!fill(FILE_HEADER_LENGTH) || buffer.getInt() != MAGIC) {
+			throw new IOException("Not a game record file.");
+		}
+		short version = buffer.getShort();
+		if (version != VERSION) {
+			throw new IOException("Unsupported game record version: " + version);
+		}
+	}
+
+	public static GameRecordReader open(Path path) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			return new GameRecordReader(channel);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * 读取下一局到 record
+	 *
+	 * @param record 读取结果，原有内容被覆盖
+	 * @return false：已读完
+	 * @throws IOException 读取失败或文件内容不完整、不合法
+	 */
+	public boolean read(GameRecord record) throws IOException {
+		if (!fill(RECORD_HEADER_LENGTH)) {
+			if (buffer.hasRemaining()) {
+				throw new EOFException("Truncated game record header after game " + gameNum);
+			}
+			return false;
+		}
+		int width = buffer.get() & 0xFF;
+		int height = buffer.get() & 0xFF;
+		int flags = buffer.get() & 0xFF;
+		int moveNum = buffer.getShort() & 0xFFFF;
+		int colorOrdinal = flags & ((1 << COLOR_BITS) - 1);
+		int resultOrdinal = flags >>> COLOR_BITS;
+		if (colorOrdinal >= COLORS.length || resultOrdinal >= RESULTS.length || moveNum > width * height) {
+			throw new IOException("Corrupt game record header at game " + gameNum);
+		}
+		try {
+			record.reset(width, height, COLORS[colorOrdinal], RESULTS[resultOrdinal]);
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Corrupt game record header at game " + gameNum, e);
+		}
+		if (!fill(moveNum)) {
+			throw new EOFException("Truncated game record moves at game " + gameNum);
+		}
+		buffer.get(record.moves(), 0, moveNum);
+		int cellNum = width * height;
+		for (int i = 0; i < moveNum; i++) {
+			if (record.cellOf(i) >= cellNum) {
+				throw new IOException("Cell out of board at game " + gameNum + ", move " + i);
+			}
+		}
+		record.setMoveNum(moveNum);
+		gameNum++;
+		return true;
+	}
+
+	/**
+	 * 读取下一局
+	 *
+	 * @return null：已读完
+	 */
+	public GameRecord read() throws IOException {
+		GameRecord record = new GameRecord();
+		return read(record) ? record : null;
+	}
+
+	/**
+	 * 已读取的局数
+	 */
+	public long getGameNum() {
+		return gameNum;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * 保证缓冲区中至少有 length 字节未读
+	 *
+	 * @return false：通道已读完，剩余字节不够
+	 */
+	private boolean fill(int length) throws IOException {
+		if (buffer.remaining() >= length) {
+			return true;
+		}
+		buffer.compact();
+		while (buffer.position() < length && !endOfChannel) {
+			if (channel.read(buffer) < 0) {
+				endOfChannel = true;
+			}
+		}
+		buffer.flip();
+		return buffer.remaining() >= length;
+	}
+}
@@ -0,0 +1,114 @@
+package gobang.record;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 棋谱流式写入
+ * 棋谱先编码到直接缓冲区，缓冲区满时整块写入通道，文件大小不受限制。
+ * 文件格式（大端）：
+ * <pre>
+ * 文件头 6 字节：int 魔数 | short 版本
+ * 每局棋谱：byte 宽 | byte 高 | byte 先行方及结果 | short 步数 | byte[步数] 棋位编号
+ * </pre>
+ * 先行方及结果：低 2 位为先行方 {@link gobang.bean.ColorEnum#ordinal()}，往上 2 位为 {@link GameResultEnum#ordinal()}。
+ * 不是线程安全的
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class GameRecordWriter implements Closeable {
+
+	/**
+	 * 魔数："GOGR"
+	 */
+	static final int MAGIC = 0x474F4752;
+
+	static final short VERSION = 1;
+
+	static final int FILE_HEADER_LENGTH = 6;
+
+	static final int RECORD_HEADER_LENGTH = 5;
+
+	/**
+	 * 先行方占的位数
+	 */
+	static final int COLOR_BITS = 2;
+
+	static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+	private final WritableByteChannel channel;
+
+	private final ByteBuffer buffer;
+
+	private long gameNum;
+
+	/**
+	 * @param channel 写入通道，写入器关闭时一起关闭
+	 */
+	public GameRecordWriter(WritableByteChannel channel) {
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocateDirect(DEFAULT_BUFFER_SIZE);
+		buffer.putInt(MAGIC).putShort(VERSION);
+	}
+
+	/**
+	 * 创建棋谱文件，已存在时覆盖
+	 */
+	public static GameRecordWriter open(Path path) throws IOException {
+		return new GameRecordWriter(FileChannel.open(path, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+	}
+
+	/**
+	 * 写入一局棋谱
+	 */
+	public void write(GameRecord record) throws IOException {
+		int moveNum = record.getMoveNum();
+		if (buffer.remaining() < RECORD_HEADER_LENGTH + moveNum) {
+			flushBuffer();
+		}
+		buffer.put((byte) record.getWidth())
+				.put((byte) record.getHeight())
+				.put((byte) (record.getStartColor().ordinal() | record.getResult().ordinal() << COLOR_BITS))
+				.putShort((short) moveNum)
+				.put(record.moves(), 0, moveNum);
+		gameNum++;
+	}
+
+	/**
+	 * 把缓冲区中的棋谱写入通道
+	 */
+	public void flush() throws IOException {
+		flushBuffer();
+	}
+
+	/**
+	 * 已写入的局数
+	 */
+	public long getGameNum() {
+		return gameNum;
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			flushBuffer();
+		} finally {
+			channel.close();
+		}
+	}
+
+	private void flushBuffer() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+}
@@ -0,0 +1,60 @@
+package gobang.record;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 棋谱回放校验入口
+ * 参数：棋谱文件，顺序读取并校验每一局，最后输出各结果的局数、每秒局数和读取速度
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class GameReplayStarter {
+
+	public static void main(String[] args) throws IOException {
+		if (args.length == 0) {
+			System.out.println("Usage: GameReplayStarter <game record file>");
+			return;
+		}
+		Path path = Paths.get(args[0]);
+		GameRecord record = new GameRecord();
+		GameReplayer replayer = new GameReplayer();
+		long[] replayCounts = new long[ReplayResultEnum.values().length];
+		long[] resultCounts = new long[GameResultEnum.values().length];
+		long moveNum = 0;
+		long start = System.nanoTime();
+		try (GameRecordReader reader = GameRecordReader.open(path)) {
+			while (reader.read(record)) {
+				ReplayResultEnum replayResult = replayer.validate(record);
+				replayCounts[replayResult.ordinal()]++;
+				if (replayResult != ReplayResultEnum.VALID) {
+					System.out.println(String.format("game %d: %s", reader.getGameNum() - 1, replayResult));
+				}
+				resultCounts[record.getResult().ordinal()]++;
+				moveNum += record.getMoveNum();
+			}
+		}
+		double seconds = Math.max(1, System.nanoTime() - start) / 1e9;
+
+		Map<ReplayResultEnum, Long> replaySummary = new EnumMap<>(ReplayResultEnum.class);
+		for (ReplayResultEnum replayResult : ReplayResultEnum.values()) {
+			replaySummary.put(replayResult, replayCounts[replayResult.ordinal()]);
+		}
+		Map<GameResultEnum, Long> resultSummary = new EnumMap<>(GameResultEnum.class);
+		for (GameResultEnum result : GameResultEnum.values()) {
+			resultSummary.put(result, resultCounts[result.ordinal()]);
+		}
+		long gameNum = 0;
+		for (long count : replayCounts) {
+			gameNum += count;
+		}
+		System.out.println(String.format("games=%d, moves=%d, %s, %s", gameNum, moveNum, replaySummary, resultSummary));
+		System.out.println(String.format("games/s=%.0f, MB/s=%.1f",
+				gameNum / seconds, Files.size(path) / seconds / (1 << 20)));
+	}
+}
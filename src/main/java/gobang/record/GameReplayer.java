@@ -0,0 +1,84 @@
+package gobang.record;
+
+import gobang.algorithm.RenjuAlgorithms;
+import gobang.bean.BitBoard;
+import gobang.bean.ColorEnum;
+
+import java.util.Objects;
+
+/**
+ * 棋谱回放校验
+ * 在位棋盘上逐步落子，用 {@link RenjuAlgorithms#isWinMove} 判断连五，检查落子是否合法、结果是否与记录一致；
+ * 同尺寸棋盘反复使用，回放结束后撤销落子，不分配对象。不是线程安全的
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class GameReplayer {
+
+	private BitBoard board;
+
+	/**
+	 * 回放中已落子的棋位下标，用于撤销
+	 */
+	private final int[] indexes = new int[GameRecord.MAX_CELL_NUM];
+
+	/**
+	 * 回放并校验一局棋谱
+	 *
+	 * @param record 棋谱
+	 * @return nonNull
+	 */
+	public ReplayResultEnum validate(GameRecord record) {
+		BitBoard board = boardOf(record.getWidth(), record.getHeight());
+		int moveNum = record.getMoveNum();
+		int playedNum = 0;
+		ColorEnum winner = ColorEnum.EMPTY;
+		ReplayResultEnum result = null;
+		for (int i = 0; i < moveNum; i++) {
+			if (winner != ColorEnum.EMPTY) {
+				result = ReplayResultEnum.MOVE_AFTER_WIN;
+				break;
+			}
+			int index = board.indexOf(record.xOf(i), record.yOf(i));
+			if (!board.isEmpty(index)) {
+				result = ReplayResultEnum.OCCUPIED;
+				break;
+			}
+			ColorEnum color = record.colorOf(i);
+			board.put(index, color);
+			indexes[playedNum++] = index;
+			if (RenjuAlgorithms.isWinMove(board, color, index)) {
+				winner = color;
+			}
+		}
+		for (int i = 0; i < playedNum; i++) {
+			board.remove(indexes[i]);
+		}
+		if (Objects.nonNull(result)) {
+			return result;
+		}
+		return winner == winnerOf(record.getResult()) ? ReplayResultEnum.VALID : ReplayResultEnum.RESULT_MISMATCH;
+	}
+
+	/**
+	 * 记录的结果对应的胜方，没有胜方为 {@link ColorEnum#EMPTY}
+	 */
+	private static ColorEnum winnerOf(GameResultEnum result) {
+		switch (result) {
+			case BLACK_WIN:
+				return ColorEnum.BLACK;
+			case WHITE_WIN:
+				return ColorEnum.WHITE;
+			default:
+				return ColorEnum.EMPTY;
+		}
+	}
+
+	private BitBoard boardOf(int width, int height) {
+		if (Objects.isNull(board) || board.getWidth() != width || board.getHeight() != height) {
+			board = new BitBoard(width, height);
+		}
+		return board;
+	}
+}
@@ -0,0 +1,31 @@
+package gobang.record;
+
+/**
+ * 对局结果
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public enum GameResultEnum {
+
+	/**
+	 * 未结束
+	 */
+	UNFINISHED,
+
+	/**
+	 * 黑方胜
+	 */
+	BLACK_WIN,
+
+	/**
+	 * 白方胜
+	 */
+	WHITE_WIN,
+
+	/**
+	 * 和棋
+	 */
+	DRAW,
+	;
+}
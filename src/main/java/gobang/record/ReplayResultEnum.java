@@ -0,0 +1,31 @@
+package gobang.record;
+
+/**
+ * 棋谱回放校验结果
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public enum ReplayResultEnum {
+
+	/**
+	 * 合法
+	 */
+	VALID,
+
+	/**
+	 * 落子在已有棋子的棋位
+	 */
+	OCCUPIED,
+
+	/**
+	 * 已经连五后还有落子
+	 */
+	MOVE_AFTER_WIN,
+
+	/**
+	 * 记录的结果与回放不一致：连五方不是记录的胜方，或没有连五却记录了胜负
+	 */
+	RESULT_MISMATCH,
+	;
+}
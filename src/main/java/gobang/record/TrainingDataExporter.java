@@ -0,0 +1,89 @@
+package gobang.record;
+
+import gobang.bean.ColorEnum;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Objects;
+
+/**
+ * 神经网络训练数据导出
+ * 已结束的棋谱每一步落子前的局面写成一行样本：
+ * <pre>
+ * 结果 本方棋位编号 对方棋位编号
+ * </pre>
+ * 「本方」为该局面的落子方，结果对落子方：胜 1，负 -1，和 0；棋位编号 x * height + y 用逗号分隔，没有棋子时为 -。
+ * 编号与 {@link gobang.algorithm.ai.NnueNetwork} 的输入特征一致：本方棋子为编号，对方棋子为棋位数 + 编号。不是线程安全的
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class TrainingDataExporter {
+
+	private final Writer writer;
+
+	/**
+	 * 每行样本复用
+	 */
+	private final StringBuilder line = new StringBuilder();
+
+	private long sampleNum;
+
+	/**
+	 * @param writer 输出，由调用者关闭，建议带缓冲
+	 */
+	public TrainingDataExporter(Writer writer) {
+		this.writer = Objects.requireNonNull(writer);
+	}
+
+	/**
+	 * 导出一局棋谱的所有局面
+	 *
+	 * @param record 棋谱
+	 * @return 样本数，未结束的对局为 0
+	 */
+	public int export(GameRecord record) throws IOException {
+		GameResultEnum result = record.getResult();
+		if (result == GameResultEnum.UNFINISHED) {
+			return 0;
+		}
+		ColorEnum winner = result == GameResultEnum.BLACK_WIN ? ColorEnum.BLACK
+				: result == GameResultEnum.WHITE_WIN ? ColorEnum.WHITE : ColorEnum.EMPTY;
+		int moveNum = record.getMoveNum();
+		for (int i = 0; i < moveNum; i++) {
+			ColorEnum side = record.colorOf(i);
+			line.setLength(0);
+			line.append(winner == ColorEnum.EMPTY ? 0 : winner == side ? 1 : -1).append(' ');
+			appendCells(record, i, side);
+			line.append(' ');
+			appendCells(record, i, side == ColorEnum.BLACK ? ColorEnum.WHITE : ColorEnum.BLACK);
+			line.append('\n');
+			writer.append(line);
+		}
+		sampleNum += moveNum;
+		return moveNum;
+	}
+
+	/**
+	 * 前 moveNum 步中某一方的棋位编号
+	 */
+	private void appendCells(GameRecord record, int moveNum, ColorEnum color) {
+		int start = line.length();
+		for (int i = record.colorOf(0) == color ? 0 : 1; i < moveNum; i += 2) {
+			if (line.length() > start) {
+				line.append(',');
+			}
+			line.append(record.cellOf(i));
+		}
+		if (line.length() == start) {
+			line.append('-');
+		}
+	}
+
+	/**
+	 * 已导出的样本数
+	 */
+	public long getSampleNum() {
+		return sampleNum;
+	}
+}
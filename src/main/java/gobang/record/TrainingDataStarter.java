@@ -0,0 +1,39 @@
+package gobang.record;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * 训练数据导出入口
+ * 参数：棋谱文件 输出文件，把自对弈棋谱（如 TournamentStarter 第 7 个参数写出的文件）转成 {@link TrainingDataExporter} 格式的样本
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class TrainingDataStarter {
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.out.println("Usage: TrainingDataStarter <game record file> <output file>");
+			return;
+		}
+		GameRecord record = new GameRecord();
+		long gameNum = 0;
+		long start = System.nanoTime();
+		try (GameRecordReader reader = GameRecordReader.open(Paths.get(args[0]));
+			 BufferedWriter writer = Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8)) {
+			TrainingDataExporter exporter = new TrainingDataExporter(writer);
+			while (reader.read(record)) {
+				if (exporter.export(record) > 0) {
+					gameNum++;
+				}
+			}
+			double seconds = Math.max(1, System.nanoTime() - start) / 1e9;
+			System.out.println(String.format("games=%d, samples=%d, samples/s=%.0f",
+					gameNum, exporter.getSampleNum(), exporter.getSampleNum() / seconds));
+		}
+	}
+}
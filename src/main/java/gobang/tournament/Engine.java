@@ -0,0 +1,367 @@
+package gobang.tournament;
+
+import gobang.algorithm.ai.AiAlgorithms;
+import gobang.algorithm.ai.AlphaBetaSearch;
+import gobang.algorithm.ai.EngineSession;
+import gobang.algorithm.ai.MonteCarloSearch;
+import gobang.algorithm.ai.NnueNetwork;
+import gobang.algorithm.ai.PatternWeights;
+import gobang.bean.BitBoard;
+import gobang.bean.ColorEnum;
+import gobang.bean.Position;
+import gobang.book.OpeningBook;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 对局引擎
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+@FunctionalInterface
+public interface Engine {
+
+	/**
+	 * 计算下棋坐标，调用结束时棋盘不变
+	 *
+	 * @param board         位棋盘
+	 * @param ownColor      本方棋色
+	 * @param opponentColor 对方棋色
+	 * @return null：棋盘下满
+	 */
+	Position checkChessPosition(BitBoard board, ColorEnum ownColor, ColorEnum opponentColor);
+
+	/**
+	 * 棋盘上落了一子（包括开局、本方和对方），有状态的引擎据此增量更新
+	 *
+	 * @param position 棋位
+	 * @param color    棋色
+	 */
+	default void played(Position position, ColorEnum color) {
+	}
+
+	/**
+	 * 对局结束，之后不再调用该引擎，持有可复用资源的引擎据此归还
+	 */
+	default void finished() {
+	}
+
+	/**
+	 * 按配置创建引擎
+	 * <ul>
+	 * <li>logic：逻辑AI，{@link AiAlgorithms#checkChessPosition(BitBoard, ColorEnum, ColorEnum)}</li>
+	 * <li>search:毫秒：限时迭代加深搜索</li>
+	 * <li>depth:深度：固定深度搜索</li>
+	 * <li>session：逻辑AI，整局使用同一个 {@link EngineSession}</li>
+	 * <li>session:棋型得分文件：同上，使用文件中的棋型得分，见 {@link PatternWeights#load}</li>
+	 * <li>book:开局库文件:引擎配置：先查开局库，没有收录时用后面的引擎，如 book:gobang.book:search:20</li>
+	 * <li>nnue:网络文件:毫秒：限时搜索，整局使用同一个 {@link EngineSession}，叶子局面用神经网络评估，见 {@link NnueNetwork}</li>
+	 * <li>mcts:毫秒[:线程数[:节点数]]：限时蒙特卡洛树搜索，整局复用同一棵树，节点池跨对局复用，见 {@link MonteCarloSearch}</li>
+	 * </ul>
+	 *
+	 * @param spec 配置
+	 * @return nonNull
+	 */
+	static Engine valueOf(String spec) {
+		Objects.requireNonNull(spec);
+		String[] parts = spec.split(":", 2);
+		switch (parts[0]) {
+			case "logic":
+				return AiAlgorithms::checkChessPosition;
+			case "search":
+				long timeBudgetMillis = Long.parseLong(parts[1]);
+				return (board, ownColor, opponentColor) -> AiAlgorithms
+						.checkChessPosition(board.toBoardInfo(), ownColor, opponentColor, timeBudgetMillis)
+						.getPosition();
+			case "depth":
+				int depth = Integer.parseInt(parts[1]);
+				return (board, ownColor, opponentColor) -> new AlphaBetaSearch(new BitBoard(board))
+						.search(ownColor, depth)
+						.getPosition();
+			case "session":
+				return parts.length == 1 ? new SessionEngine() : new SessionEngine(SessionEngine.load(parts[1]));
+			case "book":
+				String[] bookParts = parts[1].split(":", 2);
+				return new BookEngine(BookEngine.open(bookParts[0]), valueOf(bookParts[1]));
+			case "nnue":
+				int separator = parts[1].lastIndexOf(':');
+				return new NetworkEngine(NetworkEngine.load(parts[1].substring(0, separator)),
+						Long.parseLong(parts[1].substring(separator + 1)));
+			case "mcts":
+				String[] mctsParts = parts[1].split(":");
+				return new MonteCarloEngine(Long.parseLong(mctsParts[0]),
+						mctsParts.length > 1 ? Integer.parseInt(mctsParts[1]) : 1,
+						mctsParts.length > 2 ? Integer.parseInt(mctsParts[2]) : MonteCarloSearch.DEFAULT_NODE_CAPACITY);
+			default:
+				throw new IllegalArgumentException("Unknown engine: " + spec);
+		}
+	}
+
+	/**
+	 * 会话引擎：第一次计算时按当时的局面创建会话，之后只根据落子通知增量更新
+	 */
+	class SessionEngine implements Engine {
+
+		/**
+		 * 文件路径-棋型得分，同一个文件只加载一次
+		 */
+		private static final Map<String, PatternWeights> WEIGHTS = new ConcurrentHashMap<>();
+
+		/**
+		 * null：使用 {@link AiAlgorithms#setPatternWeights} 设置的得分
+		 */
+		private final PatternWeights patternWeights;
+
+		private EngineSession session;
+
+		public SessionEngine() {
+			this(null);
+		}
+
+		/**
+		 * @param patternWeights 棋型得分，null：使用 {@link AiAlgorithms#setPatternWeights} 设置的得分
+		 */
+		public SessionEngine(PatternWeights patternWeights) {
+			this.patternWeights = patternWeights;
+		}
+
+		@Override
+		public Position checkChessPosition(BitBoard board, ColorEnum ownColor, ColorEnum opponentColor) {
+			if (Objects.isNull(session)) {
+				session = Objects.isNull(patternWeights) ? new EngineSession(board, ownColor)
+						: new EngineSession(board, ownColor, ThreadLocalRandom.current().nextLong(), patternWeights);
+			}
+			return session.bestMove();
+		}
+
+		@Override
+		public void played(Position position, ColorEnum color) {
+			if (Objects.isNull(session)) {
+				return;
+			}
+			if (color == session.getOwnColor()) {
+				session.play(position);
+			} else {
+				session.opponentPlayed(position);
+			}
+		}
+
+		private static PatternWeights load(String path) {
+			return WEIGHTS.computeIfAbsent(path, key -> {
+				try {
+					return PatternWeights.load(Paths.get(key));
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		}
+	}
+
+	/**
+	 * 开局库引擎：开局库收录的局面直接走库中的棋，否则交给后备引擎
+	 */
+	class BookEngine implements Engine {
+
+		/**
+		 * 文件路径-开局库，同一个文件只映射一次，所有对局共享
+		 */
+		private static final Map<String, OpeningBook> BOOKS = new ConcurrentHashMap<>();
+
+		private final OpeningBook book;
+
+		private final Engine fallback;
+
+		public BookEngine(OpeningBook book, Engine fallback) {
+			this.book = Objects.requireNonNull(book);
+			this.fallback = Objects.requireNonNull(fallback);
+		}
+
+		@Override
+		public Position checkChessPosition(BitBoard board, ColorEnum ownColor, ColorEnum opponentColor) {
+			Position position = book.probe(board);
+			return Objects.nonNull(position) ? position : fallback.checkChessPosition(board, ownColor, opponentColor);
+		}
+
+		@Override
+		public void played(Position position, ColorEnum color) {
+			fallback.played(position, color);
+		}
+
+		@Override
+		public void finished() {
+			fallback.finished();
+		}
+
+		private static OpeningBook open(String path) {
+			return BOOKS.computeIfAbsent(path, key -> {
+				try {
+					return OpeningBook.open(Paths.get(key));
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		}
+	}
+
+	/**
+	 * 神经网络引擎：整局使用同一个会话限时搜索，叶子局面用神经网络评估
+	 */
+	class NetworkEngine implements Engine {
+
+		/**
+		 * 文件路径-网络，同一个文件只加载一次，所有对局共享
+		 */
+		private static final Map<String, NnueNetwork> NETWORKS = new ConcurrentHashMap<>();
+
+		private final NnueNetwork network;
+
+		private final long timeBudgetMillis;
+
+		private EngineSession session;
+
+		/**
+		 * @param network          网络
+		 * @param timeBudgetMillis 每步时间预算（毫秒）
+		 */
+		public NetworkEngine(NnueNetwork network, long timeBudgetMillis) {
+			this.network = Objects.requireNonNull(network);
+			this.timeBudgetMillis = timeBudgetMillis;
+		}
+
+		@Override
+		public Position checkChessPosition(BitBoard board, ColorEnum ownColor, ColorEnum opponentColor) {
+			if (Objects.isNull(session)) {
+				session = new EngineSession(board, ownColor);
+				session.setNetwork(network);
+			}
+			return session.bestMove(timeBudgetMillis).getPosition();
+		}
+
+		@Override
+		public void played(Position position, ColorEnum color) {
+			if (Objects.isNull(session)) {
+				return;
+			}
+			if (color == session.getOwnColor()) {
+				session.play(position);
+			} else {
+				session.opponentPlayed(position);
+			}
+		}
+
+		private static NnueNetwork load(String path) {
+			return NETWORKS.computeIfAbsent(path, key -> {
+				try {
+					return NnueNetwork.load(Paths.get(key));
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		}
+	}
+
+	/**
+	 * 蒙特卡洛树搜索引擎：第一次计算时按当时的局面取得搜索，之后根据落子通知移动树根，保留的子树继续使用；
+	 * 对局结束后搜索连同节点池归还到当前线程的空闲列表，同一线程的下一局直接复用，不再分配节点池
+	 */
+	class MonteCarloEngine implements Engine {
+
+		/**
+		 * 所有引擎共用的辅助线程池
+		 */
+		private static final ExecutorService POOL = Executors.newCachedThreadPool(runnable -> {
+			Thread thread = new Thread(runnable, "mcts-helper");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		/**
+		 * 每个对局线程空闲的搜索，个数不超过该线程同时进行的对局中蒙特卡洛引擎的个数
+		 */
+		private static final ThreadLocal<Deque<MonteCarloSearch>> IDLE_SEARCHES = ThreadLocal.withInitial(ArrayDeque::new);
+
+		private final long timeBudgetMillis;
+
+		private final int threadNum;
+
+		private final int capacity;
+
+		private MonteCarloSearch search;
+
+		/**
+		 * @param timeBudgetMillis 每步时间预算（毫秒）
+		 * @param threadNum        线程数，含调用者线程
+		 */
+		public MonteCarloEngine(long timeBudgetMillis, int threadNum) {
+			this(timeBudgetMillis, threadNum, MonteCarloSearch.DEFAULT_NODE_CAPACITY);
+		}
+
+		/**
+		 * @param timeBudgetMillis 每步时间预算（毫秒）
+		 * @param threadNum        线程数，含调用者线程
+		 * @param capacity         节点池容量
+		 */
+		public MonteCarloEngine(long timeBudgetMillis, int threadNum, int capacity) {
+			if (timeBudgetMillis <= 0 || threadNum <= 0 || capacity <= 0) {
+				throw new IllegalArgumentException("Illegal time budget, thread num or capacity: "
+						+ timeBudgetMillis + ", " + threadNum + ", " + capacity);
+			}
+			this.timeBudgetMillis = timeBudgetMillis;
+			this.threadNum = threadNum;
+			this.capacity = capacity;
+		}
+
+		@Override
+		public Position checkChessPosition(BitBoard board, ColorEnum ownColor, ColorEnum opponentColor) {
+			if (Objects.isNull(search)) {
+				search = acquire(board);
+			}
+			return search.search(ownColor, timeBudgetMillis, 0).getPosition();
+		}
+
+		@Override
+		public void played(Position position, ColorEnum color) {
+			if (Objects.nonNull(search)) {
+				search.play(position, color);
+			}
+		}
+
+		@Override
+		public void finished() {
+			if (Objects.nonNull(search)) {
+				IDLE_SEARCHES.get().push(search);
+				search = null;
+			}
+		}
+
+		/**
+		 * 优先复用当前线程空闲的、线程数、节点池容量和棋盘尺寸都相同的搜索
+		 */
+		private MonteCarloSearch acquire(BitBoard board) {
+			Iterator<MonteCarloSearch> iterator = IDLE_SEARCHES.get().iterator();
+			while (iterator.hasNext()) {
+				MonteCarloSearch idle = iterator.next();
+				BitBoard idleBoard = idle.getBoard();
+				if (idle.getThreadNum() == threadNum && idle.getCapacity() == capacity
+						&& idleBoard.getWidth() == board.getWidth() && idleBoard.getHeight() == board.getHeight()) {
+					iterator.remove();
+					idle.reset(board);
+					return idle;
+				}
+			}
+			return new MonteCarloSearch(board, threadNum, capacity, POOL);
+		}
+	}
+}
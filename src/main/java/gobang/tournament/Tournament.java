@@ -0,0 +1,233 @@
+package gobang.tournament;
+
+import gobang.algorithm.RenjuAlgorithms;
+import gobang.bean.BitBoard;
+import gobang.bean.ColorEnum;
+import gobang.bean.Position;
+import gobang.record.GameRecord;
+import gobang.record.GameResultEnum;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 无界面自对弈赛：两个引擎下 N 局，多线程并行，不打印棋盘
+ * 每两局为一组，用同一个随机开局、交换执黑方，抵消先手优势和开局差异
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class Tournament {
+
+	/**
+	 * 棋盘大小
+	 */
+	public static final int BOARD_SIZE = 15;
+
+	/**
+	 * 默认随机开局步数
+	 */
+	public static final int DEFAULT_OPENING_MOVE_NUM = 2;
+
+	/**
+	 * 随机开局的范围：离中心不超过 2 格
+	 */
+	private static final int OPENING_RADIUS = 2;
+
+	private final Supplier<Engine> firstEngineFactory;
+
+	private final Supplier<Engine> secondEngineFactory;
+
+	private final int threadNum;
+
+	private final int openingMoveNum;
+
+	private final long seed;
+
+	private final LongAdder winNum = new LongAdder();
+
+	private final LongAdder drawNum = new LongAdder();
+
+	private final LongAdder lossNum = new LongAdder();
+
+	private final LongAdder moveNum = new LongAdder();
+
+	/**
+	 * 每局结束后接收棋谱，null：不记录
+	 */
+	private volatile Consumer<GameRecord> gameListener;
+
+	/**
+	 * @param firstEngineFactory  第一个引擎，每局创建一次
+	 * @param secondEngineFactory 第二个引擎，每局创建一次
+	 * @param threadNum           线程数
+	 * @param openingMoveNum      随机开局步数
+	 * @param seed                随机开局种子，相同种子的开局序列相同
+	 */
+	public Tournament(Supplier<Engine> firstEngineFactory, Supplier<Engine> secondEngineFactory,
+					  int threadNum, int openingMoveNum, long seed) {
+		if (threadNum <= 0) {
+			throw new IllegalArgumentException("Illegal thread num: " + threadNum);
+		}
+		if (openingMoveNum < 0 || openingMoveNum >= RenjuAlgorithms.WIN_RENJU_NUM * 2 - 1) {
+			throw new IllegalArgumentException("Illegal opening move num: " + openingMoveNum);
+		}
+		this.firstEngineFactory = Objects.requireNonNull(firstEngineFactory);
+		this.secondEngineFactory = Objects.requireNonNull(secondEngineFactory);
+		this.threadNum = threadNum;
+		this.openingMoveNum = openingMoveNum;
+		this.seed = seed;
+	}
+
+	/**
+	 * 下 gameNum 局
+	 *
+	 * @param gameNum          局数
+	 * @param progressInterval 每完成多少局通知一次进度，小于等于 0 表示不通知
+	 * @param progressListener 进度监听，在对局线程中调用，需线程安全，可以为 null
+	 * @return 第一个引擎的战绩
+	 */
+	public TournamentResult play(int gameNum, int progressInterval, Consumer<TournamentResult> progressListener) {
+		if (gameNum <= 0) {
+			throw new IllegalArgumentException("Illegal game num: " + gameNum);
+		}
+		winNum.reset();
+		drawNum.reset();
+		lossNum.reset();
+		moveNum.reset();
+		long start = System.currentTimeMillis();
+		AtomicInteger nextGame = new AtomicInteger();
+		AtomicInteger finishedNum = new AtomicInteger();
+		Runnable worker = () -> {
+			int game;
+			while ((game = nextGame.getAndIncrement()) < gameNum) {
+				playGame(game);
+				int finished = finishedNum.incrementAndGet();
+				if (Objects.nonNull(progressListener) && progressInterval > 0 && finished % progressInterval == 0) {
+					progressListener.accept(snapshot(start));
+				}
+			}
+		};
+
+		ExecutorService pool = Executors.newFixedThreadPool(threadNum);
+		try {
+			List<Future<?>> futures = new ArrayList<>(threadNum);
+			for (int i = 0; i < threadNum; i++) {
+				futures.add(pool.submit(worker));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while playing.", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Game failed.", e.getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+		return snapshot(start);
+	}
+
+	/**
+	 * 设置棋谱监听，每局结束后在对局线程中调用，需线程安全
+	 *
+	 * @param gameListener null：不记录棋谱
+	 */
+	public void setGameListener(Consumer<GameRecord> gameListener) {
+		this.gameListener = gameListener;
+	}
+
+	private TournamentResult snapshot(long start) {
+		return new TournamentResult(winNum.sum(), drawNum.sum(), lossNum.sum(), moveNum.sum(),
+				System.currentTimeMillis() - start);
+	}
+
+	/**
+	 * 下一局，偶数局第一个引擎执黑，奇数局第二个引擎执黑，黑方先行
+	 */
+	private void playGame(int game) {
+		boolean firstIsBlack = game % 2 == 0;
+		Engine firstEngine = firstEngineFactory.get();
+		Engine secondEngine = secondEngineFactory.get();
+		Engine blackEngine = firstIsBlack ? firstEngine : secondEngine;
+		Engine whiteEngine = firstIsBlack ? secondEngine : firstEngine;
+
+		BitBoard board = new BitBoard(BOARD_SIZE, BOARD_SIZE);
+		GameRecord record = new GameRecord(BOARD_SIZE, BOARD_SIZE, ColorEnum.BLACK);
+		GameResultEnum result = GameResultEnum.DRAW;
+		try {
+			ColorEnum currentColor = playOpening(board, record, new Random(seed + game / 2));
+			int indexLimit = BOARD_SIZE * BOARD_SIZE;
+			while (board.getPieceNum() < indexLimit) {
+				ColorEnum opponentColor = opposite(currentColor);
+				Engine engine = currentColor == ColorEnum.BLACK ? blackEngine : whiteEngine;
+				Position position = engine.checkChessPosition(board, currentColor, opponentColor);
+				if (Objects.isNull(position)) {
+					break;
+				}
+				int index = board.indexOf(position);
+				board.put(index, currentColor);
+				record.addMove(position);
+				blackEngine.played(position, currentColor);
+				whiteEngine.played(position, currentColor);
+				moveNum.increment();
+				if (RenjuAlgorithms.isWinMove(board, currentColor, index)) {
+					boolean firstWin = (currentColor == ColorEnum.BLACK) == firstIsBlack;
+					(firstWin ? winNum : lossNum).increment();
+					result = currentColor == ColorEnum.BLACK ? GameResultEnum.BLACK_WIN : GameResultEnum.WHITE_WIN;
+					break;
+				}
+				currentColor = opponentColor;
+			}
+		} finally {
+			firstEngine.finished();
+			secondEngine.finished();
+		}
+		if (result == GameResultEnum.DRAW) {
+			drawNum.increment();
+		}
+		Consumer<GameRecord> listener = gameListener;
+		if (Objects.nonNull(listener)) {
+			record.setResult(result);
+			listener.accept(record);
+		}
+	}
+
+	/**
+	 * 在中心附近随机下开局，开局步数少于 9，任何一方都不到 5 子，不可能连五
+	 *
+	 * @return 接下来的落子方
+	 */
+	private ColorEnum playOpening(BitBoard board, GameRecord record, Random random) {
+		int center = BOARD_SIZE / 2;
+		int span = OPENING_RADIUS * 2 + 1;
+		ColorEnum currentColor = ColorEnum.BLACK;
+		for (int i = 0; i < openingMoveNum; ) {
+			int index = board.indexOf(center - OPENING_RADIUS + random.nextInt(span),
+					center - OPENING_RADIUS + random.nextInt(span));
+			if (!board.isEmpty(index)) {
+				continue;
+			}
+			board.put(index, currentColor);
+			record.addMove(board.xOf(index), board.yOf(index));
+			currentColor = opposite(currentColor);
+			i++;
+		}
+		return currentColor;
+	}
+
+	private static ColorEnum opposite(ColorEnum color) {
+		return color == ColorEnum.BLACK ? ColorEnum.WHITE : ColorEnum.BLACK;
+	}
+}
@@ -0,0 +1,119 @@
+package gobang.tournament;
+
+/**
+ * 对局赛结果，胜负和都以第一个引擎为准
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class TournamentResult {
+
+	/**
+	 * 95% 置信区间对应的标准差倍数
+	 */
+	private static final double Z_95 = 1.959964;
+
+	private final long winNum;
+
+	private final long drawNum;
+
+	private final long lossNum;
+
+	private final long moveNum;
+
+	private final long elapsedMillis;
+
+	public TournamentResult(long winNum, long drawNum, long lossNum, long moveNum, long elapsedMillis) {
+		this.winNum = winNum;
+		this.drawNum = drawNum;
+		this.lossNum = lossNum;
+		this.moveNum = moveNum;
+		this.elapsedMillis = elapsedMillis;
+	}
+
+	public long getWinNum() {
+		return winNum;
+	}
+
+	public long getDrawNum() {
+		return drawNum;
+	}
+
+	public long getLossNum() {
+		return lossNum;
+	}
+
+	public long getGameNum() {
+		return winNum + drawNum + lossNum;
+	}
+
+	public long getMoveNum() {
+		return moveNum;
+	}
+
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	/**
+	 * 得分率：胜 1 分，和 0.5 分
+	 */
+	public double getScoreRate() {
+		long gameNum = getGameNum();
+		return gameNum == 0 ? 0.5 : (winNum + drawNum * 0.5) / gameNum;
+	}
+
+	/**
+	 * Elo 分差，正数表示第一个引擎更强
+	 */
+	public double getEloDifference() {
+		return eloOf(getScoreRate());
+	}
+
+	/**
+	 * Elo 分差的 95% 置信区间半宽，按每局得分的样本方差估计
+	 */
+	public double getEloMargin() {
+		long gameNum = getGameNum();
+		if (gameNum == 0) {
+			return Double.POSITIVE_INFINITY;
+		}
+		double score = getScoreRate();
+		double variance = (winNum * square(1 - score)
+				+ drawNum * square(0.5 - score)
+				+ lossNum * square(score)) / gameNum;
+		double deviation = Math.sqrt(variance / gameNum);
+		double high = eloOf(score + Z_95 * deviation);
+		double low = eloOf(score - Z_95 * deviation);
+		return (high - low) / 2;
+	}
+
+	public double getGamesPerSecond() {
+		return elapsedMillis == 0 ? 0 : getGameNum() * 1000.0 / elapsedMillis;
+	}
+
+	public double getMovesPerSecond() {
+		return elapsedMillis == 0 ? 0 : moveNum * 1000.0 / elapsedMillis;
+	}
+
+	private static double eloOf(double score) {
+		if (score <= 0) {
+			return Double.NEGATIVE_INFINITY;
+		}
+		if (score >= 1) {
+			return Double.POSITIVE_INFINITY;
+		}
+		return -400 * Math.log10(1 / score - 1);
+	}
+
+	private static double square(double value) {
+		return value * value;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("games=%d, W/D/L=%d/%d/%d, score=%.1f%%, elo=%+.1f +/- %.1f, games/s=%.1f, moves/s=%.0f",
+				getGameNum(), winNum, drawNum, lossNum, getScoreRate() * 100, getEloDifference(), getEloMargin(),
+				getGamesPerSecond(), getMovesPerSecond());
+	}
+}
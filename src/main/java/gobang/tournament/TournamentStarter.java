@@ -0,0 +1,69 @@
+package gobang.tournament;
+
+import gobang.algorithm.ai.AiAlgorithms;
+import gobang.metrics.EngineMetricsRegistry;
+import gobang.record.GameRecordWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.Objects;
+
+/**
+ * 自对弈赛入口
+ * 参数：局数 第一个引擎 第二个引擎 [线程数] [随机开局步数] [种子] [棋谱文件]，引擎配置见 {@link Engine#valueOf(String)}，
+ * 例如：10000 search:20 logic；指定棋谱文件时所有对局写入该文件，见 {@link GameRecordWriter}
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class TournamentStarter {
+
+	private static final int DEFAULT_GAME_NUM = 1000;
+
+	private static final String DEFAULT_FIRST_ENGINE = "search:20";
+
+	private static final String DEFAULT_SECOND_ENGINE = "logic";
+
+	/**
+	 * 进度打印次数
+	 */
+	private static final int PROGRESS_NUM = 20;
+
+	public static void main(String[] args) throws IOException {
+		int gameNum = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAME_NUM;
+		String firstSpec = args.length > 1 ? args[1] : DEFAULT_FIRST_ENGINE;
+		String secondSpec = args.length > 2 ? args[2] : DEFAULT_SECOND_ENGINE;
+		int threadNum = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+		int openingMoveNum = args.length > 4 ? Integer.parseInt(args[4]) : Tournament.DEFAULT_OPENING_MOVE_NUM;
+		long seed = args.length > 5 ? Long.parseLong(args[5]) : System.nanoTime();
+		GameRecordWriter writer = args.length > 6 ? GameRecordWriter.open(Paths.get(args[6])) : null;
+
+		Engine.valueOf(firstSpec);
+		Engine.valueOf(secondSpec);
+		System.out.println(String.format("%s VS %s, games=%d, threads=%d, opening=%d, seed=%d",
+				firstSpec, secondSpec, gameNum, threadNum, openingMoveNum, seed));
+		Tournament tournament = new Tournament(() -> Engine.valueOf(firstSpec), () -> Engine.valueOf(secondSpec),
+				threadNum, openingMoveNum, seed);
+		if (Objects.nonNull(writer)) {
+			tournament.setGameListener(record -> {
+				synchronized (writer) {
+					try {
+						writer.write(record);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}
+			});
+		}
+		EngineMetricsRegistry metrics = new EngineMetricsRegistry();
+		AiAlgorithms.setMetrics(metrics);
+		TournamentResult result = tournament.play(gameNum, Math.max(1, gameNum / PROGRESS_NUM), System.out::println);
+		AiAlgorithms.setMetrics(null);
+		if (Objects.nonNull(writer)) {
+			writer.close();
+		}
+		System.out.println(result);
+		System.out.println(metrics);
+	}
+}
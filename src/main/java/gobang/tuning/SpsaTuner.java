@@ -0,0 +1,177 @@
+package gobang.tuning;
+
+import gobang.algorithm.ai.PatternWeights;
+import gobang.tournament.Engine;
+import gobang.tournament.Tournament;
+import gobang.tournament.TournamentResult;
+
+import java.util.Random;
+
+/**
+ * 棋型得分自动调优：SPSA（同时扰动随机逼近）
+ * 每次迭代把所有可调得分同时按随机符号往两个方向扰动，得到一对候选得分，用 {@link Tournament} 在所有线程上并行自对弈，
+ * 按两者的胜率差估计梯度并更新；得分跨好几个数量级，扰动和更新都在对数空间进行。
+ * 连五得分以及为 0 的得分不调，其他得分限制在 [1, 连五得分 / 4) 内，保证 {@link PatternWeights} 的约束
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class SpsaTuner {
+
+	/**
+	 * 默认对数空间扰动幅度，约 ±20%
+	 */
+	public static final double DEFAULT_PERTURBATION = 0.2;
+
+	/**
+	 * 默认对数空间学习率
+	 */
+	public static final double DEFAULT_LEARNING_RATE = 0.2;
+
+	/**
+	 * SPSA 推荐的学习率、扰动衰减指数，以及稳定常数占总迭代次数的比例
+	 */
+	private static final double LEARNING_RATE_DECAY = 0.602;
+	private static final double PERTURBATION_DECAY = 0.101;
+	private static final double STABILITY_RATIO = 0.1;
+
+	/**
+	 * 每次迭代的局数
+	 */
+	private final int gameNum;
+
+	private final int threadNum;
+
+	private final int openingMoveNum;
+
+	private final double learningRate;
+
+	private final double perturbation;
+
+	private final Random random;
+
+	private final long seed;
+
+	/**
+	 * 初始得分，不调的得分保持初始值
+	 */
+	private final int[] startVector;
+
+	/**
+	 * 对数空间的当前得分
+	 */
+	private final double[] theta;
+
+	/**
+	 * true：该得分参与调优
+	 */
+	private final boolean[] tunable;
+
+	/**
+	 * 可调得分上限
+	 */
+	private final int[] maxScores;
+
+	private int iteration;
+
+	/**
+	 * @param start          初始得分
+	 * @param gameNum        每次迭代的局数，两局一组交换先手
+	 * @param threadNum      自对弈线程数
+	 * @param openingMoveNum 随机开局步数
+	 * @param seed           随机种子，相同种子、相同参数的调优过程相同（线程调度导致的差异除外）
+	 */
+	public SpsaTuner(PatternWeights start, int gameNum, int threadNum, int openingMoveNum, long seed) {
+		this(start, gameNum, threadNum, openingMoveNum, seed, DEFAULT_LEARNING_RATE, DEFAULT_PERTURBATION);
+	}
+
+	public SpsaTuner(PatternWeights start, int gameNum, int threadNum, int openingMoveNum, long seed,
+					 double learningRate, double perturbation) {
+		if (gameNum <= 0 || gameNum % 2 != 0) {
+			throw new IllegalArgumentException("Game num must be a positive even number: " + gameNum);
+		}
+		if (learningRate <= 0 || perturbation <= 0) {
+			throw new IllegalArgumentException("Illegal learning rate or perturbation: " + learningRate + ", " + perturbation);
+		}
+		this.gameNum = gameNum;
+		this.threadNum = threadNum;
+		this.openingMoveNum = openingMoveNum;
+		this.learningRate = learningRate;
+		this.perturbation = perturbation;
+		this.random = new Random(seed);
+		this.seed = seed;
+
+		int[] vector = start.toVector();
+		this.startVector = vector;
+		int patternNum = PatternWeights.PATTERN_NUM;
+		int attackLimit = vector[PatternWeights.LINK_5_INDEX];
+		int defenseLimit = vector[patternNum + PatternWeights.LINK_5_INDEX];
+		this.theta = new double[vector.length];
+		this.tunable = new boolean[vector.length];
+		this.maxScores = new int[vector.length];
+		for (int i = 0; i < vector.length; i++) {
+			tunable[i] = i % patternNum != PatternWeights.LINK_5_INDEX && vector[i] > 0;
+			maxScores[i] = ((i < patternNum ? attackLimit : defenseLimit) - 1) / 4;
+			theta[i] = tunable[i] ? Math.log(vector[i]) : 0;
+		}
+	}
+
+	/**
+	 * 迭代一次
+	 *
+	 * @param totalIterations 计划的总迭代次数，用于学习率衰减
+	 * @return 本次扰动对局中正向扰动一方的战绩
+	 */
+	public TournamentResult step(int totalIterations) {
+		int k = iteration++;
+		double stability = Math.max(1, totalIterations * STABILITY_RATIO);
+		double ck = perturbation / Math.pow(k + 1, PERTURBATION_DECAY);
+		// 第一次迭代的学习率为 learningRate，之后按 SPSA 的方式衰减
+		double ak = learningRate * Math.pow((1 + stability) / (k + 1 + stability), LEARNING_RATE_DECAY);
+
+		double[] delta = new double[theta.length];
+		double[] plus = new double[theta.length];
+		double[] minus = new double[theta.length];
+		for (int i = 0; i < theta.length; i++) {
+			delta[i] = tunable[i] ? (random.nextBoolean() ? 1 : -1) : 0;
+			plus[i] = theta[i] + ck * delta[i];
+			minus[i] = theta[i] - ck * delta[i];
+		}
+		PatternWeights plusWeights = toWeights(plus);
+		PatternWeights minusWeights = toWeights(minus);
+		Tournament tournament = new Tournament(() -> new Engine.SessionEngine(plusWeights),
+				() -> new Engine.SessionEngine(minusWeights), threadNum, openingMoveNum, seed + k);
+		TournamentResult result = tournament.play(gameNum, 0, null);
+
+		// f(θ+) - f(θ-) 用正向一方的得分率估计：2s - 1
+		double difference = 2 * result.getScoreRate() - 1;
+		for (int i = 0; i < theta.length; i++) {
+			if (tunable[i]) {
+				theta[i] += ak * difference / (2 * ck * delta[i]);
+				theta[i] = Math.max(0, Math.min(Math.log(maxScores[i]), theta[i]));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * 当前得分
+	 */
+	public PatternWeights getWeights() {
+		return toWeights(theta);
+	}
+
+	public int getIteration() {
+		return iteration;
+	}
+
+	private PatternWeights toWeights(double[] logScores) {
+		int[] vector = startVector.clone();
+		for (int i = 0; i < vector.length; i++) {
+			if (tunable[i]) {
+				vector[i] = (int) Math.max(1, Math.min(maxScores[i], Math.round(Math.exp(logScores[i]))));
+			}
+		}
+		return PatternWeights.fromVector(vector);
+	}
+}
@@ -0,0 +1,59 @@
+package gobang.tuning;
+
+import gobang.algorithm.ai.PatternWeights;
+import gobang.tournament.Engine;
+import gobang.tournament.Tournament;
+import gobang.tournament.TournamentResult;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 棋型得分调优入口
+ * 参数：迭代次数 每次迭代局数 输出文件 [初始得分文件] [线程数] [种子]，例如：200 100 weights.txt
+ * 每次迭代后把当前得分写入输出文件，结束后用同样局数的两倍对比调优得分与初始得分
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class TunerStarter {
+
+	/**
+	 * 随机开局步数，比自对弈赛默认值多，开局更分散
+	 */
+	private static final int OPENING_MOVE_NUM = 4;
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 3) {
+			System.out.println("Usage: TunerStarter <iterations> <games per iteration> <output> [start weights] [threads] [seed]");
+			return;
+		}
+		int iterationNum = Integer.parseInt(args[0]);
+		int gameNum = Integer.parseInt(args[1]);
+		Path output = Paths.get(args[2]);
+		PatternWeights start = args.length > 3 && !args[3].isEmpty() ? PatternWeights.load(Paths.get(args[3]))
+				: PatternWeights.DEFAULT;
+		int threadNum = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+		long seed = args.length > 5 ? Long.parseLong(args[5]) : System.nanoTime();
+
+		System.out.println(String.format("iterations=%d, games=%d, threads=%d, seed=%d", iterationNum, gameNum,
+				threadNum, seed));
+		SpsaTuner tuner = new SpsaTuner(start, gameNum, threadNum, OPENING_MOVE_NUM, seed);
+		long begin = System.currentTimeMillis();
+		for (int i = 0; i < iterationNum; i++) {
+			TournamentResult result = tuner.step(iterationNum);
+			PatternWeights weights = tuner.getWeights();
+			weights.store(output);
+			System.out.println(String.format("iteration %d, plus score=%.1f%%, %s", i + 1, result.getScoreRate() * 100,
+					weights));
+		}
+
+		PatternWeights tuned = tuner.getWeights();
+		Tournament verification = new Tournament(() -> new Engine.SessionEngine(tuned),
+				() -> new Engine.SessionEngine(start), threadNum, OPENING_MOVE_NUM, seed - 1);
+		TournamentResult result = verification.play(gameNum * 2, 0, null);
+		System.out.println(String.format("tuned VS start: %s, time=%dms", result, System.currentTimeMillis() - begin));
+		System.out.println("weights written to " + output.toAbsolutePath());
+	}
+}
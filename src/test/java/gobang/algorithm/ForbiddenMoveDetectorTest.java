@@ -0,0 +1,103 @@
+package gobang.algorithm;
+
+import gobang.bean.BitBoard;
+import gobang.bean.ColorEnum;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link ForbiddenMoveDetector} 在已知连珠局面上的禁手判断
+ * 局面用 "x,y x,y" 列出黑白棋子，均在 15 路棋盘上，检测黑棋落在 (x, y)
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class ForbiddenMoveDetectorTest {
+
+	@Test
+	public void doubleThree() {
+		assertForbidden(ForbiddenMoveEnum.DOUBLE_THREE, "7,5 7,6 5,7 6,7", "", 7, 7);
+		// 跳活三
+		assertForbidden(ForbiddenMoveEnum.DOUBLE_THREE, "7,4 7,6 4,7 6,7", "", 7, 7);
+		// 一端被白棋隔一格挡住仍是活三
+		assertForbidden(ForbiddenMoveEnum.DOUBLE_THREE, "5,7 6,7 7,5 7,6", "3,7", 7, 7);
+	}
+
+	@Test
+	public void doubleFour() {
+		assertForbidden(ForbiddenMoveEnum.DOUBLE_FOUR, "7,4 7,5 7,6 4,7 5,7 6,7", "", 7, 7);
+		// 两个冲四
+		assertForbidden(ForbiddenMoveEnum.DOUBLE_FOUR, "7,4 7,5 7,6 4,7 5,7 6,7", "7,3 3,7", 7, 7);
+		// 同一条线上的两个四：落子后成 X.XXX.X，两侧各有一个成五点
+		assertForbidden(ForbiddenMoveEnum.DOUBLE_FOUR, "3,7 5,7 6,7 9,7", "", 7, 7);
+	}
+
+	@Test
+	public void overline() {
+		assertForbidden(ForbiddenMoveEnum.OVERLINE, "7,2 7,3 7,4 7,6 7,7", "", 7, 5);
+	}
+
+	@Test
+	public void fiveHasPriority() {
+		// 同时成五和三三
+		assertForbidden(ForbiddenMoveEnum.NONE, "3,7 4,7 5,7 6,7 7,5 7,6 8,8 9,9", "", 7, 7);
+		// 同时成五和另一方向长连
+		assertForbidden(ForbiddenMoveEnum.NONE, "3,7 4,7 5,7 6,7 7,2 7,3 7,4 7,5 7,6", "", 7, 7);
+	}
+
+	@Test
+	public void singleThreatIsLegal() {
+		// 单个活四
+		assertForbidden(ForbiddenMoveEnum.NONE, "4,7 5,7 6,7", "", 7, 7);
+		// 四三
+		assertForbidden(ForbiddenMoveEnum.NONE, "7,4 7,5 7,6 5,7 6,7", "7,3", 7, 7);
+		// 跳冲四加活三
+		assertForbidden(ForbiddenMoveEnum.NONE, "7,5 7,6 5,7 6,7 9,7", "", 7, 7);
+	}
+
+	@Test
+	public void falseThree() {
+		// 一端被白棋挡住，成不了活四
+		assertForbidden(ForbiddenMoveEnum.NONE, "7,5 7,6 4,7 5,7", "3,7", 6, 7);
+		// 靠边，成不了活四
+		assertForbidden(ForbiddenMoveEnum.NONE, "1,7 2,7 0,5 0,6", "", 0, 7);
+		// 两端补上都成长连，不是活三
+		assertForbidden(ForbiddenMoveEnum.NONE, "2,7 5,7 6,7 10,7 7,5 7,6", "", 7, 7);
+		// 只有一端补上成长连，另一端仍能成活四
+		assertForbidden(ForbiddenMoveEnum.DOUBLE_THREE, "2,7 5,7 6,7 7,5 7,6", "", 7, 7);
+		// 两端活四点都是禁手，不是活三
+		assertForbidden(ForbiddenMoveEnum.NONE,
+				"5,7 6,7 4,4 4,5 4,6 4,8 4,9 8,4 8,5 8,6 8,8 8,9 7,8 7,9", "", 7, 7);
+		// 同样的两个三，去掉让活四点成为禁手的棋子
+		assertForbidden(ForbiddenMoveEnum.DOUBLE_THREE, "5,7 6,7 7,8 7,9", "", 7, 7);
+		// 两端都被白棋挡住
+		assertForbidden(ForbiddenMoveEnum.NONE, "5,7 6,7 7,5 7,6", "4,7 9,7", 7, 7);
+	}
+
+	/**
+	 * 检测两次（第二次命中缓存），结果都应一致，且检测后局面不变
+	 */
+	private static void assertForbidden(ForbiddenMoveEnum expected, String black, String white, int x, int y) {
+		BitBoard board = new BitBoard(15, 15);
+		put(board, black, ColorEnum.BLACK);
+		put(board, white, ColorEnum.WHITE);
+		long key = board.getZobristKey();
+		ForbiddenMoveDetector detector = new ForbiddenMoveDetector(board);
+		int index = board.indexOf(x, y);
+		assertEquals(expected, detector.check(index));
+		assertEquals(expected, detector.check(index));
+		assertEquals(expected != ForbiddenMoveEnum.NONE, detector.isForbidden(index));
+		assertEquals(key, board.getZobristKey());
+	}
+
+	private static void put(BitBoard board, String positions, ColorEnum color) {
+		for (String position : positions.split(" ")) {
+			if (position.isEmpty()) {
+				continue;
+			}
+			String[] xy = position.split(",");
+			board.put(board.indexOf(Integer.parseInt(xy[0]), Integer.parseInt(xy[1])), color);
+		}
+	}
+}
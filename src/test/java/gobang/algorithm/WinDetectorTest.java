@@ -0,0 +1,80 @@
+package gobang.algorithm;
+
+import gobang.bean.BitBoard;
+import gobang.bean.ColorEnum;
+import gobang.bean.DirectionEnum;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link WinDetector} 增量连珠检测与 {@link RenjuAlgorithms#checkWinRenju} 逐格扫描的一致性
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class WinDetectorTest {
+
+	private static final ColorEnum[] COLORS = {ColorEnum.BLACK, ColorEnum.WHITE};
+
+	/**
+	 * 随机落子/提子直到棋盘下满，每一步后比较刚落下棋子的赢棋连珠，以及每个空棋位假设落子后的连珠数
+	 */
+	@Test
+	public void incrementalMatchesScan() {
+		Random random = new Random(18);
+		for (int game = 0; game < 30; game++) {
+			BitBoard board = new BitBoard(5 + random.nextInt(11), 5 + random.nextInt(11));
+			WinDetector detector = new WinDetector(board);
+			int[] moveStack = new int[board.getIndexNum()];
+			int moveNum = 0;
+			int legalNum = board.getWidth() * board.getHeight();
+			while (board.getPieceNum() < legalNum) {
+				if (moveNum > 0 && random.nextInt(5) == 0) {
+					int index = moveStack[--moveNum];
+					ColorEnum color = board.colorAt(index);
+					board.remove(index);
+					detector.remove(index, color);
+				} else {
+					int index = randomEmptyIndex(board, random);
+					ColorEnum color = COLORS[random.nextInt(2)];
+					board.put(index, color);
+					detector.place(index, color);
+					moveStack[moveNum++] = index;
+					assertEquals(RenjuAlgorithms.checkWinRenju(board.toBoardInfo(), color, board.positionOf(index)),
+							detector.winLines(index, color));
+				}
+				assertSameAsScan(board, detector);
+			}
+		}
+	}
+
+	/**
+	 * 空棋位假设落子：先真的落下，用位棋盘逐格数连珠，再提掉
+	 */
+	private static void assertSameAsScan(BitBoard board, WinDetector detector) {
+		for (int index = 0; index < board.getIndexNum(); index++) {
+			if (!board.isLegal(index) || !board.isEmpty(index)) {
+				continue;
+			}
+			for (ColorEnum color : COLORS) {
+				board.put(index, color);
+				for (DirectionEnum direction : DirectionEnum.values()) {
+					assertEquals(board.countLine(index, direction, color), detector.lineLength(index, direction, color));
+				}
+				assertEquals(RenjuAlgorithms.isWinMove(board, color, index), detector.isWin(index, color));
+				board.remove(index);
+			}
+		}
+	}
+
+	private static int randomEmptyIndex(BitBoard board, Random random) {
+		int index;
+		do {
+			index = board.indexOf(random.nextInt(board.getWidth()), random.nextInt(board.getHeight()));
+		} while (!board.isEmpty(index));
+		return index;
+	}
+}
@@ -0,0 +1,86 @@
+package gobang.algorithm.ai;
+
+import gobang.bean.BitBoard;
+import gobang.bean.ColorEnum;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link CandidateGenerator} 增量更新与从头计算、单独使用与评估器内使用的一致性
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class CandidateGeneratorTest {
+
+    /**
+     * 随机落子/提子，每一步后与在同一局面上新建的生成器、评估器内的生成器逐个比较，且按下标从小到大
+     */
+    @Test
+    public void incrementalMatchesFromScratch() {
+        Random random = new Random(9);
+        for (int game = 0; game < 20; game++) {
+            IncrementalEvaluator evaluator = new IncrementalEvaluator(new BitBoard(15, 15));
+            BitBoard board = evaluator.getBoard();
+            CandidateGenerator standalone = new CandidateGenerator(board);
+            ColorEnum side = ColorEnum.BLACK;
+            for (int step = 0; step < 80; step++) {
+                if (evaluator.getMoveNum() > 0 && random.nextInt(4) == 0) {
+                    int index = evaluator.undoMove();
+                    standalone.remove(index);
+                } else {
+                    int index = randomEmptyIndex(board, random);
+                    evaluator.applyMove(index, side);
+                    standalone.place(index);
+                }
+                side = AlphaBetaSearch.opposite(side);
+                CandidateGenerator expected = new CandidateGenerator(board);
+                assertSame(expected, standalone);
+                assertSame(expected, evaluator.getCandidates());
+            }
+        }
+    }
+
+    /**
+     * 紧挨棋子的空棋位都是候选棋位，只隔一格且成不了三的不是
+     */
+    @Test
+    public void farCellsNeedThreat() {
+        BitBoard board = new BitBoard(15, 15);
+        board.put(board.indexOf(7, 7), ColorEnum.BLACK);
+        CandidateGenerator candidates = new CandidateGenerator(board);
+        assertEquals(8, candidates.size());
+        assertTrue(candidates.contains(board.indexOf(8, 8)));
+        assertTrue(!candidates.contains(board.indexOf(9, 9)));
+
+        board.put(board.indexOf(8, 7), ColorEnum.BLACK);
+        candidates = new CandidateGenerator(board);
+        // (6,7)、(9,7) 紧挨棋子，(5,7)、(10,7) 落子后成三
+        assertTrue(candidates.contains(board.indexOf(5, 7)));
+        assertTrue(candidates.contains(board.indexOf(10, 7)));
+        assertTrue(!candidates.contains(board.indexOf(5, 5)));
+    }
+
+    private static void assertSame(CandidateGenerator expected, CandidateGenerator actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), actual.get(i));
+            assertTrue(actual.contains(actual.get(i)));
+            if (i > 0) {
+                assertTrue(actual.get(i - 1) < actual.get(i));
+            }
+        }
+    }
+
+    private static int randomEmptyIndex(BitBoard board, Random random) {
+        int index;
+        do {
+            index = board.indexOf(random.nextInt(board.getWidth()), random.nextInt(board.getHeight()));
+        } while (!board.isEmpty(index));
+        return index;
+    }
+}
@@ -0,0 +1,149 @@
+package gobang.algorithm.ai;
+
+import gobang.bean.BitBoard;
+import gobang.bean.ColorEnum;
+import gobang.bean.DirectionEnum;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * {@link IncrementalEvaluator} 增量更新与原逻辑AI从头评分的一致性
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class IncrementalEvaluatorTest {
+
+    private static final ColorEnum[] COLORS = {ColorEnum.BLACK, ColorEnum.WHITE};
+
+    /**
+     * 随机落子/悔棋，每一步后与原逻辑AI在同一局面上从头计算的评分逐棋位比较
+     */
+    @Test
+    public void incrementalMatchesFromScratch() {
+        Random random = new Random(3);
+        for (int game = 0; game < 20; game++) {
+            int width = 9 + random.nextInt(7);
+            int height = 9 + random.nextInt(7);
+            IncrementalEvaluator evaluator = new IncrementalEvaluator(new BitBoard(width, height));
+            BitBoard board = evaluator.getBoard();
+            ColorEnum side = ColorEnum.BLACK;
+            for (int step = 0; step < 80; step++) {
+                if (evaluator.getMoveNum() > 0 && random.nextInt(4) == 0) {
+                    evaluator.undoMove();
+                    side = AlphaBetaSearch.opposite(side);
+                } else {
+                    int index = randomEmptyIndex(board, random);
+                    if (index < 0) {
+                        break;
+                    }
+                    evaluator.applyMove(index, side);
+                    side = AlphaBetaSearch.opposite(side);
+                }
+                assertSameAsFromScratch(evaluator);
+            }
+        }
+    }
+
+    /**
+     * 悔掉所有落子后回到初始局面的评估
+     */
+    @Test
+    public void undoRestoresInitialPosition() {
+        Random random = new Random(4);
+        BitBoard initial = new BitBoard(15, 15);
+        initial.put(initial.indexOf(7, 7), ColorEnum.BLACK);
+        initial.put(initial.indexOf(8, 8), ColorEnum.WHITE);
+        IncrementalEvaluator evaluator = new IncrementalEvaluator(initial);
+        ColorEnum side = ColorEnum.BLACK;
+        for (int i = 0; i < 60; i++) {
+            evaluator.applyMove(randomEmptyIndex(evaluator.getBoard(), random), side);
+            side = AlphaBetaSearch.opposite(side);
+        }
+        while (evaluator.getMoveNum() > 0) {
+            evaluator.undoMove();
+        }
+        assertEquals(initial, evaluator.getBoard());
+        assertSameAsFromScratch(evaluator);
+    }
+
+    /**
+     * 与原逻辑AI的评分从头计算比较：在二维数组上按原 findSubjectArray 逐格扫描、{@link PatternEnum#check(int[])} 检测棋型，
+     * 按默认棋型得分累加每个空棋位的进攻分、防守分；候选棋位的得分还与 {@link AiAlgorithms#rankChessPositions} 的评分比较，
+     * 候选棋位与在棋盘上单独新建的 {@link CandidateGenerator} 比较
+     */
+    private static void assertSameAsFromScratch(IncrementalEvaluator evaluator) {
+        BitBoard board = evaluator.getBoard();
+        int[][] boardInfo = board.toBoardInfo();
+        int[][] attackScores = new int[2][board.getIndexNum()];
+        int[][] defenseScores = new int[2][board.getIndexNum()];
+        long[] totalAttackScores = new long[2];
+        for (int c = 0; c < COLORS.length; c++) {
+            ColorEnum color = COLORS[c];
+            for (int x = 0; x < board.getWidth(); x++) {
+                for (int y = 0; y < board.getHeight(); y++) {
+                    int index = board.indexOf(x, y);
+                    if (boardInfo[x][y] != ColorEnum.EMPTY.ordinal()) {
+                        for (DirectionEnum direction : DirectionEnum.values()) {
+                            assertNull(evaluator.patternOf(index, direction, color));
+                        }
+                        assertEquals(0, evaluator.attackScoreOf(index, color));
+                        assertEquals(0, evaluator.defenseScoreOf(index, color));
+                        continue;
+                    }
+                    for (DirectionEnum direction : DirectionEnum.values()) {
+                        PatternEnum pattern = PatternEnum.check(PatternTableTest.scan(boardInfo, x, y, direction, color));
+                        assertEquals(pattern, evaluator.patternOf(index, direction, color));
+                        attackScores[c][index] += pattern.getAttackScore();
+                        defenseScores[c][index] += pattern.getDefenseScore();
+                    }
+                    assertEquals(attackScores[c][index], evaluator.attackScoreOf(index, color));
+                    assertEquals(defenseScores[c][index], evaluator.defenseScoreOf(index, color));
+                    totalAttackScores[c] += attackScores[c][index];
+                }
+            }
+        }
+
+        CandidateGenerator candidates = new CandidateGenerator(board);
+        for (int c = 0; c < COLORS.length; c++) {
+            ColorEnum side = COLORS[c];
+            assertEquals(totalAttackScores[c] - totalAttackScores[1 - c], evaluator.evaluate(side));
+            for (int x = 0; x < board.getWidth(); x++) {
+                for (int y = 0; y < board.getHeight(); y++) {
+                    int index = board.indexOf(x, y);
+                    if (board.isEmpty(index)) {
+                        assertEquals(attackScores[c][index] + defenseScores[1 - c][index], evaluator.scoreOf(index, side));
+                    }
+                    assertEquals(candidates.contains(index), evaluator.getCandidates().contains(index));
+                }
+            }
+            List<RankedMove> ranked = AiAlgorithms.rankChessPositions(
+                    boardInfo, side, COLORS[1 - c], board.getWidth() * board.getHeight());
+            assertEquals(candidates.size(), ranked.size());
+            for (RankedMove move : ranked) {
+                assertEquals(move.getScore(), evaluator.scoreOf(board.indexOf(move.getPosition()), side));
+            }
+        }
+        assertEquals(candidates.size(), evaluator.getCandidates().size());
+    }
+
+    private static int countLegal(BitBoard board) {
+        return board.getWidth() * board.getHeight();
+    }
+
+    private static int randomEmptyIndex(BitBoard board, Random random) {
+        if (board.getPieceNum() == countLegal(board)) {
+            return -1;
+        }
+        int index;
+        do {
+            index = board.indexOf(random.nextInt(board.getWidth()), random.nextInt(board.getHeight()));
+        } while (!board.isEmpty(index));
+        return index;
+    }
+}
@@ -0,0 +1,159 @@
+package gobang.algorithm.ai;
+
+import gobang.bean.BitBoard;
+import gobang.bean.ColorEnum;
+import gobang.bean.Position;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link MonteCarloSearch} 的必走、必堵，{@link MonteCarloSearch#play} 保留子树，以及 {@link MonteCarloSearch#reset} 复用节点池
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class MonteCarloSearchTest {
+
+    private static final int PLAYOUT_BUDGET = 3000;
+
+    /**
+     * 黑方横向活四：黑方走成连五，白方堵住一端
+     */
+    @Test
+    public void findsWinAndBlocksOpenFour() {
+        BitBoard board = new BitBoard(15, 15);
+        for (int x = 3; x <= 6; x++) {
+            board.put(board.indexOf(x, 7), ColorEnum.BLACK);
+        }
+        for (int x = 3; x <= 5; x++) {
+            board.put(board.indexOf(x, 9), ColorEnum.WHITE);
+        }
+        board.put(board.indexOf(9, 9), ColorEnum.WHITE);
+        List<Position> ends = Arrays.asList(Position.valueOf(2, 7), Position.valueOf(7, 7));
+
+        Position win = new MonteCarloSearch(board).search(ColorEnum.BLACK, 0, PLAYOUT_BUDGET).getPosition();
+        assertTrue(String.valueOf(win), ends.contains(win));
+        Position block = new MonteCarloSearch(board).search(ColorEnum.WHITE, 0, PLAYOUT_BUDGET).getPosition();
+        assertTrue(String.valueOf(block), ends.contains(block));
+    }
+
+    /**
+     * 连续两次落子都沿着树中访问最多的分支：保留的子树中每个节点的访问次数、回报不变，
+     * 从新根出发按落子序列找到的节点与原树一一对应，使用的节点数减少
+     */
+    @Test
+    public void playKeepsSubtree() {
+        MonteCarloSearch search = new MonteCarloSearch(middleGame());
+        search.search(ColorEnum.BLACK, 0, PLAYOUT_BUDGET);
+
+        int child = mostVisitedChild(search, 0);
+        int grandchild = mostVisitedChild(search, child);
+        assertTrue(search.childNumOf(grandchild) > 0);
+        Map<String, String> childTree = snapshot(search, child);
+        Map<String, String> grandchildTree = snapshot(search, grandchild);
+        Position first = search.getBoard().positionOf(search.moveOf(child));
+        Position second = search.getBoard().positionOf(search.moveOf(grandchild));
+
+        int nodeNum = search.getNodeNum();
+        search.play(first, ColorEnum.BLACK);
+        assertTrue(search.getNodeNum() < nodeNum);
+        assertEquals(childTree, snapshot(search, 0));
+
+        nodeNum = search.getNodeNum();
+        search.play(second, ColorEnum.WHITE);
+        assertTrue(search.getNodeNum() < nodeNum);
+        assertEquals(grandchildTree, snapshot(search, 0));
+    }
+
+    /**
+     * 不在树中的落子清空树
+     */
+    @Test
+    public void playOutsideTreeClears() {
+        BitBoard board = middleGame();
+        MonteCarloSearch search = new MonteCarloSearch(board);
+        search.search(ColorEnum.BLACK, 0, PLAYOUT_BUDGET);
+        // 白方落子，树根是黑方落子
+        search.play(Position.valueOf(0, 0), ColorEnum.WHITE);
+        assertEquals(1, search.getNodeNum());
+        assertEquals(0, search.visitsOf(0));
+    }
+
+    /**
+     * 复用的搜索换成新局面后，单线程、同样的模拟次数与新建的搜索结果一致
+     */
+    @Test
+    public void resetMatchesFreshSearch() {
+        MonteCarloSearch reused = new MonteCarloSearch(new BitBoard(15, 15), 1, 1 << 16, null);
+        reused.search(ColorEnum.BLACK, 0, PLAYOUT_BUDGET);
+        reused.play(Position.valueOf(7, 7), ColorEnum.BLACK);
+
+        BitBoard board = middleGame();
+        reused.reset(board);
+        assertEquals(1, reused.getNodeNum());
+        assertEquals(board, reused.getBoard());
+        SearchResult expected = new MonteCarloSearch(board, 1, 1 << 16, null).search(ColorEnum.BLACK, 0, PLAYOUT_BUDGET);
+        SearchResult actual = reused.search(ColorEnum.BLACK, 0, PLAYOUT_BUDGET);
+        assertEquals(expected.getPosition(), actual.getPosition());
+        assertEquals(expected.getScore(), actual.getScore());
+        assertEquals(expected.getPrincipalVariation(), actual.getPrincipalVariation());
+    }
+
+    @Test
+    public void resetRejectsOtherSize() {
+        MonteCarloSearch search = new MonteCarloSearch(new BitBoard(15, 15), 1, 1 << 16, null);
+        try {
+            search.reset(new BitBoard(13, 13));
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // 预期
+        }
+    }
+
+    private static BitBoard middleGame() {
+        BitBoard board = new BitBoard(15, 15);
+        int[][] moves = {{7, 7}, {8, 8}, {6, 8}, {8, 6}, {7, 9}, {9, 7}};
+        ColorEnum color = ColorEnum.BLACK;
+        for (int[] move : moves) {
+            board.put(board.indexOf(move[0], move[1]), color);
+            color = AlphaBetaSearch.opposite(color);
+        }
+        return board;
+    }
+
+    private static int mostVisitedChild(MonteCarloSearch search, int node) {
+        int first = search.firstChildOf(node);
+        int best = first;
+        for (int c = first + 1; c < first + search.childNumOf(node); c++) {
+            if (search.visitsOf(c) > search.visitsOf(best)) {
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 子树中每个节点：从 node 出发的落子序列-访问次数和回报
+     */
+    private static Map<String, String> snapshot(MonteCarloSearch search, int node) {
+        Map<String, String> tree = new HashMap<>();
+        snapshot(search, node, "", tree);
+        return tree;
+    }
+
+    private static void snapshot(MonteCarloSearch search, int node, String path, Map<String, String> tree) {
+        tree.put(path, search.visitsOf(node) + "/" + search.rewardsOf(node));
+        int first = search.firstChildOf(node);
+        for (int c = first; c < first + search.childNumOf(node); c++) {
+            snapshot(search, c, path + "," + search.moveOf(c), tree);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package gobang.algorithm.ai;
+
+import gobang.bean.BitBoard;
+import gobang.bean.ColorEnum;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link NnueAccumulator} 增量更新与按文件格式从头计算网络输出的一致性
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class NnueAccumulatorTest {
+
+    private static final int WIDTH = 11;
+
+    private static final int HEIGHT = 9;
+
+    private static final int CELL_NUM = WIDTH * HEIGHT;
+
+    private static final int ACCUMULATOR_SIZE = 16;
+
+    private static final int HIDDEN_SIZE = 8;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * 随机网络权重，与文件中的顺序一致
+     */
+    private short[] inputWeights;
+    private short[] inputBiases;
+    private short[] hiddenWeights;
+    private int[] hiddenBiases;
+    private short[] outputWeights;
+    private int outputBias;
+
+    /**
+     * 评估器随机落子/悔棋，每一步后与新建的累加器、以及直接按权重计算的结果比较
+     */
+    @Test
+    public void incrementalMatchesRecompute() throws IOException {
+        Random random = new Random(24);
+        NnueNetwork network = NnueNetwork.load(writeRandomNetwork(random));
+        IncrementalEvaluator evaluator = new IncrementalEvaluator(new BitBoard(WIDTH, HEIGHT));
+        evaluator.setNetwork(network);
+        BitBoard board = evaluator.getBoard();
+        ColorEnum side = ColorEnum.BLACK;
+        for (int step = 0; step < 400; step++) {
+            if (evaluator.getMoveNum() > 0 && (random.nextInt(3) == 0 || board.getPieceNum() == CELL_NUM)) {
+                evaluator.undoMove();
+            } else {
+                evaluator.applyMove(randomEmptyIndex(board, random), side);
+            }
+            side = AlphaBetaSearch.opposite(side);
+            NnueAccumulator fresh = new NnueAccumulator(network, board);
+            for (ColorEnum color : new ColorEnum[]{ColorEnum.BLACK, ColorEnum.WHITE}) {
+                int expected = recompute(board, color);
+                assertEquals(expected, fresh.evaluate(color));
+                assertEquals(expected, evaluator.evaluate(color));
+            }
+        }
+    }
+
+    /**
+     * 按类注释中的网络结构直接计算：两个视角的累加器、截断、隐藏层右移截断、输出层
+     */
+    private int recompute(BitBoard board, ColorEnum side) {
+        int[] own = accumulate(board, side);
+        int[] opponent = accumulate(board, AlphaBetaSearch.opposite(side));
+        int output = outputBias;
+        for (int h = 0; h < HIDDEN_SIZE; h++) {
+            int sum = hiddenBiases[h];
+            for (int i = 0; i < ACCUMULATOR_SIZE; i++) {
+                sum += clamp(own[i]) * hiddenWeights[i * HIDDEN_SIZE + h];
+                sum += clamp(opponent[i]) * hiddenWeights[(ACCUMULATOR_SIZE + i) * HIDDEN_SIZE + h];
+            }
+            output += clamp(sum >> NnueNetwork.HIDDEN_SHIFT) * outputWeights[h];
+        }
+        return output;
+    }
+
+    /**
+     * 某一方视角的累加器：本方棋子特征为棋位编号，对方棋子为棋位数 + 棋位编号
+     */
+    private int[] accumulate(BitBoard board, ColorEnum perspective) {
+        int[] accumulator = new int[ACCUMULATOR_SIZE];
+        for (int i = 0; i < ACCUMULATOR_SIZE; i++) {
+            accumulator[i] = inputBiases[i];
+        }
+        for (int x = 0; x < WIDTH; x++) {
+            for (int y = 0; y < HEIGHT; y++) {
+                int index = board.indexOf(x, y);
+                if (board.isEmpty(index)) {
+                    continue;
+                }
+                int cell = x * HEIGHT + y;
+                int feature = board.isColor(index, perspective) ? cell : CELL_NUM + cell;
+                for (int i = 0; i < ACCUMULATOR_SIZE; i++) {
+                    accumulator[i] += inputWeights[feature * ACCUMULATOR_SIZE + i];
+                }
+            }
+        }
+        return accumulator;
+    }
+
+    /**
+     * 权重取值范围保证累加器不超出 int16，且激活值落在截断范围两侧
+     */
+    private Path writeRandomNetwork(Random random) throws IOException {
+        inputWeights = randomShorts(random, CELL_NUM * 2 * ACCUMULATOR_SIZE, 24);
+        inputBiases = randomShorts(random, ACCUMULATOR_SIZE, 64);
+        hiddenWeights = randomShorts(random, ACCUMULATOR_SIZE * 2 * HIDDEN_SIZE, 64);
+        hiddenBiases = new int[HIDDEN_SIZE];
+        for (int h = 0; h < HIDDEN_SIZE; h++) {
+            hiddenBiases[h] = random.nextInt(4097) - 2048;
+        }
+        outputWeights = randomShorts(random, HIDDEN_SIZE, 128);
+        outputBias = random.nextInt(1001) - 500;
+
+        Path path = folder.newFile("network.bin").toPath();
+        try (OutputStream stream = Files.newOutputStream(path);
+             DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream))) {
+            output.writeInt(NnueNetwork.MAGIC);
+            output.writeShort(NnueNetwork.VERSION);
+            output.writeByte(WIDTH);
+            output.writeByte(HEIGHT);
+            output.writeShort(ACCUMULATOR_SIZE);
+            output.writeShort(HIDDEN_SIZE);
+            writeShorts(output, inputWeights);
+            writeShorts(output, inputBiases);
+            writeShorts(output, hiddenWeights);
+            for (int bias : hiddenBiases) {
+                output.writeInt(bias);
+            }
+            writeShorts(output, outputWeights);
+            output.writeInt(outputBias);
+        }
+        return path;
+    }
+
+    private static short[] randomShorts(Random random, int length, int bound) {
+        short[] values = new short[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = (short) (random.nextInt(2 * bound + 1) - bound);
+        }
+        return values;
+    }
+
+    private static void writeShorts(DataOutputStream output, short[] values) throws IOException {
+        for (short value : values) {
+            output.writeShort(value);
+        }
+    }
+
+    private static int clamp(int value) {
+        return Math.max(0, Math.min(NnueNetwork.ACTIVATION_MAX, value));
+    }
+
+    private static int randomEmptyIndex(BitBoard board, Random random) {
+        int index;
+        do {
+            index = board.indexOf(random.nextInt(board.getWidth()), random.nextInt(board.getHeight()));
+        } while (!board.isEmpty(index));
+        return index;
+    }
+}
@@ -0,0 +1,117 @@
+package gobang.algorithm.ai;
+
+import gobang.bean.BitBoard;
+import gobang.bean.ColorEnum;
+import gobang.bean.DirectionEnum;
+import org.junit.Test;
+
+import java.util.LinkedList;
+import java.util.Random;
+
+import static gobang.algorithm.ai.PieceType.*;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link PatternTable} 与原 {@link PatternEnum#check(int[])} 逐格扫描检测的等价性
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class PatternTableTest {
+
+    /**
+     * 全部 3^9 种窗口：查表结果与按原扫描方式（从原点往两边走、遇到 S 停止）得到的检测数组直接检测一致
+     */
+    @Test
+    public void lookupMatchesCheckForAllWindows() {
+        int[] window = new int[PatternTable.WINDOW_LENGTH];
+        for (int code = 0; code < PatternTable.SIZE; code++) {
+            PatternTable.decode(code, window);
+            assertEquals(code, PatternTable.encode(window));
+            PatternEnum expected = PatternEnum.check(scan(window));
+            assertEquals("window " + code, expected, PatternTable.lookup(code));
+            assertEquals("window " + code, expected, PatternTable.lookup(window));
+        }
+    }
+
+    /**
+     * 随机局面每个空棋位、每个方向：直接从位棋盘读取的窗口编码与二维数组逐格扫描检测一致
+     */
+    @Test
+    public void boardEncodingMatchesScan() {
+        Random random = new Random(1);
+        for (int round = 0; round < 200; round++) {
+            int width = 5 + random.nextInt(11);
+            int height = 5 + random.nextInt(11);
+            int[][] boardInfo = new int[width][height];
+            for (int x = 0; x < width; x++) {
+                for (int y = 0; y < height; y++) {
+                    boardInfo[x][y] = random.nextInt(3);
+                }
+            }
+            BitBoard board = BitBoard.valueOf(boardInfo);
+            for (int x = 0; x < width; x++) {
+                for (int y = 0; y < height; y++) {
+                    if (boardInfo[x][y] != ColorEnum.EMPTY.ordinal()) {
+                        continue;
+                    }
+                    for (ColorEnum own : new ColorEnum[]{ColorEnum.BLACK, ColorEnum.WHITE}) {
+                        for (DirectionEnum direction : DirectionEnum.values()) {
+                            int code = PatternTable.encode(board, board.indexOf(x, y), board.deltaOf(direction), own);
+                            assertEquals(PatternEnum.check(scan(boardInfo, x, y, direction, own)),
+                                    PatternTable.lookup(code));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 从窗口原点往两边逐格取棋位，遇到 S 即停止（S 本身保留）
+     */
+    private static int[] scan(int[] window) {
+        LinkedList<Integer> subject = new LinkedList<>();
+        subject.add(window[PatternTable.ORIGIN_INDEX]);
+        boolean low = true;
+        boolean high = true;
+        for (int offsetNum = 1; offsetNum <= PatternTable.MAX_OFFSET_NUM; offsetNum++) {
+            if (low) {
+                int type = window[PatternTable.ORIGIN_INDEX - offsetNum];
+                low = type != S;
+                subject.addFirst(type);
+            }
+            if (high) {
+                int type = window[PatternTable.ORIGIN_INDEX + offsetNum];
+                high = type != S;
+                subject.addLast(type);
+            }
+        }
+        return subject.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * 原 findSubjectArray 的扫描方式：原点视为本方棋子，在二维数组上往两边逐格取棋位，遇到对方棋子或边界即停止
+     */
+    static int[] scan(int[][] boardInfo, int x, int y, DirectionEnum direction, ColorEnum own) {
+        int dx = direction == DirectionEnum.VERTICAL ? 0 : 1;
+        int dy = direction == DirectionEnum.HORIZONTAL ? 0 : direction == DirectionEnum.TILT_UP ? -1 : 1;
+        int[] window = new int[PatternTable.WINDOW_LENGTH];
+        for (int offset = -PatternTable.MAX_OFFSET_NUM; offset <= PatternTable.MAX_OFFSET_NUM; offset++) {
+            int cx = x + offset * dx;
+            int cy = y + offset * dy;
+            int type;
+            if (offset == 0) {
+                type = O;
+            } else if (cx < 0 || cx >= boardInfo.length || cy < 0 || cy >= boardInfo[0].length) {
+                type = S;
+            } else if (boardInfo[cx][cy] == ColorEnum.EMPTY.ordinal()) {
+                type = E;
+            } else {
+                type = boardInfo[cx][cy] == own.ordinal() ? O : S;
+            }
+            window[PatternTable.ORIGIN_INDEX + offset] = type;
+        }
+        return scan(window);
+    }
+}
@@ -0,0 +1,137 @@
+package gobang.algorithm.ai;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link PatternWeights} 写入、加载的一致性，以及得分约束和文件格式的检查
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class PatternWeightsTest {
+
+    private static final int PATTERN_NUM = PatternWeights.PATTERN_NUM;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * 默认得分和修改过的得分写入后加载，得分向量一致
+     */
+    @Test
+    public void storeLoadRoundTrip() throws IOException {
+        int[] vector = PatternWeights.DEFAULT.toVector();
+        vector[PatternEnum.LIVE_3.ordinal()] = 12345;
+        vector[PATTERN_NUM + PatternEnum.DIE_2.ordinal()] = 0;
+        for (PatternWeights weights : new PatternWeights[]{PatternWeights.DEFAULT, PatternWeights.fromVector(vector)}) {
+            Path path = folder.newFile().toPath();
+            weights.store(path);
+            PatternWeights loaded = PatternWeights.load(path);
+            assertEquals(weights, loaded);
+            assertEquals(Arrays.toString(weights.toVector()), Arrays.toString(loaded.toVector()));
+        }
+    }
+
+    /**
+     * 只列出部分棋型时其余用默认值，注释和空行跳过
+     */
+    @Test
+    public void loadPartialFileKeepsDefaults() throws IOException {
+        PatternWeights loaded = PatternWeights.load(write("# comment", "", "  LIVE_3   9000 5000  "));
+        int[] expected = PatternWeights.DEFAULT.toVector();
+        expected[PatternEnum.LIVE_3.ordinal()] = 9000;
+        expected[PATTERN_NUM + PatternEnum.LIVE_3.ordinal()] = 5000;
+        assertEquals(Arrays.toString(expected), Arrays.toString(loaded.toVector()));
+    }
+
+    /**
+     * 得分可以为 0，不能为负数
+     */
+    @Test
+    public void scoresMustNotBeNegative() {
+        for (int i = 0; i < PATTERN_NUM * 2; i++) {
+            if (i % PATTERN_NUM == PatternWeights.LINK_5_INDEX) {
+                continue;
+            }
+            int[] vector = PatternWeights.DEFAULT.toVector();
+            vector[i] = 0;
+            PatternWeights.fromVector(vector);
+            vector[i] = -1;
+            assertRejected(vector);
+        }
+    }
+
+    /**
+     * 连五得分必须大于其他棋型最高得分的 4 倍，等于 4 倍时拒绝
+     */
+    @Test
+    public void linkFiveMustExceedFourTimesOthers() {
+        for (int offset : new int[]{0, PATTERN_NUM}) {
+            int[] vector = PatternWeights.DEFAULT.toVector();
+            int maxOther = 0;
+            for (int i = 0; i < PATTERN_NUM; i++) {
+                if (i != PatternWeights.LINK_5_INDEX) {
+                    maxOther = Math.max(maxOther, vector[offset + i]);
+                }
+            }
+            vector[offset + PatternWeights.LINK_5_INDEX] = maxOther * 4 + 1;
+            PatternWeights.fromVector(vector);
+            vector[offset + PatternWeights.LINK_5_INDEX] = maxOther * 4;
+            assertRejected(vector);
+        }
+    }
+
+    @Test
+    public void wrongVectorLengthRejected() {
+        assertRejected(new int[PATTERN_NUM * 2 - 1]);
+        assertRejected(new int[PATTERN_NUM * 2 + 1]);
+    }
+
+    /**
+     * 未知棋型名、列数不对、得分不是整数、得分不满足约束时加载抛出 IOException
+     */
+    @Test
+    public void malformedFilesRejected() throws IOException {
+        assertLoadFails(write("LIVE_6 100 100"));
+        assertLoadFails(write("LIVE_3 100"));
+        assertLoadFails(write("LIVE_3 100 100 100"));
+        assertLoadFails(write("LIVE_3 ten 100"));
+        assertLoadFails(write("LIVE_3 -1 100"));
+        assertLoadFails(write("LINK_5 4000000 5000000"));
+    }
+
+    private Path write(String... lines) throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.write(path, Arrays.asList(lines), StandardCharsets.UTF_8);
+        return path;
+    }
+
+    private static void assertRejected(int[] vector) {
+        try {
+            PatternWeights.fromVector(vector);
+            fail("Expected IllegalArgumentException: " + Arrays.toString(vector));
+        } catch (IllegalArgumentException e) {
+            // 预期
+        }
+    }
+
+    private static void assertLoadFails(Path path) {
+        try {
+            PatternWeights.load(path);
+            fail("Expected IOException");
+        } catch (IOException e) {
+            // 预期
+        }
+    }
+}
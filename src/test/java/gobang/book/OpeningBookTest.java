@@ -0,0 +1,242 @@
+package gobang.book;
+
+import gobang.algorithm.ai.AlphaBetaSearch;
+import gobang.algorithm.ai.IncrementalEvaluator;
+import gobang.algorithm.ai.RankedMove;
+import gobang.bean.BitBoard;
+import gobang.bean.ColorEnum;
+import gobang.bean.Position;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link SymmetryEnum}、{@link CanonicalKey} 的对称换算，以及 {@link OpeningBookBuilder} 写出、{@link OpeningBook} 查询的一致性
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class OpeningBookTest {
+
+	private static final SymmetryEnum[] SYMMETRIES = SymmetryEnum.values();
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * 每个可用的变换把棋位映射到棋盘内，逆变换映射回原棋位
+	 */
+	@Test
+	public void inverseRestoresPosition() {
+		for (int[] size : new int[][]{{15, 15}, {15, 11}, {9, 13}}) {
+			int width = size[0];
+			int height = size[1];
+			for (int s = 0; s < SymmetryEnum.applicableNum(width, height); s++) {
+				SymmetryEnum symmetry = SYMMETRIES[s];
+				SymmetryEnum inverse = symmetry.inverse();
+				for (int x = 0; x < width; x++) {
+					for (int y = 0; y < height; y++) {
+						int tx = symmetry.xOf(x, y, width, height);
+						int ty = symmetry.yOf(x, y, width, height);
+						assertTrue(symmetry + " " + x + "_" + y, 0 <= tx && tx < width && 0 <= ty && ty < height);
+						assertEquals(x, inverse.xOf(tx, ty, width, height));
+						assertEquals(y, inverse.yOf(tx, ty, width, height));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * 随机局面经过每个可用的变换后规范键不变
+	 */
+	@Test
+	public void canonicalKeyIsSymmetryInvariant() {
+		Random random = new Random(20);
+		CanonicalKey canonicalKey = new CanonicalKey();
+		for (int[] size : new int[][]{{15, 15}, {15, 11}}) {
+			for (int round = 0; round < 200; round++) {
+				BitBoard board = randomBoard(size[0], size[1], random.nextInt(20), random);
+				long key = canonicalKey.compute(board);
+				for (int s = 0; s < SymmetryEnum.applicableNum(size[0], size[1]); s++) {
+					assertEquals(key, canonicalKey.compute(transform(board, SYMMETRIES[s])));
+				}
+			}
+		}
+	}
+
+	/**
+	 * 由随机棋谱生成开局库，棋谱中的每个局面在每个可用的变换下查询，
+	 * 返回的落子与原局面的落子经同一变换后等价（落子后的局面规范键相同）
+	 */
+	@Test
+	public void probeUnderAllSymmetries() throws IOException {
+		Random random = new Random(21);
+		for (int[] size : new int[][]{{15, 15}, {15, 11}}) {
+			int width = size[0];
+			int height = size[1];
+			OpeningBookBuilder builder = new OpeningBookBuilder(width, height);
+			List<List<Position>> games = new ArrayList<>();
+			for (int game = 0; game < 200; game++) {
+				List<Position> moves = randomGame(width, height, 8, random);
+				games.add(moves);
+				ColorEnum[] winners = {ColorEnum.BLACK, ColorEnum.WHITE, ColorEnum.EMPTY};
+				builder.addGame(moves, winners[random.nextInt(winners.length)], moves.size());
+			}
+			Path path = folder.newFile().toPath();
+			assertEquals(builder.getPositionNum(), builder.write(path));
+			OpeningBook book = OpeningBook.open(path);
+			assertEquals(width, book.getWidth());
+			assertEquals(height, book.getHeight());
+
+			CanonicalKey canonicalKey = new CanonicalKey();
+			for (List<Position> moves : games) {
+				BitBoard board = new BitBoard(width, height);
+				ColorEnum color = ColorEnum.BLACK;
+				for (Position move : moves) {
+					Position bookMove = book.probe(board);
+					assertNotNull(bookMove);
+					for (int s = 0; s < SymmetryEnum.applicableNum(width, height); s++) {
+						SymmetryEnum symmetry = SYMMETRIES[s];
+						BitBoard transformed = transform(board, symmetry);
+						Position actual = book.probe(transformed);
+						assertNotNull(actual);
+						Position expected = Position.valueOf(symmetry.xOf(bookMove.getX(), bookMove.getY(), width, height),
+								symmetry.yOf(bookMove.getX(), bookMove.getY(), width, height));
+						assertEquals(canonicalKey.compute(after(transformed, expected, color)),
+								canonicalKey.compute(after(transformed, actual, color)));
+					}
+					board.put(board.indexOf(move), color);
+					color = color == ColorEnum.BLACK ? ColorEnum.WHITE : ColorEnum.BLACK;
+				}
+			}
+		}
+	}
+
+	/**
+	 * 搜索样本按名次选：名次 0 的落子胜过名次 1 的落子，与坐标大小无关；
+	 * 棋谱样本按平均胜负分选，与样本数无关
+	 */
+	@Test
+	public void selectsBestRankAndBestAverage() throws IOException {
+		BitBoard board = new BitBoard(15, 15);
+		board.put(board.indexOf(7, 7), ColorEnum.BLACK);
+		OpeningBookBuilder builder = new OpeningBookBuilder(15, 15);
+		builder.addRankedMove(board, Position.valueOf(6, 8), 1);
+		builder.addRankedMove(board, Position.valueOf(8, 9), 0);
+		builder.addMove(board, Position.valueOf(6, 8), OpeningBookBuilder.RESULT_SCORE);
+
+		BitBoard other = new BitBoard(15, 15);
+		other.put(other.indexOf(3, 3), ColorEnum.BLACK);
+		for (int i = 0; i < 3; i++) {
+			builder.addMove(other, Position.valueOf(2, 4), OpeningBookBuilder.RESULT_SCORE);
+			builder.addMove(other, Position.valueOf(2, 4), -OpeningBookBuilder.RESULT_SCORE);
+		}
+		builder.addMove(other, Position.valueOf(4, 5), OpeningBookBuilder.RESULT_SCORE / 2);
+
+		Path path = folder.newFile().toPath();
+		builder.write(path);
+		OpeningBook book = OpeningBook.open(path);
+		assertEquivalent(board, Position.valueOf(8, 9), book.probe(board));
+		assertEquivalent(other, Position.valueOf(4, 5), book.probe(other));
+	}
+
+	/**
+	 * 搜索展开后，每个展开的局面写入的落子是该局面搜索排名第一的棋位
+	 */
+	@Test
+	public void expandStoresTopRankedMove() throws IOException {
+		BitBoard root = new BitBoard(15, 15);
+		root.put(root.indexOf(7, 7), ColorEnum.BLACK);
+		OpeningBookBuilder builder = new OpeningBookBuilder(15, 15);
+		int depth = 2;
+		int branchNum = 3;
+		int expandedNum = builder.expand(root, ColorEnum.WHITE, 3, branchNum, depth);
+		assertEquals(builder.getPositionNum(), expandedNum);
+		Path path = folder.newFile().toPath();
+		builder.write(path);
+		OpeningBook book = OpeningBook.open(path);
+
+		AlphaBetaSearch search = new AlphaBetaSearch(new IncrementalEvaluator(root), AlphaBetaSearch.DEFAULT_WIDTH);
+		List<RankedMove> rankedMoves = search.rank(ColorEnum.WHITE, depth, branchNum);
+		assertEquivalent(root, rankedMoves.get(0).getPosition(), book.probe(root));
+		for (RankedMove rankedMove : rankedMoves) {
+			BitBoard child = after(root, rankedMove.getPosition(), ColorEnum.WHITE);
+			AlphaBetaSearch childSearch = new AlphaBetaSearch(
+					new IncrementalEvaluator(child), AlphaBetaSearch.DEFAULT_WIDTH);
+			Position expected = childSearch.rank(ColorEnum.BLACK, depth, branchNum).get(0).getPosition();
+			assertEquivalent(child, expected, book.probe(child));
+		}
+	}
+
+	/**
+	 * 两个落子后的局面互为对称
+	 */
+	private static void assertEquivalent(BitBoard board, Position expected, Position actual) {
+		assertNotNull(actual);
+		ColorEnum color = board.getPieceNum() % 2 == 0 ? ColorEnum.BLACK : ColorEnum.WHITE;
+		CanonicalKey canonicalKey = new CanonicalKey();
+		assertEquals(canonicalKey.compute(after(board, expected, color)),
+				canonicalKey.compute(after(board, actual, color)));
+	}
+
+	private static BitBoard after(BitBoard board, Position move, ColorEnum color) {
+		BitBoard next = new BitBoard(board);
+		next.put(next.indexOf(move), color);
+		return next;
+	}
+
+	private static BitBoard transform(BitBoard board, SymmetryEnum symmetry) {
+		int width = board.getWidth();
+		int height = board.getHeight();
+		BitBoard transformed = new BitBoard(width, height);
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				ColorEnum color = board.colorAt(board.indexOf(x, y));
+				if (color != ColorEnum.EMPTY) {
+					transformed.put(transformed.indexOf(
+							symmetry.xOf(x, y, width, height), symmetry.yOf(x, y, width, height)), color);
+				}
+			}
+		}
+		return transformed;
+	}
+
+	private static BitBoard randomBoard(int width, int height, int pieceNum, Random random) {
+		BitBoard board = new BitBoard(width, height);
+		ColorEnum color = ColorEnum.BLACK;
+		for (Position move : randomGame(width, height, pieceNum, random)) {
+			board.put(board.indexOf(move), color);
+			color = color == ColorEnum.BLACK ? ColorEnum.WHITE : ColorEnum.BLACK;
+		}
+		return board;
+	}
+
+	/**
+	 * 集中在中心附近的随机落子，局面容易重复
+	 */
+	private static List<Position> randomGame(int width, int height, int moveNum, Random random) {
+		BitBoard board = new BitBoard(width, height);
+		List<Position> moves = new ArrayList<>(moveNum);
+		while (moves.size() < moveNum) {
+			int x = width / 2 - 2 + random.nextInt(5);
+			int y = height / 2 - 2 + random.nextInt(5);
+			int index = board.indexOf(x, y);
+			if (board.isEmpty(index)) {
+				board.put(index, ColorEnum.BLACK);
+				moves.add(Position.valueOf(x, y));
+			}
+		}
+		return moves;
+	}
+}
@@ -0,0 +1,157 @@
+package gobang.record;
+
+import gobang.bean.ColorEnum;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link GameRecordWriter} 写出、{@link GameRecordReader} 读回的一致性，以及损坏文件的处理
+ *
+ * @author agent
+ * @date 2026/10/18
+ */
+public class GameRecordTest {
+
+	private static final GameResultEnum[] RESULTS = GameResultEnum.values();
+
+	/**
+	 * 随机棋谱写出再读回，每局的尺寸、先行方、结果、落子都一致；总大小超过读写缓冲区，覆盖分块读写
+	 */
+	@Test
+	public void writeReadRoundTrip() throws IOException {
+		Random random = new Random(21);
+		List<GameRecord> records = new ArrayList<>();
+		for (int i = 0; i < 3000; i++) {
+			records.add(randomRecord(random));
+		}
+		byte[] bytes = write(records);
+
+		try (GameRecordReader reader = new GameRecordReader(Channels.newChannel(new ByteArrayInputStream(bytes)))) {
+			GameRecord actual = new GameRecord();
+			for (GameRecord expected : records) {
+				assertEquals(true, reader.read(actual));
+				assertSame(expected, actual);
+			}
+			assertFalse(reader.read(actual));
+			assertNull(reader.read());
+			assertEquals(records.size(), reader.getGameNum());
+		}
+	}
+
+	/**
+	 * 局头中的先行方序号超出棋色范围时抛出 IOException
+	 */
+	@Test
+	public void corruptColorThrowsIOException() throws IOException {
+		GameRecord record = new GameRecord(15, 15, ColorEnum.BLACK);
+		record.addMove(7, 7);
+		byte[] bytes = write(Arrays.asList(record));
+		int flagsOffset = GameRecordWriter.FILE_HEADER_LENGTH + 2;
+		for (int colorOrdinal = 0; colorOrdinal < 1 << GameRecordWriter.COLOR_BITS; colorOrdinal++) {
+			if (colorOrdinal == ColorEnum.BLACK.ordinal() || colorOrdinal == ColorEnum.WHITE.ordinal()) {
+				continue;
+			}
+			byte[] corrupt = bytes.clone();
+			corrupt[flagsOffset] = (byte) (corrupt[flagsOffset] & ~((1 << GameRecordWriter.COLOR_BITS) - 1) | colorOrdinal);
+			assertReadFails(corrupt, IOException.class);
+		}
+	}
+
+	/**
+	 * 单边 255 的棋盘可以写出读回；单边 256 的棋盘在局头中写不下，创建时就拒绝
+	 */
+	@Test
+	public void boardSideLimit() throws IOException {
+		GameRecord wide = new GameRecord(GameRecord.MAX_SIZE, 1, ColorEnum.BLACK);
+		wide.addMove(GameRecord.MAX_SIZE - 1, 0);
+		GameRecord tall = new GameRecord(1, GameRecord.MAX_SIZE, ColorEnum.WHITE);
+		tall.addMove(0, GameRecord.MAX_SIZE - 1);
+		byte[] bytes = write(Arrays.asList(wide, tall));
+		try (GameRecordReader reader = new GameRecordReader(Channels.newChannel(new ByteArrayInputStream(bytes)))) {
+			assertSame(wide, reader.read());
+			assertSame(tall, reader.read());
+		}
+
+		for (int[] size : new int[][]{{GameRecord.MAX_SIZE + 1, 1}, {1, GameRecord.MAX_SIZE + 1}}) {
+			try {
+				new GameRecord(size[0], size[1], ColorEnum.BLACK);
+				fail("Expected IllegalArgumentException: " + size[0] + "x" + size[1]);
+			} catch (IllegalArgumentException e) {
+				// 预期
+			}
+		}
+	}
+
+	/**
+	 * 文件在局头或落子中间截断时抛出 EOFException
+	 */
+	@Test
+	public void truncatedRecordThrowsEOFException() throws IOException {
+		GameRecord record = new GameRecord(15, 15, ColorEnum.WHITE);
+		record.addMove(7, 7);
+		record.addMove(8, 8);
+		byte[] bytes = write(Arrays.asList(record));
+		assertReadFails(Arrays.copyOf(bytes, GameRecordWriter.FILE_HEADER_LENGTH + 3), EOFException.class);
+		assertReadFails(Arrays.copyOf(bytes, bytes.length - 1), EOFException.class);
+	}
+
+	private static GameRecord randomRecord(Random random) {
+		int width = 1 + random.nextInt(16);
+		int height = 1 + random.nextInt(16);
+		GameRecord record = new GameRecord(width, height, random.nextBoolean() ? ColorEnum.BLACK : ColorEnum.WHITE);
+		record.setResult(RESULTS[random.nextInt(RESULTS.length)]);
+		int moveNum = random.nextInt(width * height + 1);
+		for (int i = 0; i < moveNum; i++) {
+			record.addMove(random.nextInt(width), random.nextInt(height));
+		}
+		return record;
+	}
+
+	private static byte[] write(List<GameRecord> records) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try (GameRecordWriter writer = new GameRecordWriter(Channels.newChannel(output))) {
+			for (GameRecord record : records) {
+				writer.write(record);
+			}
+			assertEquals(records.size(), writer.getGameNum());
+		}
+		return output.toByteArray();
+	}
+
+	private static void assertSame(GameRecord expected, GameRecord actual) {
+		assertEquals(expected.getWidth(), actual.getWidth());
+		assertEquals(expected.getHeight(), actual.getHeight());
+		assertEquals(expected.getStartColor(), actual.getStartColor());
+		assertEquals(expected.getResult(), actual.getResult());
+		assertEquals(expected.getMoveNum(), actual.getMoveNum());
+		assertArrayEquals(Arrays.copyOf(expected.moves(), expected.getMoveNum()),
+				Arrays.copyOf(actual.moves(), actual.getMoveNum()));
+		for (int i = 0; i < expected.getMoveNum(); i++) {
+			assertEquals(expected.colorOf(i), actual.colorOf(i));
+		}
+	}
+
+	private static void assertReadFails(byte[] bytes, Class<? extends IOException> expected) throws IOException {
+		try (GameRecordReader reader = new GameRecordReader(Channels.newChannel(new ByteArrayInputStream(bytes)))) {
+			reader.read();
+			fail("Expected " + expected.getSimpleName());
+		} catch (IOException e) {
+			assertEquals(expected, e.getClass());
+		}
+	}
+}